@@ -9,16 +9,21 @@ import com.ptsecurity.appsec.ai.ee.utils.ci.integration.functions.EventConsumer;
 import com.ptsecurity.appsec.ai.ee.utils.ci.integration.functions.TextOutput;
 import com.ptsecurity.appsec.ai.ee.utils.ci.integration.tasks.ServerVersionTasks;
 import com.ptsecurity.appsec.ai.ee.utils.ci.integration.utils.ApiClientHelper;
+import com.ptsecurity.appsec.ai.ee.utils.ci.integration.utils.AuthCache;
+import com.ptsecurity.appsec.ai.ee.utils.ci.integration.utils.JwtRefresher;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
+import okhttp3.OkHttpClient;
 import org.apache.commons.lang3.StringUtils;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
 
 import static com.ptsecurity.appsec.ai.ee.utils.ci.integration.utils.CallHelper.call;
 
@@ -46,10 +51,36 @@ public abstract class AbstractApiClient {
      */
     protected final List<Object> apis = new ArrayList<>();
 
+    /**
+     * HTTP client that all the APIs HTTP clients are derived from. As derived
+     * clients share connection pool, TLS sessions are reused between APIs
+     */
+    @Setter
+    protected OkHttpClient httpClient = null;
+
     /**
      * Currently owned JWT. This jwt token shared by all the APIs and managed by their JwtAuthenticators
+     * and {@link JwtRefresher}. Field is volatile as token is replaced in background
+     */
+    protected volatile JwtResponse apiJwt = null;
+
+    /**
+     * Mutex that guarantees single JWT refresh at a time
+     */
+    @Getter(AccessLevel.NONE)
+    private final Object jwtMutex = new Object();
+
+    /**
+     * Background JWT refresh task scheduled for current token
      */
-    protected JwtResponse apiJwt = null;
+    @Getter(AccessLevel.NONE)
+    private ScheduledFuture<?> jwtRefresh = null;
+
+    /**
+     * Optional persistent cache where JWT is stored every time it is changed
+     */
+    @Setter
+    protected AuthCache authCache = null;
 
     protected void setApiJwt(@NonNull final JwtResponse apiJwt) {
         for (Object api : apis) {
@@ -59,10 +90,34 @@ public abstract class AbstractApiClient {
                     .setApiKey(apiJwt.getAccessToken());
         }
         this.apiJwt = apiJwt;
+        if (null != authCache) authCache.put(connectionSettings, new AuthCache.Entry(getApiVersion(), apiJwt));
+        synchronized (jwtMutex) {
+            if (null != jwtRefresh) jwtRefresh.cancel(false);
+            jwtRefresh = JwtRefresher.schedule(this, apiJwt, advancedSettings.getInt(AdvancedSettings.SettingInfo.JWT_REFRESH_ADVANCE));
+        }
     }
 
     public abstract JwtResponse authenticate() throws GenericException;
 
+    /**
+     * Refresh JWT with single-flight semantics: concurrent callers that hold the same
+     * outdated access token wait for single refresh and get its result
+     * @param outdatedAccessToken Access token that is to be replaced. If current token differs
+     *                            from outdated one, it was already refreshed and is returned as is
+     * @return Current JWT
+     * @throws GenericException Exception that contains authentication error details
+     */
+    public JwtResponse refreshJwt(final String outdatedAccessToken) throws GenericException {
+        synchronized (jwtMutex) {
+            JwtResponse current = apiJwt;
+            if (null != current && null != outdatedAccessToken && !outdatedAccessToken.equals(current.getAccessToken())) {
+                log.trace("JWT already refreshed");
+                return current;
+            }
+            return authenticate();
+        }
+    }
+
     public abstract Map<ServerVersionTasks.Component, String> getCurrentApiVersion() throws GenericException;
 
     /**
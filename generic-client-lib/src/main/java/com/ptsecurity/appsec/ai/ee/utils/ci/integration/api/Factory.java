@@ -1,25 +1,21 @@
 package com.ptsecurity.appsec.ai.ee.utils.ci.integration.api;
 
+import com.ptsecurity.appsec.ai.ee.scan.result.ScanBrief;
 import com.ptsecurity.appsec.ai.ee.utils.ci.integration.domain.AdvancedSettings;
 import com.ptsecurity.appsec.ai.ee.utils.ci.integration.domain.ConnectionSettings;
 import com.ptsecurity.appsec.ai.ee.utils.ci.integration.exceptions.GenericException;
 import com.ptsecurity.appsec.ai.ee.utils.ci.integration.exceptions.VersionUnsupportedException;
 import com.ptsecurity.appsec.ai.ee.utils.ci.integration.jobs.AbstractJob;
 import com.ptsecurity.appsec.ai.ee.utils.ci.integration.tasks.*;
+import com.ptsecurity.appsec.ai.ee.utils.ci.integration.utils.AuthCache;
 import com.ptsecurity.appsec.ai.ee.utils.ci.integration.utils.VersionHelper;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
-import org.reflections.Reflections;
-
-import java.lang.reflect.Modifier;
-import java.time.Duration;
-import java.time.Instant;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
-import java.util.Set;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 import static com.ptsecurity.appsec.ai.ee.utils.ci.integration.utils.CallHelper.call;
@@ -53,68 +49,177 @@ public class Factory {
         return onClass(className).create(client).get();
     }
 
-    public static List<Class<?>> getAllClientImplementations() {
-        // Search for available VersionRange-annotated non-abstract descendants of AbstractApiClient
-        log.debug("Scan PT AI server API client implementations");
-        Instant start = Instant.now();
-        Reflections reflections = new Reflections("com.ptsecurity.appsec.ai.ee.utils.ci.integration.api");
-        Set<Class<?>> classes = reflections.getTypesAnnotatedWith(VersionRange.class);
-        Duration classScanDuration = Duration.between(start, Instant.now());
-        log.debug("Scan took {} ns, {} client implementations found", classScanDuration.toNanos(), classes.size());
-        return new ArrayList<>(classes);
+    /**
+     * PT AI server API client implementations registry. Newest API versions go first
+     * as those are most likely to be used
+     */
+    protected static final Map<ScanBrief.ApiVersion, Class<? extends AbstractApiClient>> CLIENTS = new LinkedHashMap<>();
+
+    static {
+        CLIENTS.put(ScanBrief.ApiVersion.V41, com.ptsecurity.appsec.ai.ee.utils.ci.integration.api.v41.ApiClient.class);
+        CLIENTS.put(ScanBrief.ApiVersion.V40, com.ptsecurity.appsec.ai.ee.utils.ci.integration.api.v40.ApiClient.class);
+        CLIENTS.put(ScanBrief.ApiVersion.V36, com.ptsecurity.appsec.ai.ee.utils.ci.integration.api.v36.ApiClient.class);
+    }
+
+    /**
+     * API client implementations that were successfully used for PT AI server URLs. Long-living
+     * processes like IDE or CI plugins create lots of clients for the same server, so
+     * there's no need to probe all the implementations every time
+     */
+    protected static final Map<String, Class<? extends AbstractApiClient>> SERVER_CLIENTS = new ConcurrentHashMap<>();
+
+    public static List<Class<? extends AbstractApiClient>> getAllClientImplementations() {
+        return new ArrayList<>(CLIENTS.values());
     }
 
     @NonNull
     public static AbstractApiClient client(@NonNull final ConnectionSettings connectionSettings, @NonNull AdvancedSettings advancedSettings) throws GenericException {
-        List<Class<?>> clients = getAllClientImplementations();
-        for (Class<?> clazz : clients) {
-            log.debug("Checking {} class", clazz.getCanonicalName());
-            if (!AbstractApiClient.class.isAssignableFrom(clazz)) continue;
-            if (Modifier.isAbstract(clazz.getModifiers())) continue;
+        connectionSettings.validate();
+        AuthCache authCache = advancedSettings.getBoolean(AdvancedSettings.SettingInfo.AUTH_CACHE)
+                ? new AuthCache(AuthCache.defaultFile(), advancedSettings.getInt(AdvancedSettings.SettingInfo.AUTH_CACHE_TTL))
+                : null;
+        if (null != authCache) {
+            AbstractApiClient client = cached(authCache, connectionSettings, advancedSettings);
+            if (null != client) return client;
+        }
 
-            AbstractApiClient client = onClass(clazz).create(connectionSettings.validate(), advancedSettings).get();
-            // Initialize all API clients with URL, timeouts, SSL settings etc.
-            client.init();
-            log.debug("Class {} instance created", clazz.getCanonicalName());
+        String url = StringUtils.removeEnd(connectionSettings.getUrl().trim(), "/");
+        // Probe implementation that was used for this server last time first
+        List<Class<? extends AbstractApiClient>> clients = new ArrayList<>();
+        Class<? extends AbstractApiClient> knownClient = SERVER_CLIENTS.get(url);
+        if (null != knownClient) clients.add(knownClient);
+        CLIENTS.values().stream().filter(c -> !c.equals(knownClient)).forEach(clients::add);
+
+        for (Class<? extends AbstractApiClient> clazz : clients) {
+            log.debug("Checking {} class", clazz.getCanonicalName());
             try {
-                call(client::authenticate, "Authentication failed");
-                log.debug("Client authenticated");
-                String versionString = call(client::getCurrentApiVersion, "PT AI API version read failed")
-                        .get(ServerVersionTasks.Component.AIE);
-                if (StringUtils.isEmpty(versionString)) {
-                    log.debug("Empty PT AI API version");
-                    continue;
-                }
-                log.debug("PT AI API version string: {}", versionString);
-                List<Integer> version = call(
-                        () -> Arrays.stream(versionString.split("\\.")).map(Integer::valueOf).collect(Collectors.toList()),
-                        "Version string parse failed");
-                log.debug("PT AI API version parse complete");
+                AbstractApiClient client = create(clazz, connectionSettings, advancedSettings);
+                List<Integer> version = version(client);
+                if (null == version) continue;
                 // Client authenticated, but it doesn't mean anything: need to check if version from server lays in VersionRange
-                VersionRange versionRange = clazz.getAnnotation(VersionRange.class);
-                // Check if PT AI server API version greater than minimum
-                List<Integer> minimumVersion = new ArrayList<>();
-                for (int i : versionRange.min()) minimumVersion.add(i);
-                if (0 != versionRange.min().length && 1 == VersionHelper.compare(minimumVersion, version)) {
-                    log.debug("PT AI server API minimum version constraint violated");
-                    continue;
-                }
-                // Check if PT AI server API version less than maximum
-                List<Integer> maximumVersion = new ArrayList<>();
-                for (int i : versionRange.max()) maximumVersion.add(i);
-                if (0 != versionRange.max().length && 1 == VersionHelper.compare(version, maximumVersion)) {
-                    log.debug("PT AI server API maximum version constraint violated");
-                    continue;
-                }
-                return client;
+                if (matches(clazz, version)) return remember(url, client, authCache);
+                // Server version is known now, so there's no need to probe other
+                // implementations: just create one that supports this version
+                Class<? extends AbstractApiClient> matchingClazz = CLIENTS.values().stream()
+                        .filter(c -> matches(c, version))
+                        .findAny()
+                        .orElseThrow(() -> GenericException.raise("PT AI server API client create failed", new VersionUnsupportedException()));
+                log.debug("Server API version is supported by {} class", matchingClazz.getCanonicalName());
+                return remember(url, create(matchingClazz, connectionSettings, advancedSettings), authCache);
             } catch (GenericException e) {
+                if (e.getCause() instanceof VersionUnsupportedException) throw e;
                 log.debug("PT AI server API check failed: {}", e.getDetailedMessage());
-                continue;
             }
         }
         throw GenericException.raise("PT AI server API client create failed", new VersionUnsupportedException());
     }
 
+    /**
+     * Create API client using server API version and JWT from persistent cache. As server
+     * might be upgraded since cache entry was created, API version is read using cached JWT
+     * and checked against client class {@link VersionRange}. If JWT is expired, it is
+     * refreshed during that check
+     * @return Initialized API client or null if there's no usable cache entry
+     */
+    protected static AbstractApiClient cached(
+            @NonNull final AuthCache authCache,
+            @NonNull final ConnectionSettings connectionSettings,
+            @NonNull final AdvancedSettings advancedSettings) {
+        AuthCache.Entry entry = authCache.get(connectionSettings);
+        if (null == entry || null == entry.getJwt() || !CLIENTS.containsKey(entry.getApiVersion())) return null;
+        Class<? extends AbstractApiClient> clazz = CLIENTS.get(entry.getApiVersion());
+        try {
+            AbstractApiClient client = onClass(clazz).create(connectionSettings, advancedSettings).get();
+            client.init();
+            client.setApiJwt(entry.getJwt());
+            log.debug("Class {} instance created using cached JWT", clazz.getCanonicalName());
+            List<Integer> version = version(client);
+            if (null == version || !matches(clazz, version)) {
+                log.debug("Cached API version doesn't match server one");
+                authCache.remove(connectionSettings);
+                return null;
+            }
+            client.setAuthCache(authCache);
+            return client;
+        } catch (GenericException e) {
+            log.debug("Cached API client create failed: {}", e.getDetailedMessage());
+            authCache.remove(connectionSettings);
+            return null;
+        }
+    }
+
+    /**
+     * Remember API client implementation that is used for PT AI server
+     */
+    protected static AbstractApiClient remember(
+            @NonNull final String url,
+            @NonNull final AbstractApiClient client,
+            final AuthCache authCache) {
+        SERVER_CLIENTS.put(url, client.getClass());
+        if (null == authCache) return client;
+        client.setAuthCache(authCache);
+        authCache.put(client.getConnectionSettings(), new AuthCache.Entry(client.getApiVersion(), client.getApiJwt()));
+        return client;
+    }
+
+    /**
+     * Create, initialize and authenticate API client
+     */
+    protected static AbstractApiClient create(
+            @NonNull final Class<? extends AbstractApiClient> clazz,
+            @NonNull final ConnectionSettings connectionSettings,
+            @NonNull final AdvancedSettings advancedSettings) throws GenericException {
+        AbstractApiClient client = onClass(clazz).create(connectionSettings, advancedSettings).get();
+        // Initialize all API clients with URL, timeouts, SSL settings etc.
+        client.init();
+        log.debug("Class {} instance created", clazz.getCanonicalName());
+        call(client::authenticate, "Authentication failed");
+        log.debug("Client authenticated");
+        return client;
+    }
+
+    /**
+     * Get PT AI server API version using authenticated client
+     * @return Parsed version or null if server returned empty version string
+     */
+    protected static List<Integer> version(@NonNull final AbstractApiClient client) throws GenericException {
+        String versionString = call(client::getCurrentApiVersion, "PT AI API version read failed")
+                .get(ServerVersionTasks.Component.AIE);
+        if (StringUtils.isEmpty(versionString)) {
+            log.debug("Empty PT AI API version");
+            return null;
+        }
+        log.debug("PT AI API version string: {}", versionString);
+        List<Integer> version = call(
+                () -> Arrays.stream(versionString.split("\\.")).map(Integer::valueOf).collect(Collectors.toList()),
+                "Version string parse failed");
+        log.debug("PT AI API version parse complete");
+        return version;
+    }
+
+    /**
+     * Check if PT AI server API version lays in client class {@link VersionRange}
+     */
+    protected static boolean matches(@NonNull final Class<?> clazz, @NonNull final List<Integer> version) {
+        VersionRange versionRange = clazz.getAnnotation(VersionRange.class);
+        if (null == versionRange) return false;
+        // Check if PT AI server API version greater than minimum
+        List<Integer> minimumVersion = new ArrayList<>();
+        for (int i : versionRange.min()) minimumVersion.add(i);
+        if (0 != versionRange.min().length && 1 == VersionHelper.compare(minimumVersion, version)) {
+            log.debug("PT AI server API minimum version constraint violated");
+            return false;
+        }
+        // Check if PT AI server API version less than maximum
+        List<Integer> maximumVersion = new ArrayList<>();
+        for (int i : versionRange.max()) maximumVersion.add(i);
+        if (0 != versionRange.max().length && 1 == VersionHelper.compare(version, maximumVersion)) {
+            log.debug("PT AI server API maximum version constraint violated");
+            return false;
+        }
+        return true;
+    }
+
     @NonNull
     public static AbstractApiClient client(@NonNull final ConnectionSettings connectionSettings) throws GenericException {
         return client(connectionSettings, AdvancedSettings.getDefault());
@@ -1,6 +1,5 @@
 package com.ptsecurity.appsec.ai.ee.utils.ci.integration.api.v36.tasks;
 
-import com.microsoft.signalr.HubConnection;
 import com.ptsecurity.appsec.ai.ee.scan.errors.Error;
 import com.ptsecurity.appsec.ai.ee.scan.reports.Reports;
 import com.ptsecurity.appsec.ai.ee.scan.result.ScanBrief;
@@ -12,28 +11,36 @@ import com.ptsecurity.appsec.ai.ee.server.v36.projectmanagement.model.V36ScanSet
 import com.ptsecurity.appsec.ai.ee.server.v36.scanscheduler.model.ScanType;
 import com.ptsecurity.appsec.ai.ee.server.v36.scanscheduler.model.StartScanModel;
 import com.ptsecurity.appsec.ai.ee.utils.ci.integration.api.AbstractApiClient;
-import com.ptsecurity.appsec.ai.ee.utils.ci.integration.api.v36.ApiClient;
 import com.ptsecurity.appsec.ai.ee.utils.ci.integration.api.v36.converters.IssuesConverter;
 import com.ptsecurity.appsec.ai.ee.utils.ci.integration.api.v36.converters.ScanErrorsConverter;
 import com.ptsecurity.appsec.ai.ee.utils.ci.integration.api.v36.events.ScanCompleteEvent;
 import com.ptsecurity.appsec.ai.ee.utils.ci.integration.exceptions.GenericException;
+import com.ptsecurity.appsec.ai.ee.utils.ci.integration.functions.EventConsumer;
+import com.ptsecurity.appsec.ai.ee.utils.ci.integration.functions.TextOutput;
 import com.ptsecurity.appsec.ai.ee.utils.ci.integration.tasks.GenericAstTasks;
 import com.ptsecurity.appsec.ai.ee.utils.ci.integration.tasks.ServerVersionTasks;
+import com.ptsecurity.appsec.ai.ee.utils.ci.integration.utils.NotificationHub;
+import com.ptsecurity.appsec.ai.ee.utils.ci.integration.utils.RetryHelper;
+import com.ptsecurity.appsec.ai.ee.utils.ci.integration.utils.ScanCompletionWaiter;
+import com.ptsecurity.appsec.ai.ee.utils.ci.integration.utils.ZipRequestBody;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import okhttp3.Request;
 
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.InputStream;
 import java.util.*;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import static com.ptsecurity.appsec.ai.ee.server.v36.projectmanagement.model.Stage.*;
 import static com.ptsecurity.appsec.ai.ee.utils.ci.integration.api.v36.converters.IssuesConverter.convert;
+import static com.ptsecurity.appsec.ai.ee.utils.ci.integration.domain.AdvancedSettings.SettingInfo.SCAN_POLL_INTERVAL_MAX;
+import static com.ptsecurity.appsec.ai.ee.utils.ci.integration.domain.AdvancedSettings.SettingInfo.SCAN_POLL_INTERVAL_MIN;
 import static com.ptsecurity.appsec.ai.ee.utils.ci.integration.utils.CallHelper.call;
+import static com.ptsecurity.appsec.ai.ee.utils.ci.integration.utils.CallHelper.callConcurrently;
 
 @Slf4j
 public class GenericAstTasksImpl extends AbstractTaskImpl implements GenericAstTasks {
@@ -42,7 +49,20 @@ public class GenericAstTasksImpl extends AbstractTaskImpl implements GenericAstT
     }
 
     public void upload(@NonNull final UUID projectId, @NonNull final File sources) throws GenericException {
-        call(() -> client.getStoreApi().uploadSources(projectId, sources), "PT AI project sources upload failed");
+        RetryHelper.upload(client.getAdvancedSettings()).call(
+                () -> client.getStoreApi().uploadSources(projectId, sources),
+                "PT AI project sources upload failed");
+    }
+
+    public boolean upload(@NonNull final UUID projectId, @NonNull final ZipRequestBody sources) throws GenericException {
+        // Let generated API build file upload request with proper URL and authentication
+        // headers. Placeholder file isn't read as its request body is replaced with streaming one
+        Request request = call(
+                () -> client.getStoreApi().uploadSourcesCall(projectId, new File(ZipRequestBody.FILE_NAME), null).request(),
+                "PT AI project sources upload request create failed");
+        return RetryHelper.upload(client.getAdvancedSettings()).call(
+                () -> sources.upload(client.getStoreApi().getApiClient().getHttpClient(), request),
+                "PT AI project sources upload failed");
     }
 
     @Override
@@ -65,74 +85,45 @@ public class GenericAstTasksImpl extends AbstractTaskImpl implements GenericAstT
                 "Failed to get AST result URL");
     }
 
-    public static class ProjectPollingThread implements Runnable {
-        protected final ApiClient client;
-
-        protected final UUID projectId;
-        protected final UUID scanResultId;
-        protected final BlockingQueue<Stage> queue;
-
-        protected final Thread thread;
-
-        protected boolean exit = false;
-
-        public ProjectPollingThread(@NonNull final ApiClient client, @NonNull final UUID projectId, @NonNull final UUID scanResultId, @NonNull final BlockingQueue<Stage> queue) {
-            this.client = client;
-            this.projectId = projectId;
-            this.scanResultId = scanResultId;
-            this.queue = queue;
-
-            this.thread = new Thread(this);
-            this.thread.start();
-        }
-
-        @Override
-        public void run() {
-            while (!exit) {
-                try {
-                    Thread.sleep(5 * 60 * 1000);
-                    log.trace("Poll {} project {} scan state", projectId, scanResultId);
-                    com.ptsecurity.appsec.ai.ee.server.v36.projectmanagement.model.ScanResult scanResult = call(
-                            () -> client.getProjectsApi().apiProjectsProjectIdScanResultsScanResultIdGet(projectId, scanResultId),
-                            "Get project scan result failed");
-                    // TODO: Properly process this
-                    if (null == scanResult.getProgress()) break;
-                    if (null == scanResult.getProgress().getStage()) break;
-                    Stage stage = scanResult.getProgress().getStage();
-                    if (DONE != stage && ABORTED != stage && FAILED != stage) continue;
-                    log.trace("Stop job from polling thread");
-                    queue.add(stage);
-                    break;
-                } catch (GenericException e) {
-                    log.error("Project polling thread failed to get scan state", e);
-                    break;
-                } catch (InterruptedException e) {
-                    log.error("Project polling thread interrupted", e);
-                    break;
-                }
-            }
-        }
-
-        public void stop() {
-            exit = true;
-        }
+    /**
+     * Poll scan state. Used as a fallback for lost SignalR notifications
+     * @return Final scan stage or null if scan isn't finished yet
+     */
+    protected Stage pollStage(@NonNull final UUID projectId, @NonNull final UUID scanResultId) throws GenericException {
+        log.trace("Poll {} project {} scan state", projectId, scanResultId);
+        com.ptsecurity.appsec.ai.ee.server.v36.projectmanagement.model.ScanResult scanResult = call(
+                () -> client.getProjectsApi().apiProjectsProjectIdScanResultsScanResultIdGet(projectId, scanResultId),
+                "Get project scan result failed");
+        if (null == scanResult.getProgress() || null == scanResult.getProgress().getStage()) return null;
+        Stage stage = scanResult.getProgress().getStage();
+        return DONE == stage || ABORTED == stage || Stage.FAILED == stage ? stage : null;
     }
 
     @Override
     public ScanBrief.State waitForComplete(@NonNull UUID projectId, @NonNull UUID scanResultId) throws InterruptedException {
-        // Semaphore-based implementation was replaced by queue-based as
-        // waitForComplete unblocking may be done on several events like
-        // ScanCompleted and ScanProgress with aborted and failed stage values
-        BlockingQueue<Stage> queue = new LinkedBlockingDeque<>();
-
-        // As sometimes notifications get lost somewhere we need to implement parallel polling thread
-        ProjectPollingThread pollingThread = new ProjectPollingThread(client, projectId, scanResultId, queue);
-        HubConnection connection = client.createSignalrConnection(projectId, scanResultId, queue);
-        client.wait(connection, projectId, scanResultId);
+        return waitForComplete(projectId, scanResultId, client.getConsole(), client.getEventConsumer());
+    }
 
-        Stage stage = queue.take();
-        connection.stop();
-        pollingThread.stop();
+    @Override
+    public ScanBrief.State waitForComplete(
+            @NonNull UUID projectId, @NonNull UUID scanResultId,
+            final TextOutput console, final EventConsumer eventConsumer) throws InterruptedException {
+        // Scan completion is reported by SignalR notifications. As sometimes notifications
+        // get lost somewhere, scan state is also polled with adaptive interval
+        ScanCompletionWaiter<Stage> waiter = new ScanCompletionWaiter<>(
+                () -> pollStage(projectId, scanResultId),
+                client.getAdvancedSettings().getInt(SCAN_POLL_INTERVAL_MIN),
+                client.getAdvancedSettings().getInt(SCAN_POLL_INTERVAL_MAX),
+                TimeUnit.SECONDS).start();
+        Stage stage;
+        try {
+            // SignalR connection is shared by all the scans that client waits for
+            client.getNotificationHub().register(scanResultId, new NotificationHub.Listener<>(projectId, waiter, console, eventConsumer));
+            stage = waiter.await();
+        } finally {
+            waiter.cancel();
+            client.getNotificationHub().unregister(scanResultId);
+        }
 
         return Stage.FAILED == stage
                 ? ScanBrief.State.FAILED
@@ -239,16 +230,17 @@ public class GenericAstTasksImpl extends AbstractTaskImpl implements GenericAstT
         log.debug("Project {} scan result {} load complete", projectId, scanResultId);
 
         log.trace("Loading issues into temporal files");
-        Map<Reports.Locale, File> issuesModelFiles = new HashMap<>();
         Map<Reports.Locale, InputStream> issuesModelStreams = new HashMap<>();
-        for (Reports.Locale locale : Reports.Locale.values()) {
+        // Localized issues are downloaded concurrently. First locale is used by
+        // converter as a metadata and issues source, other ones are descriptions source only.
+        // If any of downloads failed, files that were downloaded already are deleted
+        List<Reports.Locale> locales = Arrays.asList(Reports.Locale.values());
+        Map<Reports.Locale, File> issuesModelFiles = callConcurrently(locales, locales.size(), locale -> {
             log.trace("Getting issues data using {} locale", locale);
-            File issuesModelFile = call(
-                    () -> client.getProjectsApi().apiProjectsProjectIdScanResultsScanResultIdIssuesGet(projectId, scanResultId, locale.getCode()),
-                    "PT AI project localized scan status JSON read failed");
+            File issuesModelFile = client.getProjectsApi().apiProjectsProjectIdScanResultsScanResultIdIssuesGet(projectId, scanResultId, locale.getCode());
             log.debug("Localized ({}) issues stored to temp file {}", locale, issuesModelFile.getAbsolutePath());
-            issuesModelFiles.put(locale, issuesModelFile);
-        }
+            return issuesModelFile;
+        }, File::delete, "PT AI project localized scan status JSON read failed");
 
         log.trace("Loading project {} scan settings {}", projectId, scanResult.getSettingsId());
         V36ScanSettings scanSettings = call(
@@ -1,6 +1,5 @@
 package com.ptsecurity.appsec.ai.ee.utils.ci.integration.api.v36.tasks;
 
-import com.contrastsecurity.sarif.SarifSchema210;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.ptsecurity.appsec.ai.ee.scan.reports.Reports;
 import com.ptsecurity.appsec.ai.ee.scan.reports.Reports.*;
@@ -9,15 +8,14 @@ import com.ptsecurity.appsec.ai.ee.server.v36.projectmanagement.model.*;
 import com.ptsecurity.appsec.ai.ee.utils.ci.integration.api.AbstractApiClient;
 import com.ptsecurity.appsec.ai.ee.utils.ci.integration.api.Factory;
 import com.ptsecurity.appsec.ai.ee.utils.ci.integration.api.v36.converters.ReportsConverter;
+import com.ptsecurity.appsec.ai.ee.utils.ci.integration.domain.AdvancedSettings;
 import com.ptsecurity.appsec.ai.ee.utils.ci.integration.exceptions.GenericException;
 import com.ptsecurity.appsec.ai.ee.utils.ci.integration.jobs.GenericAstJob;
-import com.ptsecurity.appsec.ai.ee.utils.ci.integration.jobs.subjobs.export.SonarGiif.SonarGiifReport;
 import com.ptsecurity.appsec.ai.ee.utils.ci.integration.operations.FileOperations;
 import com.ptsecurity.appsec.ai.ee.utils.ci.integration.tasks.GenericAstTasks;
 import com.ptsecurity.appsec.ai.ee.utils.ci.integration.tasks.ReportsTasks;
-import com.ptsecurity.appsec.ai.ee.utils.ci.integration.utils.CallHelper;
 import com.ptsecurity.appsec.ai.ee.utils.ci.integration.utils.ReportUtils;
-import com.ptsecurity.appsec.ai.ee.utils.ci.integration.utils.ScanResultHelper;
+import com.ptsecurity.appsec.ai.ee.utils.ci.integration.utils.ScanResultCache;
 import com.ptsecurity.appsec.ai.ee.utils.ci.integration.utils.StringHelper;
 import com.ptsecurity.appsec.ai.ee.utils.ci.integration.utils.json.BaseJsonHelper;
 import lombok.NonNull;
@@ -29,6 +27,7 @@ import org.apache.commons.lang3.tuple.Triple;
 import org.apache.commons.text.similarity.CosineDistance;
 
 import java.io.File;
+import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
@@ -38,6 +37,7 @@ import java.util.UUID;
 import java.util.stream.Collectors;
 
 import static com.ptsecurity.appsec.ai.ee.utils.ci.integration.utils.CallHelper.call;
+import static com.ptsecurity.appsec.ai.ee.utils.ci.integration.utils.CallHelper.callConcurrently;
 
 @Slf4j
 @SuppressWarnings("unused")
@@ -51,18 +51,13 @@ public class ReportsTasksImpl extends AbstractTaskImpl implements ReportsTasks {
         // Check what templates defined in reports are missing on server
         List<String> missingTemplates = new ArrayList<>();
         // We will download all the templates for supported locales to give hint to user in case of typo in template name
-        List<String> existingTemplates = new ArrayList<>();
         fine("Checking report templates existence");
-        for (Locale locale : Locale.values()) {
-            // Get all templates for given locale
-            List<String> templates = call(
-                    () -> client.getReportsApi().apiReportsTemplatesGet(locale.getValue(), false),
-                    "PT AI report templates list read failed")
-                    .stream()
-                    .map(ReportTemplateModel::getName)
-                    .collect(Collectors.toList());
-            existingTemplates.addAll(templates);
-        }
+        List<String> requiredTemplates = reports.getReport().stream().map(Report::getTemplate).collect(Collectors.toList());
+        List<String> cachedTemplates = getTemplateNames(false);
+        // Cached templates list may be outdated, so reload it if some of required templates are missing
+        final List<String> existingTemplates = cachedTemplates.containsAll(requiredTemplates)
+                ? cachedTemplates
+                : getTemplateNames(true);
         // Check if all the required report templates are present in list
         reports.getReport().stream()
                 .map(Report::getTemplate)
@@ -96,20 +91,12 @@ public class ReportsTasksImpl extends AbstractTaskImpl implements ReportsTasks {
     public void check(@NonNull Report report) throws GenericException {
         // Check what templates defined in reports are missing on server
         // We will download all the templates for supported locales to give hint to user in case of typo in template name
-        List<String> existingTemplates = new ArrayList<>();
         fine("Checking report templates existence");
-        for (Locale locale : Locale.values()) {
-            // Get all templates for given locale
-            List<String> templates = call(
-                    () -> client.getReportsApi().apiReportsTemplatesGet(locale.getValue(), false),
-                    "PT AI report templates list read failed")
-                    .stream()
-                    .map(ReportTemplateModel::getName)
-                    .collect(Collectors.toList());
-            existingTemplates.addAll(templates);
-            // Check if report template is present in list
-            if (templates.contains(report.getTemplate())) return;
-        }
+        // Check if report template is present in list. Reload cached list if template is missing as it may be outdated
+        List<String> existingTemplates = getTemplateNames(false);
+        if (existingTemplates.contains(report.getTemplate())) return;
+        existingTemplates = getTemplateNames(true);
+        if (existingTemplates.contains(report.getTemplate())) return;
 
         // Let's give user a hint about most similar template names. To do that
         // we will calculate cosine distance between each of existing templates
@@ -151,7 +138,7 @@ public class ReportsTasksImpl extends AbstractTaskImpl implements ReportsTasks {
      * @throws GenericException Exception that contains details about failed report validation / generation
      */
     @Override
-    public void exportAdvanced(@NonNull final UUID projectId, @NonNull final UUID scanResultId, @NonNull final Reports reports, @NonNull final FileOperations fileOps) throws GenericException {
+    public void exportAdvanced(@NonNull final UUID projectId, @NonNull final UUID scanResultId, @NonNull final Reports reports, @NonNull final FileOperations fileOps, @NonNull final ScanResultCache cache) throws GenericException {
 
         log.trace("Validate and check reports to be generated");
         final Reports checkedReports = ReportUtils.validate(reports);
@@ -165,25 +152,28 @@ public class ReportsTasksImpl extends AbstractTaskImpl implements ReportsTasks {
         allReports.addAll(checkedReports.getRaw());
         allReports.addAll(checkedReports.getSarif());
         allReports.addAll(checkedReports.getSonarGiif());
-        for (Object item : allReports) {
+        // Server-side HTML reports generation may take long time, so reports are generated
+        // concurrently. Exports that convert scan result share single instance via cache
+        int parallelism = advancedSettings.getInt(AdvancedSettings.SettingInfo.REPORTS_PARALLELISM);
+        callConcurrently(allReports, parallelism, item -> {
             try {
                 if (item instanceof Report) {
                     Report report = (Report) item;
                     exportReport(projectId, scanResultId, report, fileOps);
                 } else if (item instanceof RawData) {
                     RawData rawData = (RawData) item;
-                    exportRawJson(projectId, scanResultId, rawData, fileOps);
+                    exportRawJson(projectId, scanResultId, rawData, fileOps, cache);
                 } else if (item instanceof Sarif) {
                     Sarif sarif = (Sarif) item;
-                    exportSarif(projectId, scanResultId, sarif, fileOps);
+                    exportSarif(projectId, scanResultId, sarif, fileOps, cache);
                 } else if (item instanceof SonarGiif) {
                     SonarGiif sonarGiif = (SonarGiif) item;
-                    exportSonarGiif(projectId, scanResultId, sonarGiif, fileOps);
+                    exportSonarGiif(projectId, scanResultId, sonarGiif, fileOps, cache);
                 }
             } catch (GenericException e) {
                 warning(e);
             }
-        }
+        }, "Reports generation failed");
     }
 
     @Override
@@ -192,21 +182,13 @@ public class ReportsTasksImpl extends AbstractTaskImpl implements ReportsTasks {
 
         log.trace("Load all report templates to find one with {} name", report.getTemplate());
 
-        ReportTemplateModel templateModel = null;
-        Locale templateLocale = null;
-
-        for (Locale locale : Locale.values()) {
-            List<ReportTemplateModel> templates = call(
-                    () -> client.getReportsApi().apiReportsTemplatesGet(locale.getValue(), false),
-                    "PT AI report templates list read failed");
-            templateModel = templates.stream().filter(t -> report.getTemplate().equalsIgnoreCase(t.getName())).findAny().orElse(null);
-            if (null == templateModel || null == templateModel.getId()) continue;
-            templateLocale = locale;
-            log.trace("Template {} found, id is {}, locale {}", report.getTemplate(), templateModel.getId(), locale);
-            break;
-        }
-        if (null == templateModel || null == templateLocale)
+        Pair<Locale, ReportTemplateModel> template = findTemplate(report.getTemplate(), false);
+        // Cached templates list may be outdated, so reload it before giving up
+        if (null == template) template = findTemplate(report.getTemplate(), true);
+        if (null == template)
             throw GenericException.raise("Report generation failed", new IllegalArgumentException("PT AI template " + report.getTemplate() + " not found"));
+        ReportTemplateModel templateModel = template.getRight();
+        Locale templateLocale = template.getLeft();
 
         log.trace("Create report generation model and apply filters");
         ReportGenerateModel model = new ReportGenerateModel()
@@ -228,19 +210,18 @@ public class ReportsTasksImpl extends AbstractTaskImpl implements ReportsTasks {
                 "Report generation failed");
         log.trace("Report saved to temp file {}", file.toPath());
         call(
-                () -> fileOps.saveArtifact(report.getFileName(), file),
+                () -> fileOps.moveArtifact(report.getFileName(), file.toPath()),
                 "Report file save failed");
         log.debug("Deleting temp file {}", file.getAbsolutePath());
-        call(file::delete, "Temporal file " + file.getAbsolutePath() + " delete failed", true);
+        call(() -> Files.deleteIfExists(file.toPath()), "Temporal file " + file.getAbsolutePath() + " delete failed", true);
         fine("Finished: Report generation for project id: %s, scan result id: %s, template: %s", projectId, scanResultId, report.getTemplate());
     }
 
     @Override
-    public void exportRawJson(@NonNull UUID projectId, @NonNull UUID scanResultId, @NonNull RawData rawData, @NonNull FileOperations fileOps) throws GenericException {
+    public void exportRawJson(@NonNull UUID projectId, @NonNull UUID scanResultId, @NonNull RawData rawData, @NonNull FileOperations fileOps, @NonNull ScanResultCache cache) throws GenericException {
         fine("Started: raw JSON data export for project id: %s, scan result id: %s", projectId, scanResultId);
         GenericAstTasks genericAstTasks = new Factory().genericAstTasks(client);
-        ScanResult scanResult = genericAstTasks.getScanResult(projectId, scanResultId);
-        ScanResultHelper.apply(scanResult, rawData.getFilters());
+        ScanResult scanResult = cache.get(projectId, scanResultId, genericAstTasks, rawData.getFilters());
         final ObjectMapper mapper = BaseJsonHelper.createObjectMapper();
         File json = call(
                 () -> {
@@ -250,51 +231,60 @@ public class ReportsTasksImpl extends AbstractTaskImpl implements ReportsTasks {
                     log.debug("Raw scan result data saved to {}", temp);
                     return temp.toFile();
                 }, "Raw scan result save failed");
-        call(() -> fileOps.saveArtifact(rawData.getFileName(), json), "Raw JSON result save failed");
+        call(() -> fileOps.moveArtifact(rawData.getFileName(), json.toPath()), "Raw JSON result save failed");
         log.debug("Deleting temporal raw scan results file {}", json.getAbsolutePath());
-        call(json::delete, "Temporal file " + json.getAbsolutePath() + " delete failed", true);
+        call(() -> Files.deleteIfExists(json.toPath()), "Temporal file " + json.getAbsolutePath() + " delete failed", true);
         fine("Finished: raw JSON data export for project id: %s, scan result id: %s", projectId, scanResultId);
     }
 
     @Override
-    public void exportSarif(@NonNull UUID projectId, @NonNull UUID scanResultId, @NonNull Sarif sarif, @NonNull FileOperations fileOps) throws GenericException {
+    public void exportSarif(@NonNull UUID projectId, @NonNull UUID scanResultId, @NonNull Sarif sarif, @NonNull FileOperations fileOps, @NonNull ScanResultCache cache) throws GenericException {
         fine("Started: SARIF report generation for project id: %s, scan result id: %s", projectId, scanResultId);
 
         GenericAstTasks genericAstTasks = new Factory().genericAstTasks(client);
-        ScanResult scanResult = genericAstTasks.getScanResult(projectId, scanResultId);
-        ScanResultHelper.apply(scanResult, sarif.getFilters());
-
-        SarifSchema210 sarifSchema = com.ptsecurity.appsec.ai.ee.utils.ci.integration.jobs.subjobs.export.Sarif.convert(scanResult, true);
-        String sarifStr = CallHelper.call(
-                () -> BaseJsonHelper.createObjectMapper().writerWithDefaultPrettyPrinter().writeValueAsString(sarifSchema),
-                "SARIF report serialization failed");
+        ScanResult scanResult = cache.get(projectId, scanResultId, genericAstTasks, sarif.getFilters());
 
-        call(() -> fileOps.saveArtifact(sarif.getFileName(), sarifStr), "SARIF report save failed");
+        // Stream SARIF report to temporal file as its in-memory representation may be huge
+        File sarifFile = call(
+                () -> {
+                    Path temp = Files.createTempFile("ptai-", "-sarif");
+                    log.debug("Created file {} for temporal SARIF report store", temp);
+                    try (OutputStream out = Files.newOutputStream(temp)) {
+                        com.ptsecurity.appsec.ai.ee.utils.ci.integration.jobs.subjobs.export.Sarif.write(scanResult, true, out);
+                    }
+                    return temp.toFile();
+                }, "SARIF report serialization failed");
+        call(() -> fileOps.moveArtifact(sarif.getFileName(), sarifFile.toPath()), "SARIF report save failed");
+        log.debug("Deleting temporal SARIF report file {}", sarifFile.getAbsolutePath());
+        call(() -> Files.deleteIfExists(sarifFile.toPath()), "Temporal file " + sarifFile.getAbsolutePath() + " delete failed", true);
         fine("Finished: SARIF report generation for project id: %s, scan result id: %s", projectId, scanResultId);
     }
 
     @Override
-    public void exportSonarGiif(@NonNull UUID projectId, @NonNull UUID scanResultId, @NonNull SonarGiif sonarGiif, @NonNull FileOperations fileOps) throws GenericException {
+    public void exportSonarGiif(@NonNull UUID projectId, @NonNull UUID scanResultId, @NonNull SonarGiif sonarGiif, @NonNull FileOperations fileOps, @NonNull ScanResultCache cache) throws GenericException {
         fine("Started: SonarQube GIIF report generation for project id: %s, scan result id: %s", projectId, scanResultId);
 
         GenericAstTasks genericAstTasks = new Factory().genericAstTasks(client);
-        ScanResult scanResult = genericAstTasks.getScanResult(projectId, scanResultId);
-        ScanResultHelper.apply(scanResult, sonarGiif.getFilters());
+        ScanResult scanResult = cache.get(projectId, scanResultId, genericAstTasks, sonarGiif.getFilters());
 
-        SonarGiifReport giifReport = com.ptsecurity.appsec.ai.ee.utils.ci.integration.jobs.subjobs.export.SonarGiif.convert(scanResult);
-        String giifStr = CallHelper.call(
-                () -> BaseJsonHelper.createObjectMapper().writerWithDefaultPrettyPrinter().writeValueAsString(giifReport),
-                "SonarQube GIIF report serialization failed");
-
-        call(() -> fileOps.saveArtifact(sonarGiif.getFileName(), giifStr), "SonarQube GIIF report save failed");
+        // Stream GIIF report to temporal file as its in-memory representation may be huge
+        File giifFile = call(
+                () -> {
+                    Path temp = Files.createTempFile("ptai-", "-giif");
+                    log.debug("Created file {} for temporal SonarQube GIIF report store", temp);
+                    try (OutputStream out = Files.newOutputStream(temp)) {
+                        com.ptsecurity.appsec.ai.ee.utils.ci.integration.jobs.subjobs.export.SonarGiif.write(scanResult, out);
+                    }
+                    return temp.toFile();
+                }, "SonarQube GIIF report serialization failed");
+        call(() -> fileOps.moveArtifact(sonarGiif.getFileName(), giifFile.toPath()), "SonarQube GIIF report save failed");
+        log.debug("Deleting temporal SonarQube GIIF report file {}", giifFile.getAbsolutePath());
+        call(() -> Files.deleteIfExists(giifFile.toPath()), "Temporal file " + giifFile.getAbsolutePath() + " delete failed", true);
         fine("Finished: SonarQube GIIF report generation for project id: %s, scan result id: %s", projectId, scanResultId);
     }
 
     protected UUID getDummyReportTemplateId(@NonNull Locale locale) throws GenericException {
-        List<ReportTemplateModel> templates = call(
-                () -> client.getReportsApi().apiReportsTemplatesGet(locale.getValue(), false),
-                "PT AI report templates list read failed");
-        return templates.stream()
+        return getTemplates(locale).stream()
                 .filter(t -> ReportType.PLAINREPORT.equals(t.getType()))
                 .findAny()
                 .map(ReportTemplateModel::getId)
@@ -303,9 +293,46 @@ public class ReportsTasksImpl extends AbstractTaskImpl implements ReportsTasks {
 
     @Override
     public List<String> listReportTemplates(Locale locale)  throws GenericException {
-        List<ReportTemplateModel> reportTemplateModels = call(
+        return getTemplates(locale).stream().map(ReportTemplateModel::getName).collect(Collectors.toList());
+    }
+
+    /**
+     * Get report templates for given locale. Templates list is cached by API client
+     */
+    protected List<ReportTemplateModel> getTemplates(@NonNull final Locale locale) throws GenericException {
+        return client.getReportTemplates().get(locale, () -> call(
                 () -> client.getReportsApi().apiReportsTemplatesGet(locale.getValue(), false),
-                "PT AI report templates list read failed");
-        return reportTemplateModels.stream().map(ReportTemplateModel::getName).collect(Collectors.toList());
+                "PT AI report templates list read failed"));
+    }
+
+    /**
+     * Get report template names for all locales
+     * @param refresh Drop cached templates lists before read
+     */
+    protected List<String> getTemplateNames(final boolean refresh) throws GenericException {
+        if (refresh) client.getReportTemplates().clear();
+        List<String> res = new ArrayList<>();
+        for (Locale locale : Locale.values())
+            getTemplates(locale).stream().map(ReportTemplateModel::getName).forEach(res::add);
+        return res;
+    }
+
+    /**
+     * Find report template by name
+     * @param name Template name, case-insensitive
+     * @param refresh Drop cached templates lists before search
+     * @return Pair of template locale and template itself or null if there's no such template
+     */
+    protected Pair<Locale, ReportTemplateModel> findTemplate(@NonNull final String name, final boolean refresh) throws GenericException {
+        if (refresh) client.getReportTemplates().clear();
+        for (Locale locale : Locale.values()) {
+            ReportTemplateModel templateModel = getTemplates(locale).stream()
+                    .filter(t -> name.equalsIgnoreCase(t.getName()))
+                    .findAny().orElse(null);
+            if (null == templateModel || null == templateModel.getId()) continue;
+            log.trace("Template {} found, id is {}, locale {}", name, templateModel.getId(), locale);
+            return new ImmutablePair<>(locale, templateModel);
+        }
+        return null;
     }
 }
@@ -9,7 +9,7 @@ import com.ptsecurity.appsec.ai.ee.server.v40.legacy.JSON;
 import com.ptsecurity.appsec.ai.ee.server.v40.legacy.model.*;
 import com.ptsecurity.appsec.ai.ee.utils.ci.integration.exceptions.GenericException;
 import com.ptsecurity.appsec.ai.ee.utils.ci.integration.tasks.ServerVersionTasks;
-import com.ptsecurity.appsec.ai.ee.utils.ci.integration.utils.FileCollector;
+import com.ptsecurity.appsec.ai.ee.utils.ci.integration.utils.IssuesModelReader;
 import lombok.NonNull;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
@@ -19,8 +19,6 @@ import org.apache.commons.lang3.tuple.Pair;
 
 import javax.xml.bind.DatatypeConverter;
 import java.io.*;
-import java.lang.management.ManagementFactory;
-import java.lang.management.MemoryUsage;
 import java.security.MessageDigest;
 import java.time.*;
 import java.time.format.DateTimeFormatter;
@@ -30,7 +28,6 @@ import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 import static com.ptsecurity.appsec.ai.ee.utils.ci.integration.utils.CallHelper.call;
-import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.joor.Reflect.on;
 
 @Slf4j
@@ -201,59 +198,30 @@ public class IssuesConverter {
         res.setApiVersion(ScanBrief.ApiVersion.V40);
         res.setPtaiServerUrl(ptaiUrl);
 
-        // As there's no localization in metadatas, use english model as source
-        IssuesModel model = null;
-        // Parse localizedModels and extract titles and descriptions from them
+        if (modelFiles.isEmpty()) {
+            log.warn("Issues model not found");
+            return null;
+        }
+        // Parse localized models and extract titles and descriptions from them
         Map<String, Map<Reports.Locale, ScanResult.Strings>> dictionary = new HashMap<>();
         // At this point we have ScanResult that is initialized with vulnerability list. But these
         // vulnerabilities have titleId field that points nowhere. So we need to create localized
         // descriptions for all of them
-        for (Reports.Locale locale : modelFiles.keySet()) {
-            IssuesModel localizedModel = parseIssuesModelStream(modelFiles.get(locale));
-            // Save first model as a metadata source. As metadata is not i18n-ed, there's
-            // no difference what locale will be used
-            if (null == model) model = localizedModel;
-            if (null == localizedModel.getDescriptions() || localizedModel.getDescriptions().isEmpty()) continue;
-            Map<String, V40IssueDescriptionModel> descriptions = localizedModel.getDescriptions();
-            for (V40IssueDescriptionModel idm : descriptions.values()) {
-                if (null == idm.getDescriptionValue() || StringUtils.isEmpty(idm.getDescriptionValue().getHeader())) continue;
-                // Store localized title to dictionary
-                Map<Reports.Locale, ScanResult.Strings> values = dictionary.computeIfAbsent(idm.getIdentity(), l -> new HashMap<>());
-                values.put(locale, ScanResult.Strings.builder()
-                        .title(idm.getDescriptionValue().getHeader())
-                        .description(idm.getDescriptionValue().getDescription())
-                        .build());
-                // Store localized description to the same dictionary, but use different key
-                if (StringUtils.isEmpty(idm.getDescriptionValue().getDescription()))
-                    log.warn("Vulnerability {} have no description", idm.getDescriptionValue().getHeader());
-            }
-        }
-
-        if (null == model) {
-            log.warn("Issues model not found");
-            return null;
-        }
-
-        Map<String, IssueBaseMetadata> metadataMap = new HashMap<>();
-        if (null != model.getMetadatas())
-            for (IssueBaseMetadata metadata : model.getMetadatas().values())
-                metadataMap.put(metadata.getKey(), metadata);
-        if (null != model.getIssues()) {
-            for (IssueBase issue : model.getIssues()) {
-                List<BaseIssue> issues = convert(issue, metadataMap, dictionary);
-                if (null != issues && !issues.isEmpty())
-                    res.getIssues().addAll(issues);
-                else
-                    log.warn("Issue {} format conversion failed", issue);
-            }
-        }
+        boolean parseOk = parseIssuesModelStream(modelFiles, dictionary, (issue, metadataMap) -> {
+            List<BaseIssue> issues = convert(issue, metadataMap, dictionary);
+            if (null != issues && !issues.isEmpty())
+                res.getIssues().addAll(issues);
+            else
+                log.warn("Issue {} format conversion failed", issue);
+        });
+        if (!parseOk) res.getIssues().clear();
         // Issue format conversion sets type field to value that can be safely mapped to localized description
         for (BaseIssue issue : res.getIssues()) {
             String key = issue.getTypeId();
             // issue.setTypeId("ptai-" + md5(issue.getTypeId()));
             res.getI18n().put(issue.getTypeId(), dictionary.get(key));
         }
-        res.setIssuesParseOk(model != EMPTY_ISSUES_MODEL);
+        res.setIssuesParseOk(parseOk);
         return res;
     }
 
@@ -624,30 +592,63 @@ public class IssuesConverter {
         return null == res ? V40ProgrammingLanguage.NONE : res;
     }
 
-    public static final IssuesModel EMPTY_ISSUES_MODEL = new IssuesModel();
+    @FunctionalInterface
+    protected interface IssueConsumer {
+        void accept(final IssueBase issue, final Map<String, IssueBaseMetadata> metadataMap);
+    }
 
     /**
-     * Method reads data from stream and deserializes it to PT AI v.3.6 IssuesModel instance
-     * @param data Serialized stream of PT AI v.3.6 API data issues list with detailed information about vulnerabilities found
-     * @return Deserialized IssuesModel instance
+     * Method streams PT AI v.4.0 issues model files. Descriptions from all the localized models are
+     * stored to dictionary. As metadatas and issues are not i18n-ed, those are read from first model only
+     * and issues are passed to consumer one by one, so whole issues list is never kept in memory
+     * @param modelFiles Localized PT AI v.4.0 API issues model files
+     * @param dictionary Localized map of all issues descriptions that is to be filled
+     * @param consumer Issue consumer. Called after all the descriptions and metadatas are read
+     * @return False if issues model parse failed due to lack of heap memory
      */
     @SneakyThrows
-    protected static IssuesModel parseIssuesModelStream(@NonNull final File data) {
-        JSON parser = new JSON();
-        MemoryUsage usage = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
-        try (InputStream is = new FileInputStream(data); Reader reader = new InputStreamReader(is, UTF_8)) {
-            log.debug("JVM heap memory use before parse {} / {}", FileCollector.bytesToString(usage.getUsed()), FileCollector.bytesToString(usage.getMax()));
-            log.debug("Parse started at {}", Instant.now());
-            IssuesModel res = parser.getGson().fromJson(reader, IssuesModel.class);
-            log.debug("Parse finished at {}", Instant.now());
-            log.debug("JVM heap memory use after parse {} / {}", FileCollector.bytesToString(usage.getUsed()), FileCollector.bytesToString(usage.getMax()));
-            return res;
+    protected static boolean parseIssuesModelStream(
+            @NonNull final Map<Reports.Locale, File> modelFiles,
+            @NonNull final Map<String, Map<Reports.Locale, ScanResult.Strings>> dictionary,
+            @NonNull final IssueConsumer consumer) {
+        IssuesModelReader<V40IssueDescriptionModel, IssueBaseMetadata, IssueBase> reader = new IssuesModelReader<>(
+                new JSON().getGson(), V40IssueDescriptionModel.class, IssueBaseMetadata.class, IssueBase.class);
+        // As there's no localization in metadatas, there's no difference what locale will be used
+        Reports.Locale primary = modelFiles.keySet().iterator().next();
+        Map<String, IssueBaseMetadata> metadataMap = new HashMap<>();
+        try {
+            // SCA issue conversion modifies titles for all locales, so these are to be read first
+            for (Reports.Locale locale : modelFiles.keySet()) {
+                if (primary == locale) continue;
+                reader.readDescriptions(modelFiles.get(locale), idm -> addDescription(idm, locale, dictionary));
+            }
+            reader.read(
+                    modelFiles.get(primary),
+                    idm -> addDescription(idm, primary, dictionary),
+                    metadata -> metadataMap.put(metadata.getKey(), metadata),
+                    issue -> consumer.accept(issue, metadataMap));
+            return true;
         } catch (OutOfMemoryError e) {
             log.error("IssuesModel file parse failed due to lack of heap memory", e);
-            return EMPTY_ISSUES_MODEL;
+            return false;
         }
     }
 
+    protected static void addDescription(
+            @NonNull final V40IssueDescriptionModel idm,
+            @NonNull final Reports.Locale locale,
+            @NonNull final Map<String, Map<Reports.Locale, ScanResult.Strings>> dictionary) {
+        if (null == idm.getDescriptionValue() || StringUtils.isEmpty(idm.getDescriptionValue().getHeader())) return;
+        // Store localized title and description to dictionary
+        Map<Reports.Locale, ScanResult.Strings> values = dictionary.computeIfAbsent(idm.getIdentity(), l -> new HashMap<>());
+        values.put(locale, ScanResult.Strings.builder()
+                .title(idm.getDescriptionValue().getHeader())
+                .description(idm.getDescriptionValue().getDescription())
+                .build());
+        if (StringUtils.isEmpty(idm.getDescriptionValue().getDescription()))
+            log.warn("Vulnerability {} have no description", idm.getDescriptionValue().getHeader());
+    }
+
     /**
      * Method collects
      * @param projectName
@@ -3,6 +3,7 @@ package com.ptsecurity.appsec.ai.ee.utils.ci.integration.api.v41;
 import com.google.gson.reflect.TypeToken;
 import com.microsoft.signalr.HubConnection;
 import com.microsoft.signalr.HubConnectionBuilder;
+import com.ptsecurity.appsec.ai.ee.scan.reports.Reports;
 import com.ptsecurity.appsec.ai.ee.scan.result.ScanBrief;
 import com.ptsecurity.appsec.ai.ee.server.v41.auth.ApiResponse;
 import com.ptsecurity.appsec.ai.ee.server.v41.auth.api.AuthApi;
@@ -14,6 +15,7 @@ import com.ptsecurity.appsec.ai.ee.server.v41.legacy.api.ProjectsApi;
 import com.ptsecurity.appsec.ai.ee.server.v41.legacy.api.ReportsApi;
 import com.ptsecurity.appsec.ai.ee.server.v41.projectmanagement.api.ConfigsApi;
 import com.ptsecurity.appsec.ai.ee.server.v41.projectmanagement.api.LicenseApi;
+import com.ptsecurity.appsec.ai.ee.server.v41.projectmanagement.model.ReportTemplateModel;
 import com.ptsecurity.appsec.ai.ee.server.v41.projectmanagement.model.ScanProgress;
 import com.ptsecurity.appsec.ai.ee.server.v41.projectmanagement.model.Stage;
 import com.ptsecurity.appsec.ai.ee.server.v41.scanscheduler.api.ScanAgentApi;
@@ -32,7 +34,9 @@ import com.ptsecurity.appsec.ai.ee.utils.ci.integration.domain.*;
 import com.ptsecurity.appsec.ai.ee.utils.ci.integration.exceptions.GenericException;
 import com.ptsecurity.appsec.ai.ee.utils.ci.integration.tasks.ServerVersionTasks;
 import com.ptsecurity.appsec.ai.ee.utils.ci.integration.utils.ApiClientHelper;
+import com.ptsecurity.appsec.ai.ee.utils.ci.integration.utils.ExpiringCache;
 import com.ptsecurity.appsec.ai.ee.utils.ci.integration.utils.LoggingInterceptor;
+import com.ptsecurity.appsec.ai.ee.utils.ci.integration.utils.NotificationHub;
 import io.reactivex.rxjava3.core.Single;
 import lombok.*;
 import lombok.extern.slf4j.Slf4j;
@@ -49,7 +53,6 @@ import javax.net.ssl.X509TrustManager;
 import java.lang.reflect.Type;
 import java.security.SecureRandom;
 import java.util.*;
-import java.util.concurrent.BlockingQueue;
 
 import static com.ptsecurity.appsec.ai.ee.utils.ci.integration.utils.CallHelper.call;
 
@@ -111,6 +114,15 @@ public class ApiClient extends AbstractApiClient {
     @ToString.Exclude
     protected final VersionApi versionApi = new VersionApi(new com.ptsecurity.appsec.ai.ee.server.v41.updateserver.ApiClient());
 
+    /**
+     * Report templates lists for all locales. These lists are used both for report checks
+     * and generation, so they are cached to avoid redundant API calls
+     */
+    @Getter
+    @ToString.Exclude
+    protected final ExpiringCache<Reports.Locale, List<ReportTemplateModel>> reportTemplates = new ExpiringCache<>(
+            advancedSettings.getInt(AdvancedSettings.SettingInfo.REPORTS_TEMPLATES_CACHE_TTL));
+
     public ApiClient(@NonNull final ConnectionSettings connectionSettings) {
         super(connectionSettings, AdvancedSettings.getDefault());
         apis.addAll(Arrays.asList(authApi, projectsApi, legacyProjectsApi, configsApi, legacyConfigsApi, reportsApi, legacyReportsApi, licenseApi, scanQueueApi, scanAgentApi, storeApi, healthCheckApi, versionApi));
@@ -215,7 +227,18 @@ public class ApiClient extends AbstractApiClient {
     @ToString.Exclude
     protected String connectedDate = "";
 
-    public HubConnection createSignalrConnection(@NonNull UUID projectId, @NonNull final UUID scanResultId, final BlockingQueue<Stage> queue) throws GenericException {
+    /**
+     * SignalR connection shared by all the scans this client waits for
+     */
+    @Getter
+    @ToString.Exclude
+    protected final NotificationHub<Stage> notificationHub = new NotificationHub<>(this::createSignalrConnection, this::subscribe);
+
+    /**
+     * Create and start SignalR connection. Connection notifications are routed
+     * to scan listeners registered in {@link #notificationHub}
+     */
+    protected HubConnection createSignalrConnection() throws GenericException {
         // Create accessTokenProvider to provide SignalR connection
         // with jwt
         Single<String> accessTokenProvider = Single.defer(() -> Single.just(apiJwt.getAccessToken()));
@@ -250,43 +273,49 @@ public class ApiClient extends AbstractApiClient {
 
         connection.on("NeedRefreshToken", () -> {
             log.trace("Event:NeedRefreshToken");
-            authenticate();
+            JwtResponse jwt = apiJwt;
+            refreshJwt(null == jwt ? null : jwt.getAccessToken());
         });
 
         connection.on("NeedSyncClientState", () -> {
             log.trace("Event:NeedSyncClientState");
-            subscribe(connection, projectId, scanResultId);
+            notificationHub.subscribe();
         });
 
         connection.on("ScanStarted", (data) -> {
-            if (!projectId.equals(data.getResult().getProjectId()))
-                log.trace("Skip ScanStarted event as its projectId != {}", projectId);
-            else if (!scanResultId.equals(data.getResult().getId()))
-                log.trace("Skip ScanStarted event as its scanResultId != {}", scanResultId);
+            NotificationHub.Listener<Stage> listener = notificationHub.listener(data.getResult().getId());
+            if (null == listener)
+                log.trace("Skip ScanStarted event as there's no listener for scanResultId {}", data.getResult().getId());
+            else if (!listener.getProjectId().equals(data.getResult().getProjectId()))
+                log.trace("Skip ScanStarted event as its projectId != {}", listener.getProjectId());
             else {
-                if (null != console)
-                    console.info("Scan started. Project id: %s, scan result id: %s", data.getResult().getProjectId(), data.getResult().getId());
-                if (null != eventConsumer) eventConsumer.process(data);
+                if (null != listener.getWaiter()) listener.getWaiter().progress();
+                if (null != listener.getConsole())
+                    listener.getConsole().info("Scan started. Project id: %s, scan result id: %s", data.getResult().getProjectId(), data.getResult().getId());
+                if (null != listener.getEventConsumer()) listener.getEventConsumer().process(data);
             }
             log.trace(data.toString());
         }, ScanStartedEvent.class);
 
         // Currently PT AI viewer have no stop scan feature but deletes scan result
         connection.on("ScanResultRemoved", (data) -> {
-            if (!scanResultId.equals(data.getScanResultId())) return;
-            if (null != console) console.info("Scan result removed. Possibly job was terminated from PT AI viewer");
-            if (null != eventConsumer) eventConsumer.process(com.ptsecurity.appsec.ai.ee.scan.progress.Stage.ABORTED);
+            NotificationHub.Listener<Stage> listener = notificationHub.listener(data.getScanResultId());
+            if (null == listener) return;
+            if (null != listener.getConsole()) listener.getConsole().info("Scan result removed. Possibly job was terminated from PT AI viewer");
+            if (null != listener.getEventConsumer()) listener.getEventConsumer().process(com.ptsecurity.appsec.ai.ee.scan.progress.Stage.ABORTED);
             log.trace(data.toString());
-            if (null != queue) {
-                log.debug("Scan result {} removed", scanResultId);
-                queue.add(Stage.ABORTED);
+            if (null != listener.getWaiter()) {
+                log.debug("Scan result {} removed", data.getScanResultId());
+                listener.getWaiter().complete(Stage.ABORTED);
             }
         }, ScanResultRemovedEvent.class);
 
         connection.on("ScanProgress", (data) -> {
-            if (!scanResultId.equals(data.getScanResultId()))
-                log.trace("Skip ScanProgress event as its projectId != {}", projectId);
+            NotificationHub.Listener<Stage> listener = notificationHub.listener(data.getScanResultId());
+            if (null == listener)
+                log.trace("Skip ScanProgress event as there's no listener for scanResultId {}", data.getScanResultId());
             else {
+                if (null != listener.getWaiter()) listener.getWaiter().progress();
                 StringBuilder builder = new StringBuilder();
                 builder.append(Optional.of(data)
                         .map(ScanProgressEvent::getProgress)
@@ -301,16 +330,16 @@ public class ApiClient extends AbstractApiClient {
                         .map(ScanProgressEvent::getProgress)
                         .map(ScanProgress::getValue)
                         .ifPresent(s -> builder.append(" ").append(s).append("%"));
-                if (null != console) console.info(builder.toString());
+                if (null != listener.getConsole()) listener.getConsole().info(builder.toString());
                 // Failed or aborted scans do not generate ScanCompleted event but
                 // send ScanProgress event with stage failed or aborted
                 Optional<Stage> stage = Optional.of(data).map(ScanProgressEvent::getProgress).map(ScanProgress::getStage);
                 if (stage.isPresent()) {
-                    if (null != eventConsumer) eventConsumer.process(EnumsConverter.convert(stage.get()));
-                    if (null != queue && (Stage.ABORTED == stage.get() || Stage.FAILED == stage.get())) {
-                        if (null != console) console.info("Scan job was terminated with state " + stage.get());
-                        log.debug("ScanProgressEvent stage {} is to be put to AST task queue", stage.get());
-                        queue.add(stage.get());
+                    if (null != listener.getEventConsumer()) listener.getEventConsumer().process(EnumsConverter.convert(stage.get()));
+                    if (null != listener.getWaiter() && (Stage.ABORTED == stage.get() || Stage.FAILED == stage.get())) {
+                        if (null != listener.getConsole()) listener.getConsole().info("Scan job was terminated with state " + stage.get());
+                        log.debug("ScanProgressEvent stage {} completes AST task wait", stage.get());
+                        listener.getWaiter().complete(stage.get());
                     }
                 }
             }
@@ -318,22 +347,20 @@ public class ApiClient extends AbstractApiClient {
         }, ScanProgressEvent.class);
 
         connection.on("ScanCompleted", (data) -> {
-            if (!projectId.equals(data.getResult().getProjectId()))
-                log.trace("Skip ScanCompleted event as its projectId != {}", projectId);
-            else if (!scanResultId.equals(data.getResult().getId()))
-                log.trace("Skip ScanCompleted event as its scanResultId != {}", scanResultId);
-            else
-                queue.add(Stage.DONE);
+            NotificationHub.Listener<Stage> listener = notificationHub.listener(data.getResult().getId());
+            if (null == listener)
+                log.trace("Skip ScanCompleted event as there's no listener for scanResultId {}", data.getResult().getId());
+            else if (!listener.getProjectId().equals(data.getResult().getProjectId()))
+                log.trace("Skip ScanCompleted event as its projectId != {}", listener.getProjectId());
+            else if (null != listener.getWaiter())
+                listener.getWaiter().complete(Stage.DONE);
             log.trace(data.toString());
         }, ScanCompleteEvent.class);
 
+        call(() -> connection.start().blockingAwait(), "SignalR connection start failed");
         return connection;
     }
 
-    public void wait(@NonNull final HubConnection connection, @NonNull UUID projectId, @NonNull final UUID scanResultId) {
-        connection.start().doOnComplete(() -> subscribe(connection, projectId, scanResultId)).blockingAwait();
-    }
-
     @Getter
     @Setter
     @RequiredArgsConstructor
@@ -353,11 +380,9 @@ public class ApiClient extends AbstractApiClient {
 
     protected void subscribe(
             @NonNull final HubConnection connection,
-            @NonNull UUID projectId,
-            @NonNull final UUID scanResultId) {
+            @NonNull final Set<UUID> projectIds) {
         SubscriptionOnNotification subscription = new SubscriptionOnNotification();
         subscription.ClientId = id;
-        // subscription.Ids.add(scanResultId);
 
         subscription.NotificationTypeName = "ScanStarted";
         connection.send("SubscribeOnNotification", subscription);
@@ -369,8 +394,7 @@ public class ApiClient extends AbstractApiClient {
         connection.send("SubscribeOnNotification", subscription);
 
         // ScanResultRemoved event subscription uses projectId-based filtering
-        subscription.Ids.clear();
-        subscription.Ids.add(projectId);
+        subscription.Ids.addAll(projectIds);
         subscription.NotificationTypeName = "ScanResultRemoved";
         connection.send("SubscribeOnNotification", subscription);
     }
@@ -21,7 +21,7 @@ public class AdvancedSettings {
     private final Map<SettingInfo, Object> settings = new HashMap<>();
 
     public enum SettingType {
-        STRING, INTEGER
+        STRING, INTEGER, BOOLEAN
     }
 
     @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
@@ -33,7 +33,95 @@ public class AdvancedSettings {
         LOGGING_HTTP_RESPONSE_MAX_BODY_SIZE("logging.http.response.max.body.size", SettingType.INTEGER, 102400, Resources::i18n_ast_settings_advanced_logging_http_response_max_body_size),
         LOGGING_HTTP_REQUEST_MAX_BODY_SIZE("logging.http.request.max.body.size", SettingType.INTEGER, 51200, Resources::i18n_ast_settings_advanced_logging_http_request_max_body_size),
         HTTP_REQUEST_READ_TIMEOUT("http.request.read.timeout", SettingType.INTEGER, 3600, Resources::i18n_ast_settings_advanced_http_request_read_timeout),
-        HTTP_REQUEST_WRITE_TIMEOUT("http.request.write.timeout", SettingType.INTEGER, 3600, Resources::i18n_ast_settings_advanced_logging_http_response_max_body_size);
+        HTTP_REQUEST_WRITE_TIMEOUT("http.request.write.timeout", SettingType.INTEGER, 3600, Resources::i18n_ast_settings_advanced_logging_http_response_max_body_size),
+        /**
+         * Maximum number of idle connections that are kept in HTTP connection pool shared by all the APIs
+         */
+        HTTP_POOL_MAX_IDLE_CONNECTIONS("http.pool.max.idle.connections", SettingType.INTEGER, 5, () -> "Maximum number of idle HTTP connections kept in pool"),
+        /**
+         * Time in seconds that idle HTTP connection is kept in pool
+         */
+        HTTP_POOL_KEEP_ALIVE("http.pool.keep.alive", SettingType.INTEGER, 300, () -> "Time in seconds that idle HTTP connection is kept in pool"),
+        /**
+         * Maximum number of concurrent asynchronous HTTP requests
+         */
+        HTTP_DISPATCHER_MAX_REQUESTS("http.dispatcher.max.requests", SettingType.INTEGER, 64, () -> "Maximum number of concurrent asynchronous HTTP requests"),
+        /**
+         * Maximum number of concurrent asynchronous HTTP requests to single host
+         */
+        HTTP_DISPATCHER_MAX_REQUESTS_PER_HOST("http.dispatcher.max.requests.per.host", SettingType.INTEGER, 5, () -> "Maximum number of concurrent asynchronous HTTP requests to single host"),
+        /**
+         * Allow HTTP/2 protocol if server supports it
+         */
+        HTTP_HTTP2("http.http2", SettingType.BOOLEAN, true, () -> "Use HTTP/2 protocol if server supports it"),
+        /**
+         * Zip sources directly into upload request body instead of creating temporary archive file
+         */
+        UPLOAD_STREAMING("upload.streaming", SettingType.BOOLEAN, false, () -> "Zip sources directly into upload request body without temporary archive file"),
+        /**
+         * Total number of sources upload attempts. Upload is repeated if it failed due to
+         * network error or server-side HTTP error
+         */
+        UPLOAD_RETRY_ATTEMPTS("upload.retry.attempts", SettingType.INTEGER, 3, () -> "Total number of sources upload attempts"),
+        /**
+         * Delay in seconds before sources upload is repeated. Every next delay is twice as long
+         */
+        UPLOAD_RETRY_DELAY("upload.retry.delay", SettingType.INTEGER, 5, () -> "Delay in seconds before failed sources upload is repeated, every next delay is twice as long"),
+        /**
+         * Skip sources upload if those weren't changed since last successful upload
+         * to the same project and scan started after that upload is still project's
+         * latest scan. Sources manifest is stored in job output folder. WARNING: sources
+         * uploaded to the project by someone else without scan start aren't detected
+         */
+        UPLOAD_SKIP_UNCHANGED("upload.skip.unchanged", SettingType.BOOLEAN, false, () -> "Skip sources upload if those weren't changed since last successful upload to the same project and project's latest scan is the one started after that upload. WARNING: use only if project sources aren't uploaded by other agents as upload without scan start isn't detected and previously uploaded sources will be scanned"),
+        /**
+         * Use Ant directory scanner instead of parallel NIO walker to collect source files
+         */
+        FILE_COLLECTOR_ANT_SCANNER("file.collector.ant.scanner", SettingType.BOOLEAN, false, () -> "Use Ant directory scanner instead of parallel file walker to collect sources"),
+        /**
+         * Number of threads that compress sources. Value of 1 means sequential compression,
+         * zero or negative value means number of available processors
+         */
+        ZIP_THREADS("zip.threads", SettingType.INTEGER, 1, () -> "Number of source compression threads, 0 means number of available processors"),
+        /**
+         * Deflate compression level from 0 to 9, -1 means default level
+         */
+        ZIP_COMPRESSION_LEVEL("zip.compression.level", SettingType.INTEGER, -1, () -> "Source compression level from 0 (no compression) to 9 (best compression), -1 means default level"),
+        /**
+         * Comma-separated extensions of already compressed files that are to be stored
+         * in sources archive without compression
+         */
+        ZIP_STORED_EXTENSIONS("zip.stored.extensions", SettingType.STRING, "jar,war,ear,zip,7z,png", () -> "Comma-separated extensions of already compressed files that are stored in sources archive without compression"),
+        /**
+         * Maximum number of reports that are generated concurrently. Value of 1 means sequential generation
+         */
+        REPORTS_PARALLELISM("reports.parallelism", SettingType.INTEGER, 4, () -> "Maximum number of concurrently generated reports, 1 means sequential generation"),
+        /**
+         * Time in seconds that report templates list is cached by API client. Zero means no caching
+         */
+        REPORTS_TEMPLATES_CACHE_TTL("reports.templates.cache.ttl", SettingType.INTEGER, 300, () -> "Time in seconds that report templates list is cached for, 0 means no caching"),
+        /**
+         * Store detected PT AI server API version and JWT in user home folder, so subsequent
+         * runs skip API client implementation probing and initial authentication
+         */
+        AUTH_CACHE("auth.cache", SettingType.BOOLEAN, false, () -> "Store detected server API version and JWT in user home folder to reuse them in subsequent runs"),
+        /**
+         * Time in seconds since server API version detection that persistent authentication
+         * cache entry is used for. Expired entry causes API client implementation probing
+         */
+        AUTH_CACHE_TTL("auth.cache.ttl", SettingType.INTEGER, 24 * 60 * 60, () -> "Time in seconds that server API version detected is cached for"),
+        /**
+         * JWT is refreshed in background before its expiration so API calls do not
+         * stall on 401 responses. Zero value disables background refresh
+         */
+        JWT_REFRESH_ADVANCE("jwt.refresh.advance", SettingType.INTEGER, 60, () -> "Time in seconds before JWT expiration when it is refreshed in background. Zero value disables background refresh"),
+        /**
+         * Scan state is polled in case SignalR notification about scan completion
+         * is lost. First poll and poll after scan progress notification are done after
+         * minimum interval, then interval is doubled until maximum one is reached
+         */
+        SCAN_POLL_INTERVAL_MIN("scan.poll.interval.min", SettingType.INTEGER, 5, () -> "Minimum interval in seconds between scan state polls"),
+        SCAN_POLL_INTERVAL_MAX("scan.poll.interval.max", SettingType.INTEGER, 300, () -> "Maximum interval in seconds between scan state polls");
 
         private final String name;
         private final SettingType type;
@@ -69,6 +157,9 @@ public class AdvancedSettings {
                 } catch (NumberFormatException e) {
                     log.warn("Skip {} = {} as string to number conversion failed", setting.getName(), stringValue);
                 }
+            } else if (SettingType.BOOLEAN == setting.getType()) {
+                log.trace("Set {} = {}", setting.getName(), stringValue);
+                settings.put(setting, Boolean.parseBoolean(stringValue.trim()));
             } else
                 log.trace("Skip {} = {} as parameter of unknown type", setting.getName(), stringValue);
         }
@@ -99,6 +190,12 @@ public class AdvancedSettings {
         return (Integer) settings.get(info);
     }
 
+    public boolean getBoolean(@NonNull final SettingInfo info) {
+        if (SettingType.BOOLEAN != info.getType())
+            throw GenericException.raise("Can't get advanced setting boolean value", new ClassCastException());
+        return (Boolean) settings.get(info);
+    }
+
     public String getString(@NonNull final SettingInfo info) {
         if (SettingType.STRING != info.getType())
             throw GenericException.raise("Can't get advanced setting integer value", new ClassCastException());
@@ -39,6 +39,10 @@ public abstract class AbstractJob extends AbstractTool {
         FAILED, INTERRUPTED, SUCCESS
     }
 
+    /**
+     * PT AI API client. If it is defined before job execution, it is used as is
+     * instead of new client creation
+     */
     @Getter
     @Builder.Default
     protected AbstractApiClient client = null;
@@ -47,7 +51,8 @@ public abstract class AbstractJob extends AbstractTool {
         try {
             init();
             validate();
-            client = Factory.client(this);
+            // API client may be shared by several jobs, i.e. in CLI batch mode
+            if (null == client) client = Factory.client(this);
 
             unsafeExecute();
             return JobExecutionResult.SUCCESS;
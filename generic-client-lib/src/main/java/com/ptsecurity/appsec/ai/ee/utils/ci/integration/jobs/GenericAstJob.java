@@ -13,6 +13,7 @@ import com.ptsecurity.appsec.ai.ee.utils.ci.integration.operations.AstOperations
 import com.ptsecurity.appsec.ai.ee.utils.ci.integration.operations.FileOperations;
 import com.ptsecurity.appsec.ai.ee.utils.ci.integration.operations.SetupOperations;
 import com.ptsecurity.appsec.ai.ee.utils.ci.integration.tasks.GenericAstTasks;
+import com.ptsecurity.appsec.ai.ee.utils.ci.integration.utils.ScanResultCache;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
 import lombok.extern.slf4j.Slf4j;
@@ -79,6 +80,15 @@ public abstract class GenericAstJob extends AbstractJob implements EventConsumer
     @Builder.Default
     protected List<Base> subJobs = new ArrayList<>();
 
+    /**
+     * Scan results cache that is shared by export subjobs, so scan result
+     * is loaded from PT AI server once even if multiple exports are required
+     */
+    @Getter
+    @Builder.Default
+    @ToString.Exclude
+    protected ScanResultCache scanResultCache = new ScanResultCache();
+
     public void addSubJob(@NonNull final Base job) {
         job.setOwner(this);
         subJobs.add(job);
@@ -101,7 +111,6 @@ public abstract class GenericAstJob extends AbstractJob implements EventConsumer
      * @throws GenericException Error details
      */
     protected void unsafeExecute() throws GenericException {
-        client.setEventConsumer(this);
         process(Stage.SETUP);
         // Check if all the reports exist. Throw an exception if there are problems
         // Validate postprocessing tasks
@@ -117,6 +126,7 @@ public abstract class GenericAstJob extends AbstractJob implements EventConsumer
         GenericAstTasks genericAstTasks = new Factory().genericAstTasks(client);
         scanResultId = genericAstTasks.startScan(projectId, fullScanMode);
         info("Scan enqueued, project name: %s, id: %s, result id: %s", projectName, projectId, scanResultId);
+        setupOps.scanStartedCallback(scanResultId);
         // Now we know scan result ID, so create initial scan brief with ID's and scan settings
         scanBrief = genericAstTasks.createScanBrief(projectId, scanResultId);
         scanBrief.setUseAsyncScan(async);
@@ -147,7 +157,8 @@ public abstract class GenericAstJob extends AbstractJob implements EventConsumer
         // InterruptedException - job was terminated from JVM side, i.e. from CI.
         boolean abortedFromCi = false;
         try {
-            scanBrief.setState(genericAstTasks.waitForComplete(projectId, scanResultId));
+            // Scan progress is reported to job itself as API client may be shared by several jobs
+            scanBrief.setState(genericAstTasks.waitForComplete(projectId, scanResultId, this, this));
         } catch (InterruptedException e) {
             process(Stage.ABORTED);
             scanBrief.setState(ABORTED);
@@ -192,9 +203,13 @@ public abstract class GenericAstJob extends AbstractJob implements EventConsumer
         }
 
         // Call postprocessing tasks
-        for (Base job : subJobs) {
-            if (job instanceof Export && !resultsAvailable) continue;
-            job.execute(scanBrief);
+        try {
+            for (Base job : subJobs) {
+                if (job instanceof Export && !resultsAvailable) continue;
+                job.execute(scanBrief);
+            }
+        } finally {
+            scanResultCache.clear();
         }
 
         info(Resources.i18n_ast_result_status_success_label());
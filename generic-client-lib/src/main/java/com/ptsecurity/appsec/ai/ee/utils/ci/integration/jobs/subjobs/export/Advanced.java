@@ -30,7 +30,7 @@ public class Advanced extends Export {
             @NonNull final ScanBrief scanBrief) throws GenericException {
         ReportsTasks reportsTasks = new Factory().reportsTasks(owner.getClient());
         try {
-            reportsTasks.exportAdvanced(scanBrief.getProjectId(), scanBrief.getId(), reports, owner.getFileOps());
+            reportsTasks.exportAdvanced(scanBrief.getProjectId(), scanBrief.getId(), reports, owner.getFileOps(), owner.getScanResultCache());
         } catch (GenericException e) {
             owner.warning(e);
         }
@@ -30,7 +30,7 @@ public class RawJson extends Export {
             @NonNull final ScanBrief scanBrief) throws GenericException {
         ReportsTasks reportsTasks = new Factory().reportsTasks(owner.getClient());
         try {
-            reportsTasks.exportRawJson(scanBrief.getProjectId(), scanBrief.getId(), rawData, owner.getFileOps());
+            reportsTasks.exportRawJson(scanBrief.getProjectId(), scanBrief.getId(), rawData, owner.getFileOps(), owner.getScanResultCache());
         } catch (GenericException e) {
             owner.warning(e);
         }
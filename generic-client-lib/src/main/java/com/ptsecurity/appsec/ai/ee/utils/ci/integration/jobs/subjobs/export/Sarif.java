@@ -1,6 +1,9 @@
 package com.ptsecurity.appsec.ai.ee.utils.ci.integration.jobs.subjobs.export;
 
 import com.contrastsecurity.sarif.*;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.ptsecurity.appsec.ai.ee.scan.reports.Reports;
 import com.ptsecurity.appsec.ai.ee.scan.result.ScanBrief;
 import com.ptsecurity.appsec.ai.ee.scan.result.ScanResult;
@@ -8,12 +11,14 @@ import com.ptsecurity.appsec.ai.ee.scan.result.issue.types.*;
 import com.ptsecurity.appsec.ai.ee.utils.ci.integration.api.Factory;
 import com.ptsecurity.appsec.ai.ee.utils.ci.integration.exceptions.GenericException;
 import com.ptsecurity.appsec.ai.ee.utils.ci.integration.tasks.ReportsTasks;
+import com.ptsecurity.appsec.ai.ee.utils.ci.integration.utils.json.BaseJsonHelper;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
 
+import java.io.OutputStream;
 import java.net.URI;
 import java.util.*;
 
@@ -40,7 +45,7 @@ public class Sarif extends Export {
     public void execute(@NonNull ScanBrief scanBrief) throws GenericException {
         ReportsTasks reportsTasks = new Factory().reportsTasks(owner.getClient());
         try {
-            reportsTasks.exportSarif(scanBrief.getProjectId(), scanBrief.getId(), sarif, owner.getFileOps());
+            reportsTasks.exportSarif(scanBrief.getProjectId(), scanBrief.getId(), sarif, owner.getFileOps(), owner.getScanResultCache());
         } catch (GenericException e) {
             owner.warning(e);
         }
@@ -67,6 +72,121 @@ public class Sarif extends Export {
     @SneakyThrows
     @NonNull
     public static SarifSchema210 convert(@NonNull final ScanResult scanResult, final boolean processGroups) {
+        SarifSchema210 sarif = skeleton();
+        Run sarifRun = sarif.getRuns().get(0);
+        ToolComponent driver = sarifRun.getTool().getDriver();
+        ToolComponent translations = sarifRun.getTranslations().iterator().next();
+
+        Set<String> ruleIds = new HashSet<>();
+        Map<String, Result> resultGroups = new HashMap<>();
+
+        for (BaseIssue issue : scanResult.getIssues()) {
+            addRules(scanResult, issue, ruleIds, driver, translations);
+            Result result = result(scanResult, issue);
+            if (null == result) continue;
+            if (BaseIssue.Type.VULNERABILITY.equals(issue.getClazz())) {
+                // Need special processing for groupId as those vulnerabilities are to be
+                // represented by same result with multiple codeFlows
+                boolean existingResult = StringUtils.isNotEmpty(issue.getGroupId()) && resultGroups.containsKey(issue.getGroupId());
+                // Some of SARIF viewers like VS.Code plugin lack ability to show multiple flows for
+                // single vulnerability. If processGroups equals to false then no grouping will be done
+                // and every vulnerability will be represented as a standalone separate result
+                if (!processGroups) existingResult = false;
+                if (existingResult) result = resultGroups.get(issue.getGroupId());
+                if (!existingResult) {
+                    resultGroups.put(issue.getGroupId(), result);
+                    sarifRun.getResults().add(result);
+                }
+                addCodeFlow(result, (VulnerabilityIssue) issue);
+                continue;
+            }
+            sarifRun.getResults().add(result);
+        }
+        return sarif;
+    }
+
+    /**
+     * Method writes SARIF report directly to output stream. Report is logically identical to
+     * {@link #convert(ScanResult, boolean)} one serialized using {@link BaseJsonHelper#createObjectMapper()}
+     * pretty printer, but results are serialized one by one, so there's no need to keep whole SARIF
+     * object graph in memory. Rules and translations are collected during first pass over issues. To
+     * group vulnerabilities by groupId, the index of next group member is stored for every issue
+     * @param scanResult Scan result to be converted
+     * @param processGroups Represent grouped vulnerabilities by single result with multiple code flows
+     * @param out Stream where SARIF report is to be written. Stream isn't closed
+     */
+    @SneakyThrows
+    public static void write(@NonNull final ScanResult scanResult, final boolean processGroups, @NonNull final OutputStream out) {
+        List<BaseIssue> issues = scanResult.getIssues();
+
+        // First pass: collect rules and group members index
+        SarifSchema210 sarif = skeleton();
+        Run sarifRun = sarif.getRuns().get(0);
+        Set<String> ruleIds = new HashSet<>();
+        int[] next = new int[issues.size()];
+        Arrays.fill(next, -1);
+        BitSet grouped = new BitSet(issues.size());
+        Map<String, Integer> lastGroupMembers = new HashMap<>();
+        for (int i = 0; i < issues.size(); i++) {
+            BaseIssue issue = issues.get(i);
+            addRules(scanResult, issue, ruleIds, sarifRun.getTool().getDriver(), sarifRun.getTranslations().iterator().next());
+            if (!processGroups || !BaseIssue.Type.VULNERABILITY.equals(issue.getClazz()) || StringUtils.isEmpty(issue.getGroupId())) continue;
+            Integer last = lastGroupMembers.put(issue.getGroupId(), i);
+            if (null == last) continue;
+            next[last] = i;
+            grouped.set(i);
+        }
+        lastGroupMembers.clear();
+
+        ObjectMapper mapper = BaseJsonHelper.createObjectMapper();
+        JsonNode root = mapper.valueToTree(sarif);
+        try (JsonGenerator generator = mapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.useDefaultPrettyPrinter();
+            generator.writeStartObject();
+            for (Iterator<Map.Entry<String, JsonNode>> fields = root.fields(); fields.hasNext(); ) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                generator.writeFieldName(field.getKey());
+                if (!"runs".equals(field.getKey())) {
+                    generator.writeTree(field.getValue());
+                    continue;
+                }
+                generator.writeStartArray();
+                generator.writeStartObject();
+                for (Iterator<Map.Entry<String, JsonNode>> runFields = field.getValue().get(0).fields(); runFields.hasNext(); ) {
+                    Map.Entry<String, JsonNode> runField = runFields.next();
+                    generator.writeFieldName(runField.getKey());
+                    if (!"results".equals(runField.getKey())) {
+                        generator.writeTree(runField.getValue());
+                        continue;
+                    }
+                    // Second pass: write results
+                    generator.writeStartArray();
+                    for (int i = 0; i < issues.size(); i++) {
+                        // Grouped vulnerabilities are written as part of their first group member result
+                        if (grouped.get(i)) continue;
+                        BaseIssue issue = issues.get(i);
+                        Result result = result(scanResult, issue);
+                        if (null == result) continue;
+                        if (BaseIssue.Type.VULNERABILITY.equals(issue.getClazz()))
+                            for (int j = i; -1 != j; j = next[j])
+                                addCodeFlow(result, (VulnerabilityIssue) issues.get(j));
+                        generator.writeObject(result);
+                    }
+                    generator.writeEndArray();
+                }
+                generator.writeEndObject();
+                generator.writeEndArray();
+            }
+            generator.writeEndObject();
+        }
+    }
+
+    /**
+     * @return SARIF report with single run that contains no rules and results
+     */
+    @SneakyThrows
+    protected static SarifSchema210 skeleton() {
         SarifSchema210 sarif = new SarifSchema210()
                 .withVersion(SarifSchema210.Version._2_1_0);
 
@@ -88,94 +208,89 @@ public class Sarif extends Export {
                 .withName(driver.getName())
                 .withRules(new HashSet<>());
         sarifRun.setTranslations(Collections.singleton(translations));
+        return sarif;
+    }
 
-        Set<String> ruleIds = new HashSet<>();
-        Map<String, Result> resultGroups = new HashMap<>();
-
-        for (BaseIssue issue : scanResult.getIssues()) {
-            // Check if issue's title and descriptions are added to rules / translations already
-            if (!ruleIds.contains(issue.getTypeId())) {
-                for (Reports.Locale locale : Reports.Locale.values()) {
-                    com.ptsecurity.appsec.ai.ee.scan.result.ScanResult.Strings title = scanResult.getI18n().get(issue.getTypeId()).get(locale);
-                    ReportingDescriptor rule = new ReportingDescriptor()
-                            .withId(issue.getTypeId())
-                            .withName(title.getTitle())
-                            .withProperties(new PropertyBag().withTags(Collections.singleton(issue.getClazz().name().toLowerCase())))
-                            .withFullDescription(new MultiformatMessageString().withText(title.getDescription()));
-                    if (EN.equals(locale))
-                        driver.getRules().add(rule);
-                    else
-                        translations.getRules().add(rule);
-                }
-                ruleIds.add(issue.getTypeId());
-            }
-            // Process issue
-            Location location = new Location();
-            Set<String> tags = new HashSet<>();
-            Result result = new Result()
-                    .withRuleId(issue.getTypeId())
-                    .withMessage(new Message().withText(scanResult.getI18n().get(issue.getTypeId()).get(EN).getTitle()))
-                    .withLevel(ISSUE_LEVEL_MAP.get(issue.getLevel()))
-                    .withKind(ISSUE_KIND_MAP.get(issue.getApprovalState()))
-                    .withLocations(Collections.singletonList(location))
-                    .withProperties(new PropertyBag().withTags(tags));
-            tags.add(issue.getClazz().name());
-            if (BaseIssue.Type.SCA.equals(issue.getClazz())) {
-                ScaIssue scaIssue = (ScaIssue) issue;
-                // Set SCA issue location. That location is file-scope only and
-                // doesn't contain line and column numbers
-                location.withPhysicalLocation(
-                        new PhysicalLocation()
-                                .withArtifactLocation(
-                                        new ArtifactLocation()
-                                                .withUri(fixUri(scaIssue.getFile()))
-                                                .withUriBaseId("SRCROOT")
-                                ));
-            } else if (BaseIssue.Type.BLACKBOX.equals(issue.getClazz()))
-                // As SARIF is a Static Analysis Results Interchange Format, there's no way to represent DAST results
-                continue;
-            else if (BaseIssue.Type.CONFIGURATION.equals(issue.getClazz())) {
-                ConfigurationIssue configurationIssue = (ConfigurationIssue) issue;
-                location.withPhysicalLocation(phl(configurationIssue.getVulnerableExpression()));
-            } else if (BaseIssue.Type.UNKNOWN.equals(issue.getClazz()))
-                continue;
-            else if (BaseIssue.Type.VULNERABILITY.equals(issue.getClazz())) {
-                VulnerabilityIssue vulnerabilityIssue = (VulnerabilityIssue) issue;
-                location.withPhysicalLocation(phl(vulnerabilityIssue.getVulnerableExpression()));
-                // Need special processing for groupId as those vulnerabilities are to be
-                // represented by same result with multiple codeFlows
-                boolean existingResult = StringUtils.isNotEmpty(issue.getGroupId()) && resultGroups.containsKey(issue.getGroupId());
-                // Some of SARIF viewers like VS.Code plugin lack ability to show multiple flows for
-                // single vulnerability. If processGroups equals to false then no grouping will be done
-                // and every vulnerability will be represented as a standalone separate result
-                if (!processGroups) existingResult = false;
-                if (existingResult) result = resultGroups.get(issue.getGroupId());
-                if (!existingResult) {
-                    resultGroups.put(issue.getGroupId(), result);
-                    sarifRun.getResults().add(result);
-                }
+    /**
+     * Check if issue's title and descriptions are added to rules / translations already and add them if not
+     */
+    protected static void addRules(
+            @NonNull final ScanResult scanResult, @NonNull final BaseIssue issue, @NonNull final Set<String> ruleIds,
+            @NonNull final ToolComponent driver, @NonNull final ToolComponent translations) {
+        if (ruleIds.contains(issue.getTypeId())) return;
+        for (Reports.Locale locale : Reports.Locale.values()) {
+            com.ptsecurity.appsec.ai.ee.scan.result.ScanResult.Strings title = scanResult.getI18n().get(issue.getTypeId()).get(locale);
+            ReportingDescriptor rule = new ReportingDescriptor()
+                    .withId(issue.getTypeId())
+                    .withName(title.getTitle())
+                    .withProperties(new PropertyBag().withTags(Collections.singleton(issue.getClazz().name().toLowerCase())))
+                    .withFullDescription(new MultiformatMessageString().withText(title.getDescription()));
+            if (EN.equals(locale))
+                driver.getRules().add(rule);
+            else
+                translations.getRules().add(rule);
+        }
+        ruleIds.add(issue.getTypeId());
+    }
 
-                List<ThreadFlowLocation> threadFlowLocations = new ArrayList<>();
-                addTfl(threadFlowLocations, vulnerabilityIssue.getEntryPoint(), "Entry point");
-                addTfl(threadFlowLocations, vulnerabilityIssue.getTaintDataEntries(), "Taint data entry");
-                addTfl(threadFlowLocations, vulnerabilityIssue.getDataTrace(), "Data operation");
-                addTfl(threadFlowLocations, vulnerabilityIssue.getVulnerableExpression(), "Exit point");
+    /**
+     * Convert issue to SARIF result without code flows
+     * @return SARIF result or null if issue type can't be represented in SARIF report
+     */
+    protected static Result result(@NonNull final ScanResult scanResult, @NonNull final BaseIssue issue) {
+        Location location = new Location();
+        Set<String> tags = new HashSet<>();
+        Result result = new Result()
+                .withRuleId(issue.getTypeId())
+                .withMessage(new Message().withText(scanResult.getI18n().get(issue.getTypeId()).get(EN).getTitle()))
+                .withLevel(ISSUE_LEVEL_MAP.get(issue.getLevel()))
+                .withKind(ISSUE_KIND_MAP.get(issue.getApprovalState()))
+                .withLocations(Collections.singletonList(location))
+                .withProperties(new PropertyBag().withTags(tags));
+        tags.add(issue.getClazz().name());
+        if (BaseIssue.Type.SCA.equals(issue.getClazz())) {
+            ScaIssue scaIssue = (ScaIssue) issue;
+            // Set SCA issue location. That location is file-scope only and
+            // doesn't contain line and column numbers
+            location.withPhysicalLocation(
+                    new PhysicalLocation()
+                            .withArtifactLocation(
+                                    new ArtifactLocation()
+                                            .withUri(fixUri(scaIssue.getFile()))
+                                            .withUriBaseId("SRCROOT")
+                            ));
+        } else if (BaseIssue.Type.BLACKBOX.equals(issue.getClazz()))
+            // As SARIF is a Static Analysis Results Interchange Format, there's no way to represent DAST results
+            return null;
+        else if (BaseIssue.Type.CONFIGURATION.equals(issue.getClazz())) {
+            ConfigurationIssue configurationIssue = (ConfigurationIssue) issue;
+            location.withPhysicalLocation(phl(configurationIssue.getVulnerableExpression()));
+        } else if (BaseIssue.Type.UNKNOWN.equals(issue.getClazz()))
+            return null;
+        else if (BaseIssue.Type.VULNERABILITY.equals(issue.getClazz())) {
+            VulnerabilityIssue vulnerabilityIssue = (VulnerabilityIssue) issue;
+            location.withPhysicalLocation(phl(vulnerabilityIssue.getVulnerableExpression()));
+        } else if (BaseIssue.Type.WEAKNESS.equals(issue.getClazz())) {
+            WeaknessIssue weaknessIssue = (WeaknessIssue) issue;
+            location.withPhysicalLocation(phl(weaknessIssue.getVulnerableExpression()));
+        } else if (BaseIssue.Type.YARAMATCH.equals(issue.getClazz()))
+            return null;
+        return result;
+    }
 
-                if (!threadFlowLocations.isEmpty()) {
-                    if (null == result.getCodeFlows()) result.setCodeFlows(new ArrayList<>());
-                    List<CodeFlow> codeFlows = result.getCodeFlows();
-                    codeFlows.add(new CodeFlow().withThreadFlows(Collections.singletonList(new ThreadFlow().withLocations(threadFlowLocations))));
-                }
-                continue;
-            } else if (BaseIssue.Type.WEAKNESS.equals(issue.getClazz())) {
-                WeaknessIssue weaknessIssue = (WeaknessIssue) issue;
-                location.withPhysicalLocation(phl(weaknessIssue.getVulnerableExpression()));
-            } else if (BaseIssue.Type.YARAMATCH.equals(issue.getClazz()))
-                continue;
+    /**
+     * Add vulnerability data flow to SARIF result code flows
+     */
+    protected static void addCodeFlow(@NonNull final Result result, @NonNull final VulnerabilityIssue vulnerabilityIssue) {
+        List<ThreadFlowLocation> threadFlowLocations = new ArrayList<>();
+        addTfl(threadFlowLocations, vulnerabilityIssue.getEntryPoint(), "Entry point");
+        addTfl(threadFlowLocations, vulnerabilityIssue.getTaintDataEntries(), "Taint data entry");
+        addTfl(threadFlowLocations, vulnerabilityIssue.getDataTrace(), "Data operation");
+        addTfl(threadFlowLocations, vulnerabilityIssue.getVulnerableExpression(), "Exit point");
 
-            sarifRun.getResults().add(result);
-        }
-        return sarif;
+        if (threadFlowLocations.isEmpty()) return;
+        if (null == result.getCodeFlows()) result.setCodeFlows(new ArrayList<>());
+        result.getCodeFlows().add(new CodeFlow().withThreadFlows(Collections.singletonList(new ThreadFlow().withLocations(threadFlowLocations))));
     }
 
     public static String fixUri(@NonNull final String uri) {
@@ -2,6 +2,8 @@ package com.ptsecurity.appsec.ai.ee.utils.ci.integration.jobs.subjobs.export;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.ptsecurity.appsec.ai.ee.scan.reports.Reports;
 import com.ptsecurity.appsec.ai.ee.scan.result.ScanBrief;
 import com.ptsecurity.appsec.ai.ee.scan.result.ScanResult;
@@ -18,6 +20,7 @@ import lombok.experimental.SuperBuilder;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 
+import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -190,7 +193,7 @@ public class SonarGiif extends Export {
     public void execute(@NonNull ScanBrief scanBrief) throws GenericException {
         ReportsTasks reportsTasks = new Factory().reportsTasks(owner.getClient());
         try {
-            reportsTasks.exportSonarGiif(scanBrief.getProjectId(), scanBrief.getId(), sonar, owner.getFileOps());
+            reportsTasks.exportSonarGiif(scanBrief.getProjectId(), scanBrief.getId(), sonar, owner.getFileOps(), owner.getScanResultCache());
         } catch (GenericException e) {
             owner.warning(e);
         }
@@ -219,38 +222,71 @@ public class SonarGiif extends Export {
         SonarGiifReport result = SonarGiifReport.builder().build();
 
         for (BaseIssue issue : scanResult.getIssues()) {
-            String message = scanResult.getI18n().get(issue.getTypeId()).get(EN).getTitle();
-            SonarGiifReport.Issue.PrimaryLocation primaryLocation;
-            BaseIssue.Type clazz = issue.getClazz();
-            if (BaseIssue.Type.SCA == clazz) {
-                ScaIssue scaIssue = (ScaIssue) issue;
-                // Set SCA issue location. That location is file-scope only and
-                // doesn't contain line and column numbers
-                primaryLocation = SonarGiifReport.Issue.PrimaryLocation.builder()
-                        .filePath(fixUri(scaIssue.getFile()))
-                        .message(message)
-                        .build();
-            } else if (BaseIssue.Type.CONFIGURATION == clazz) {
-                ConfigurationIssue configurationIssue = (ConfigurationIssue) issue;
-                primaryLocation = pl(message, configurationIssue.getVulnerableExpression());
-            } else if (BaseIssue.Type.VULNERABILITY == clazz) {
-                VulnerabilityIssue vulnerabilityIssue = (VulnerabilityIssue) issue;
-                primaryLocation = pl(message, vulnerabilityIssue.getVulnerableExpression());
-            } else if (BaseIssue.Type.WEAKNESS == clazz) {
-                WeaknessIssue weaknessIssue = (WeaknessIssue) issue;
-                primaryLocation = pl(message, weaknessIssue.getVulnerableExpression());
-            } else continue;
-            result.getIssues().add(SonarGiifReport.Issue.builder()
-                    .engineId("PTAI")
-                    .ruleId(issue.getTypeId())
-                    .severity(ISSUE_LEVEL_MAP.get(issue.getLevel()))
-                    .type(ISSUE_TYPE_MAP.get(issue.getLevel()))
-                    .primaryLocation(primaryLocation)
-                    .build());
+            SonarGiifReport.Issue giifIssue = issue(scanResult, issue);
+            if (null != giifIssue) result.getIssues().add(giifIssue);
         }
         return result;
     }
 
+    /**
+     * Method writes GIIF report directly to output stream. Report is identical to {@link #convert(ScanResult)}
+     * one serialized using {@link BaseJsonHelper#createObjectMapper()} pretty printer, but issues are
+     * converted and serialized one by one, so memory consumption doesn't depend on issues count
+     * @param scanResult Scan result to be converted
+     * @param out Stream where GIIF report is to be written. Stream isn't closed
+     */
+    @SneakyThrows
+    public static void write(@NonNull final ScanResult scanResult, @NonNull final OutputStream out) {
+        ObjectMapper mapper = BaseJsonHelper.createObjectMapper();
+        try (JsonGenerator generator = mapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.useDefaultPrettyPrinter();
+            generator.writeStartObject();
+            generator.writeArrayFieldStart("issues");
+            for (BaseIssue issue : scanResult.getIssues()) {
+                SonarGiifReport.Issue giifIssue = issue(scanResult, issue);
+                if (null != giifIssue) generator.writeObject(giifIssue);
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+    }
+
+    /**
+     * Convert PT AI issue to GIIF one
+     * @return GIIF issue or null if issue type can't be represented in GIIF report
+     */
+    protected static SonarGiifReport.Issue issue(@NonNull final ScanResult scanResult, @NonNull final BaseIssue issue) {
+        String message = scanResult.getI18n().get(issue.getTypeId()).get(EN).getTitle();
+        SonarGiifReport.Issue.PrimaryLocation primaryLocation;
+        BaseIssue.Type clazz = issue.getClazz();
+        if (BaseIssue.Type.SCA == clazz) {
+            ScaIssue scaIssue = (ScaIssue) issue;
+            // Set SCA issue location. That location is file-scope only and
+            // doesn't contain line and column numbers
+            primaryLocation = SonarGiifReport.Issue.PrimaryLocation.builder()
+                    .filePath(fixUri(scaIssue.getFile()))
+                    .message(message)
+                    .build();
+        } else if (BaseIssue.Type.CONFIGURATION == clazz) {
+            ConfigurationIssue configurationIssue = (ConfigurationIssue) issue;
+            primaryLocation = pl(message, configurationIssue.getVulnerableExpression());
+        } else if (BaseIssue.Type.VULNERABILITY == clazz) {
+            VulnerabilityIssue vulnerabilityIssue = (VulnerabilityIssue) issue;
+            primaryLocation = pl(message, vulnerabilityIssue.getVulnerableExpression());
+        } else if (BaseIssue.Type.WEAKNESS == clazz) {
+            WeaknessIssue weaknessIssue = (WeaknessIssue) issue;
+            primaryLocation = pl(message, weaknessIssue.getVulnerableExpression());
+        } else return null;
+        return SonarGiifReport.Issue.builder()
+                .engineId("PTAI")
+                .ruleId(issue.getTypeId())
+                .severity(ISSUE_LEVEL_MAP.get(issue.getLevel()))
+                .type(ISSUE_TYPE_MAP.get(issue.getLevel()))
+                .primaryLocation(primaryLocation)
+                .build();
+    }
+
     public static String fixUri(@NonNull final String uri) {
         return StringUtils.removeStart(uri, ".\\").replaceAll("\\\\", "/");
     }
@@ -5,10 +5,14 @@ import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
 import lombok.experimental.SuperBuilder;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.IOUtils;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.Path;
 
 @Slf4j
 @SuperBuilder
@@ -17,12 +21,24 @@ public abstract class AbstractFileOperations implements FileOperations {
     @SneakyThrows
     public void saveArtifact(@NonNull String name, @NonNull File file) {
         log.trace("Started: save {} file contents as build artifact {}", file.getAbsolutePath(), name);
-        byte[] data = Files.readAllBytes(file.toPath());
-        log.trace("File {} data load complete", file.getAbsolutePath());
-        saveInMemoryData(name, data);
+        saveFileData(name, file.toPath(), false);
         log.trace("Finished: save {} file contents as build artifact {}", file.getAbsolutePath(), name);
     }
 
+    @SneakyThrows
+    public void moveArtifact(@NonNull String name, @NonNull Path file) {
+        log.trace("Started: move {} temporal file to build artifact {}", file.toAbsolutePath(), name);
+        saveFileData(name, file, true);
+        log.trace("Finished: move {} temporal file to build artifact {}", file.toAbsolutePath(), name);
+    }
+
+    @SneakyThrows
+    public void saveArtifact(@NonNull String name, @NonNull InputStream data) {
+        log.trace("Started: save stream data as build artifact {}", name);
+        saveStreamData(name, data);
+        log.trace("Finished: save stream data as build artifact {}", name);
+    }
+
     @SneakyThrows
     public void saveArtifact(@NonNull String name, byte[] data) {
         byte[] safeData = (null == data) ? new byte[0] : data;
@@ -40,4 +56,26 @@ public abstract class AbstractFileOperations implements FileOperations {
     }
 
     protected abstract void saveInMemoryData(@NonNull String name, byte[] data);
+
+    /**
+     * Save stream data as artifact. Default implementation loads data into memory, so
+     * descendants that are able to write artifacts directly are to override this method
+     * @param name Artifact name
+     * @param data Artifact data stream
+     */
+    protected void saveStreamData(@NonNull String name, @NonNull InputStream data) throws IOException {
+        saveInMemoryData(name, IOUtils.toByteArray(data));
+    }
+
+    /**
+     * Save file as artifact. Default implementation reads file as stream
+     * @param name Artifact name
+     * @param file File to be saved
+     * @param move If true then file may be moved to artifact destination
+     */
+    protected void saveFileData(@NonNull String name, @NonNull Path file, boolean move) throws IOException {
+        try (InputStream data = Files.newInputStream(file)) {
+            saveStreamData(name, data);
+        }
+    }
 }
@@ -5,24 +5,76 @@ import com.ptsecurity.appsec.ai.ee.utils.ci.integration.api.Factory;
 import com.ptsecurity.appsec.ai.ee.utils.ci.integration.exceptions.GenericException;
 import com.ptsecurity.appsec.ai.ee.utils.ci.integration.jobs.GenericAstJob;
 import com.ptsecurity.appsec.ai.ee.utils.ci.integration.tasks.GenericAstTasks;
+import com.ptsecurity.appsec.ai.ee.utils.ci.integration.utils.FileCollector;
+import com.ptsecurity.appsec.ai.ee.utils.ci.integration.utils.SourcesManifest;
+import com.ptsecurity.appsec.ai.ee.utils.ci.integration.utils.ZipRequestBody;
 import lombok.NonNull;
 import lombok.experimental.SuperBuilder;
 
 import java.io.File;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.ptsecurity.appsec.ai.ee.utils.ci.integration.domain.AdvancedSettings.SettingInfo.UPLOAD_SKIP_UNCHANGED;
+import static com.ptsecurity.appsec.ai.ee.utils.ci.integration.domain.AdvancedSettings.SettingInfo.UPLOAD_STREAMING;
 
 @SuperBuilder
 public abstract class AbstractSetupOperations implements SetupOperations {
     @NonNull
     protected GenericAstJob owner;
 
+    /**
+     * Manifest of sources that were set up. It is saved when scan is started as
+     * manifest is bound to scan result ID
+     */
+    private final AtomicReference<SourcesManifest> setupManifest = new AtomicReference<>();
+
     protected void uploadSources(@NonNull final UUID projectId) throws GenericException {
-        // Zip sources and upload to server. Throw an exception if there are problems
+        GenericAstTasks genericAstTasks = new Factory().genericAstTasks(owner.getClient());
         owner.process(Stage.ZIP);
-        File sources = owner.getAstOps().createZip();
+        if (owner.getAdvancedSettings().getBoolean(UPLOAD_SKIP_UNCHANGED)) {
+            // PT AI API has no delta upload support, so we can only skip upload
+            // if sources set and contents are the same as during last upload.
+            // Manifest keeps collected files, so source tree is walked once
+            SourcesManifest manifest = owner.getAstOps().createSourcesManifest(projectId);
+            if (null != manifest) {
+                setupManifest.set(manifest);
+                UUID latestScanResultId = new Factory().projectTasks(owner.getClient()).getLatestAstResult(projectId);
+                if (manifest.isUnchanged(latestScanResultId)) {
+                    owner.info("Sources weren't changed since last upload, skip upload");
+                    return;
+                }
+                uploadSources(projectId, manifest, genericAstTasks);
+                return;
+            }
+        }
+        uploadSources(projectId, null, genericAstTasks);
+    }
+
+    @Override
+    public void scanStartedCallback(@NonNull final UUID scanResultId) throws GenericException {
+        SourcesManifest manifest = setupManifest.getAndSet(null);
+        if (null != manifest) manifest.save(scanResultId);
+    }
+
+    private void uploadSources(@NonNull final UUID projectId, final SourcesManifest manifest, @NonNull final GenericAstTasks genericAstTasks) throws GenericException {
+        if (owner.getAdvancedSettings().getBoolean(UPLOAD_STREAMING)) {
+            // Zip sources directly into upload request body. Zip and upload stages overlap
+            ZipRequestBody stream = (null == manifest) ? owner.getAstOps().createZipStream() : manifest.stream();
+            if (null != stream) {
+                owner.process(Stage.UPLOAD);
+                if (genericAstTasks.upload(projectId, stream)) {
+                    owner.info("Zipped sources size is %s (%d bytes)", FileCollector.bytesToString(stream.getSize()), stream.getSize());
+                    return;
+                }
+                owner.warning("Streaming upload isn't supported by server, temporary zip file will be used");
+            } else
+                owner.fine("Streaming upload isn't supported, temporary zip file will be used");
+        }
+        // Zip sources and upload to server. Throw an exception if there are problems
+        File sources = (null == manifest) ? owner.getAstOps().createZip() : manifest.zip();
 
         owner.process(Stage.UPLOAD);
-        GenericAstTasks genericAstTasks = new Factory().genericAstTasks(owner.getClient());
         genericAstTasks.upload(projectId, sources);
         if (!sources.delete()) owner.warning("File %s delete failed", sources.getName());
     }
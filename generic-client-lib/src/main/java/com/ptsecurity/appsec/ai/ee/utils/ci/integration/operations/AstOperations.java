@@ -3,6 +3,8 @@ package com.ptsecurity.appsec.ai.ee.utils.ci.integration.operations;
 import com.ptsecurity.appsec.ai.ee.scan.result.ScanBrief;
 import com.ptsecurity.appsec.ai.ee.scan.result.ScanBriefDetailed;
 import com.ptsecurity.appsec.ai.ee.utils.ci.integration.exceptions.GenericException;
+import com.ptsecurity.appsec.ai.ee.utils.ci.integration.utils.SourcesManifest;
+import com.ptsecurity.appsec.ai.ee.utils.ci.integration.utils.ZipRequestBody;
 import lombok.NonNull;
 
 import java.io.File;
@@ -26,6 +28,27 @@ public interface AstOperations {
      */
     File createZip() throws GenericException;
 
+    /**
+     * Collect sources and return request body that zips them directly into
+     * upload stream without temporary archive file. Environments where sources
+     * can't be read locally (i.e. Jenkins remote build agents) do not support
+     * streaming and return null, so {@link #createZip()} is used instead
+     * @return Streaming request body or null if streaming isn't supported
+     */
+    default ZipRequestBody createZipStream() throws GenericException {
+        return null;
+    }
+
+    /**
+     * Create manifest of sources to be uploaded to PT AI project. Manifest is used to
+     * check if sources were changed since last successful upload to the same project
+     * @param projectId PT AI project ID
+     * @return Sources manifest or null if this environment doesn't support manifests
+     */
+    default SourcesManifest createSourcesManifest(@NonNull final UUID projectId) throws GenericException {
+        return null;
+    }
+
     /**
      * Callback method is being called when AST job is started on PT AI server.
      * AstJob descendants may use this callback to prepare for safe build
@@ -3,6 +3,8 @@ package com.ptsecurity.appsec.ai.ee.utils.ci.integration.operations;
 import lombok.NonNull;
 
 import java.io.File;
+import java.io.InputStream;
+import java.nio.file.Path;
 
 /**
  * As AST job may be executed in different environments, i.e. as part of
@@ -39,4 +41,20 @@ public interface FileOperations {
      * @param data Artifact data to save
      */
     void saveArtifact(@NonNull final String name, @NonNull final String data);
+
+    /** Method saves @data stream contents to artifact named @name. Stream is read
+     * till its end but isn't closed. Method allows to save large data without
+     * loading it into memory
+     * @param name File name to be saved
+     * @param data Artifact data to save
+     */
+    void saveArtifact(@NonNull final String name, @NonNull final InputStream data);
+
+    /** Method moves temporal @data file to artifact named @name. Unlike
+     * {@link #saveArtifact(String, File)}, file is consumed: implementations may move
+     * it to destination instead of copying, so file may not exist after method call
+     * @param name File name to be saved
+     * @param data Temporal file to be moved to artifact
+     */
+    void moveArtifact(@NonNull final String name, @NonNull final Path data);
 }
@@ -1,9 +1,16 @@
 package com.ptsecurity.appsec.ai.ee.utils.ci.integration.operations;
 
 import com.ptsecurity.appsec.ai.ee.utils.ci.integration.exceptions.GenericException;
+import lombok.NonNull;
 
 import java.util.UUID;
 
 public interface SetupOperations {
     UUID setupProject() throws GenericException;
+
+    /**
+     * Callback method is being called when scan of sources that were set up is started
+     * @param scanResultId Started scan result ID
+     */
+    default void scanStartedCallback(@NonNull final UUID scanResultId) throws GenericException {}
 }
@@ -4,6 +4,9 @@ import com.ptsecurity.appsec.ai.ee.scan.errors.Error;
 import com.ptsecurity.appsec.ai.ee.scan.result.ScanBrief;
 import com.ptsecurity.appsec.ai.ee.scan.result.ScanResult;
 import com.ptsecurity.appsec.ai.ee.utils.ci.integration.exceptions.GenericException;
+import com.ptsecurity.appsec.ai.ee.utils.ci.integration.functions.EventConsumer;
+import com.ptsecurity.appsec.ai.ee.utils.ci.integration.functions.TextOutput;
+import com.ptsecurity.appsec.ai.ee.utils.ci.integration.utils.ZipRequestBody;
 import lombok.NonNull;
 
 import java.io.File;
@@ -16,11 +19,33 @@ import java.util.UUID;
 public interface GenericAstTasks {
     void upload(@NonNull final UUID projectId, @NonNull final File sources) throws GenericException;
 
+    /**
+     * Upload sources that are zipped directly into request body. As archive size isn't
+     * known in advance, chunked transfer encoding is used
+     * @param projectId PT AI project ID
+     * @param sources Streaming request body that zips sources on the fly
+     * @return True if sources were uploaded, false if server requires Content-Length
+     * header and {@link #upload(UUID, File)} is to be used instead
+     * @throws GenericException Exception that contains error details if upload failed
+     */
+    boolean upload(@NonNull final UUID projectId, @NonNull final ZipRequestBody sources) throws GenericException;
+
     UUID startScan(@NonNull final UUID projectId, boolean fullScanMode) throws GenericException;
 
     String getScanResultUrl(@NonNull final UUID projectId, @NonNull final UUID scanResultId) throws GenericException;
 
     ScanBrief.State waitForComplete(@NonNull UUID projectId, @NonNull final UUID scanResultId) throws InterruptedException;
+
+    /**
+     * Wait for AST job completion reporting its progress to job-specific output. This
+     * allows several jobs to share single API client
+     * @param console Output for scan progress messages
+     * @param eventConsumer Consumer of scan stage change events
+     */
+    ScanBrief.State waitForComplete(
+            @NonNull UUID projectId, @NonNull final UUID scanResultId,
+            final TextOutput console, final EventConsumer eventConsumer) throws InterruptedException;
+
     void stop(@NonNull UUID scanResultId) throws GenericException;
 
 
@@ -5,6 +5,7 @@ import com.ptsecurity.appsec.ai.ee.scan.reports.Reports.*;
 import com.ptsecurity.appsec.ai.ee.utils.ci.integration.exceptions.GenericException;
 import com.ptsecurity.appsec.ai.ee.utils.ci.integration.jobs.GenericAstJob;
 import com.ptsecurity.appsec.ai.ee.utils.ci.integration.operations.FileOperations;
+import com.ptsecurity.appsec.ai.ee.utils.ci.integration.utils.ScanResultCache;
 import lombok.NonNull;
 
 import java.util.List;
@@ -30,7 +31,16 @@ public interface ReportsTasks {
      *                of {@link GenericAstJob#execute()} call
      * @throws GenericException Exception that contains details about failed report validation / generation
      */
-    void exportAdvanced(@NonNull final UUID projectId, @NonNull final UUID scanResultId, @NonNull final Reports reports, @NonNull final FileOperations fileOps) throws GenericException;
+    default void exportAdvanced(@NonNull final UUID projectId, @NonNull final UUID scanResultId, @NonNull final Reports reports, @NonNull final FileOperations fileOps) throws GenericException {
+        exportAdvanced(projectId, scanResultId, reports, fileOps, new ScanResultCache());
+    }
+
+    /**
+     * Generate reports for specific AST result. Raw JSON, SARIF and GIIF exports share
+     * the same scan result that is loaded from PT AI server once
+     * @param cache Scan results cache that is shared between exports
+     */
+    void exportAdvanced(@NonNull final UUID projectId, @NonNull final UUID scanResultId, @NonNull final Reports reports, @NonNull final FileOperations fileOps, @NonNull final ScanResultCache cache) throws GenericException;
 
     void exportReport(@NonNull final UUID projectId, @NonNull final UUID scanResultId, @NonNull final Report report, @NonNull final FileOperations fileOps) throws GenericException;
 
@@ -43,10 +53,23 @@ public interface ReportsTasks {
      *                Can't just use {@link java.io.File} as this methom may be called remotely
      * @throws GenericException Something bad happened during file export. See {@link GenericException#getCause()} for details
      */
-    void exportRawJson(@NonNull final UUID projectId, @NonNull final UUID scanResultId, @NonNull final RawData rawData, @NonNull final FileOperations fileOps) throws GenericException;
+    default void exportRawJson(@NonNull final UUID projectId, @NonNull final UUID scanResultId, @NonNull final RawData rawData, @NonNull final FileOperations fileOps) throws GenericException {
+        exportRawJson(projectId, scanResultId, rawData, fileOps, new ScanResultCache());
+    }
+
+    void exportRawJson(@NonNull final UUID projectId, @NonNull final UUID scanResultId, @NonNull final RawData rawData, @NonNull final FileOperations fileOps, @NonNull final ScanResultCache cache) throws GenericException;
+
+    default void exportSarif(@NonNull final UUID projectId, @NonNull final UUID scanResultId, @NonNull final Sarif sarif, @NonNull final FileOperations fileOps) throws GenericException {
+        exportSarif(projectId, scanResultId, sarif, fileOps, new ScanResultCache());
+    }
+
+    void exportSarif(@NonNull final UUID projectId, @NonNull final UUID scanResultId, @NonNull final Sarif sarif, @NonNull final FileOperations fileOps, @NonNull final ScanResultCache cache) throws GenericException;
+
+    default void exportSonarGiif(@NonNull final UUID projectId, @NonNull final UUID scanResultId, @NonNull final SonarGiif sonarGiif, @NonNull final FileOperations fileOps) throws GenericException {
+        exportSonarGiif(projectId, scanResultId, sonarGiif, fileOps, new ScanResultCache());
+    }
 
-    void exportSarif(@NonNull final UUID projectId, @NonNull final UUID scanResultId, @NonNull final Sarif sarif, @NonNull final FileOperations fileOps) throws GenericException;
-    void exportSonarGiif(@NonNull final UUID projectId, @NonNull final UUID scanResultId, @NonNull final SonarGiif sonarGiif, @NonNull final FileOperations fileOps) throws GenericException;
+    void exportSonarGiif(@NonNull final UUID projectId, @NonNull final UUID scanResultId, @NonNull final SonarGiif sonarGiif, @NonNull final FileOperations fileOps, @NonNull final ScanResultCache cache) throws GenericException;
 
     List<String> listReportTemplates(Locale locale) throws GenericException;
 }
@@ -0,0 +1,199 @@
+package com.ptsecurity.appsec.ai.ee.utils.ci.integration.utils;
+
+import lombok.NonNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Ant-style include / exclude patterns matcher. Patterns are tokenized once and
+ * matched against tokenized relative paths. Matching rules are the same as
+ * Ant's DirectoryScanner / SelectorUtils use in case-sensitive mode: "**" token
+ * matches zero or more path elements, "*" and "?" match any characters sequence
+ * and any single character inside path element, pattern that ends with separator
+ * is treated as if "**" is appended to it
+ */
+public class AntPatternMatcher {
+    public static final String DEEP_TREE_MATCH = "**";
+
+    private final List<String[]> includes = new ArrayList<>();
+    private final List<String[]> excludes = new ArrayList<>();
+
+    /**
+     * Create matcher. Empty patterns are ignored. If there are no include patterns,
+     * "**" is used as Ant does
+     * @param includes Include patterns
+     * @param excludes Exclude patterns
+     */
+    public AntPatternMatcher(final List<String> includes, final List<String> excludes) {
+        if (null != includes)
+            for (String pattern : includes)
+                if (null != pattern && !pattern.isEmpty()) this.includes.add(tokenizePattern(pattern));
+        if (this.includes.isEmpty()) this.includes.add(new String[] { DEEP_TREE_MATCH });
+        if (null != excludes)
+            for (String pattern : excludes)
+                if (null != pattern && !pattern.isEmpty()) this.excludes.add(tokenizePattern(pattern));
+    }
+
+    /**
+     * @param pattern Pattern to check
+     * @return True if pattern is absolute. Such patterns are matched against absolute paths
+     * and aren't supported by this matcher
+     */
+    public static boolean isAbsolute(@NonNull final String pattern) {
+        String normalized = pattern.replace('\\', '/');
+        return normalized.startsWith("/") || normalized.matches("^[a-zA-Z]:.*");
+    }
+
+    protected static String[] tokenizePattern(@NonNull final String pattern) {
+        String normalized = pattern.replace('\\', '/');
+        if (normalized.endsWith("/")) normalized += DEEP_TREE_MATCH;
+        return tokenize(normalized);
+    }
+
+    /**
+     * Split path into non-empty elements
+     * @param path Path where elements are separated using "/"
+     * @return Path elements
+     */
+    public static String[] tokenize(@NonNull final String path) {
+        return Arrays.stream(path.split("/")).filter(s -> !s.isEmpty()).toArray(String[]::new);
+    }
+
+    public boolean isIncluded(@NonNull final String[] path) {
+        for (String[] pattern : includes)
+            if (matchPath(pattern, path)) return true;
+        return false;
+    }
+
+    public boolean isExcluded(@NonNull final String[] path) {
+        for (String[] pattern : excludes)
+            if (matchPath(pattern, path)) return true;
+        return false;
+    }
+
+    /**
+     * @param path Folder path
+     * @return True if some include pattern may match folder's descendants
+     */
+    public boolean couldHoldIncluded(@NonNull final String[] path) {
+        for (String[] pattern : includes)
+            if (matchPatternStart(pattern, path)) return true;
+        return false;
+    }
+
+    /**
+     * @param path Folder path
+     * @return True if all the folder's descendants are excluded, i.e. there's
+     * "some/path/**" exclude pattern that matches folder
+     */
+    public boolean contentsExcluded(@NonNull final String[] path) {
+        for (String[] pattern : excludes) {
+            if (0 == pattern.length || !DEEP_TREE_MATCH.equals(pattern[pattern.length - 1])) continue;
+            if (matchPath(Arrays.copyOf(pattern, pattern.length - 1), path)) return true;
+        }
+        return false;
+    }
+
+    protected static boolean matchPatternStart(@NonNull final String[] pattern, @NonNull final String[] path) {
+        int patIdx = 0;
+        int strIdx = 0;
+        while (patIdx < pattern.length && strIdx < path.length) {
+            if (DEEP_TREE_MATCH.equals(pattern[patIdx])) return true;
+            if (!match(pattern[patIdx], path[strIdx])) return false;
+            patIdx++;
+            strIdx++;
+        }
+        // Path is exhausted or pattern now holds "**"
+        return strIdx >= path.length || patIdx < pattern.length;
+    }
+
+    protected static boolean matchPath(@NonNull final String[] pattern, @NonNull final String[] path) {
+        int patIdxStart = 0;
+        int patIdxEnd = pattern.length - 1;
+        int strIdxStart = 0;
+        int strIdxEnd = path.length - 1;
+
+        // Match elements up to first "**"
+        while (patIdxStart <= patIdxEnd && strIdxStart <= strIdxEnd) {
+            if (DEEP_TREE_MATCH.equals(pattern[patIdxStart])) break;
+            if (!match(pattern[patIdxStart], path[strIdxStart])) return false;
+            patIdxStart++;
+            strIdxStart++;
+        }
+        if (strIdxStart > strIdxEnd) return onlyDeepTreeMatches(pattern, patIdxStart, patIdxEnd);
+        if (patIdxStart > patIdxEnd) return false;
+
+        // Match elements from the end up to last "**"
+        while (patIdxStart <= patIdxEnd && strIdxStart <= strIdxEnd) {
+            if (DEEP_TREE_MATCH.equals(pattern[patIdxEnd])) break;
+            if (!match(pattern[patIdxEnd], path[strIdxEnd])) return false;
+            patIdxEnd--;
+            strIdxEnd--;
+        }
+        if (strIdxStart > strIdxEnd) return onlyDeepTreeMatches(pattern, patIdxStart, patIdxEnd);
+
+        // Match elements between "**" pairs
+        while (patIdxStart != patIdxEnd && strIdxStart <= strIdxEnd) {
+            int patIdxTmp = -1;
+            for (int i = patIdxStart + 1; i <= patIdxEnd; i++) {
+                if (DEEP_TREE_MATCH.equals(pattern[i])) {
+                    patIdxTmp = i;
+                    break;
+                }
+            }
+            if (patIdxTmp == patIdxStart + 1) {
+                // "**/**" situation, so skip one
+                patIdxStart++;
+                continue;
+            }
+            int patLength = patIdxTmp - patIdxStart - 1;
+            int strLength = strIdxEnd - strIdxStart + 1;
+            int foundIdx = -1;
+            strLoop:
+            for (int i = 0; i <= strLength - patLength; i++) {
+                for (int j = 0; j < patLength; j++) {
+                    if (!match(pattern[patIdxStart + j + 1], path[strIdxStart + i + j])) continue strLoop;
+                }
+                foundIdx = strIdxStart + i;
+                break;
+            }
+            if (-1 == foundIdx) return false;
+            patIdxStart = patIdxTmp;
+            strIdxStart = foundIdx + patLength;
+        }
+        return onlyDeepTreeMatches(pattern, patIdxStart, patIdxEnd);
+    }
+
+    private static boolean onlyDeepTreeMatches(@NonNull final String[] pattern, final int start, final int end) {
+        for (int i = start; i <= end; i++)
+            if (!DEEP_TREE_MATCH.equals(pattern[i])) return false;
+        return true;
+    }
+
+    /**
+     * Match single path element against pattern element that may contain "*" and "?" wildcards
+     */
+    protected static boolean match(@NonNull final String pattern, @NonNull final String str) {
+        int p = 0;
+        int s = 0;
+        int starIdx = -1;
+        int matchIdx = 0;
+        while (s < str.length()) {
+            if (p < pattern.length() && ('?' == pattern.charAt(p) || pattern.charAt(p) == str.charAt(s))) {
+                p++;
+                s++;
+            } else if (p < pattern.length() && '*' == pattern.charAt(p)) {
+                starIdx = p++;
+                matchIdx = s;
+            } else if (-1 != starIdx) {
+                p = starIdx + 1;
+                s = ++matchIdx;
+            } else
+                return false;
+        }
+        while (p < pattern.length() && '*' == pattern.charAt(p)) p++;
+        return p == pattern.length();
+    }
+}
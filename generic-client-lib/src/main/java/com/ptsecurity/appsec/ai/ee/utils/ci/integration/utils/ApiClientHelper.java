@@ -5,6 +5,8 @@ import com.ptsecurity.appsec.ai.ee.utils.ci.integration.domain.AdvancedSettings;
 import com.ptsecurity.appsec.ai.ee.utils.ci.integration.domain.ConnectionSettings;
 import lombok.NonNull;
 import lombok.SneakyThrows;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
 import okhttp3.OkHttpClient;
 import okhttp3.Protocol;
 import org.apache.commons.lang3.StringUtils;
@@ -18,9 +20,11 @@ import java.security.KeyStore;
 import java.security.SecureRandom;
 import java.security.cert.CertificateException;
 import java.security.cert.X509Certificate;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 import static org.joor.Reflect.on;
 
@@ -76,36 +80,62 @@ public class ApiClientHelper {
     }
 
     /**
-     * Initialize XxxApi's ApiClient: set up URL, timeouts, trusted
-     * certificate chains and jwt authentication class
+     * Create HTTP client that is shared by all the XxxApi's ApiClients of PT AI API client. Shared
+     * client allows to reuse connections, TLS sessions and JWT authenticator for all the APIs
+     * @param client from where to get timeouts, trusted certificate chains and connection pool settings
+     * @return HTTP client to derive XxxApi's HTTP clients from
+     */
+    @SneakyThrows
+    public static OkHttpClient createHttpClient(@NonNull final AbstractApiClient client) {
+        @NonNull ConnectionSettings connectionSettings = client.getConnectionSettings();
+        @NonNull AdvancedSettings settings = client.getAdvancedSettings();
+
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(settings.getInt(AdvancedSettings.SettingInfo.HTTP_DISPATCHER_MAX_REQUESTS));
+        dispatcher.setMaxRequestsPerHost(settings.getInt(AdvancedSettings.SettingInfo.HTTP_DISPATCHER_MAX_REQUESTS_PER_HOST));
+
+        OkHttpClient.Builder builder = new OkHttpClient.Builder()
+                .readTimeout(settings.getInt(AdvancedSettings.SettingInfo.HTTP_REQUEST_READ_TIMEOUT), TimeUnit.SECONDS)
+                .writeTimeout(settings.getInt(AdvancedSettings.SettingInfo.HTTP_REQUEST_WRITE_TIMEOUT), TimeUnit.SECONDS)
+                .connectionPool(new ConnectionPool(
+                        settings.getInt(AdvancedSettings.SettingInfo.HTTP_POOL_MAX_IDLE_CONNECTIONS),
+                        settings.getInt(AdvancedSettings.SettingInfo.HTTP_POOL_KEEP_ALIVE), TimeUnit.SECONDS))
+                .dispatcher(dispatcher)
+                .hostnameVerifier((hostname, session) -> true)
+                .authenticator(new JwtAuthenticator(client))
+                .addInterceptor(new LoggingInterceptor(settings));
+        // HTTP/2 is used only if server supports it, otherwise HTTP/1.1 is negotiated
+        builder.protocols(settings.getBoolean(AdvancedSettings.SettingInfo.HTTP_HTTP2)
+                ? Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1)
+                : Collections.singletonList(Protocol.HTTP_1_1));
+
+        X509TrustManager trustManager = createTrustManager(connectionSettings.getCaCertsPem(), connectionSettings.isInsecure());
+        if (null != trustManager) {
+            SSLContext sslContext = SSLContext.getInstance("TLS");
+            sslContext.init(null, new TrustManager[] { trustManager }, new SecureRandom());
+            builder.sslSocketFactory(sslContext.getSocketFactory(), trustManager);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Initialize XxxApi's ApiClient: set up URL and HTTP client that is derived
+     * from PT AI API client shared one, see {@link #createHttpClient(AbstractApiClient)}
      * @param client from where to get URL, timeouts etc. and whom APIs to init with these values
      */
     @SneakyThrows
     public static void initApiClient(@NonNull final AbstractApiClient client) {
         @NonNull ConnectionSettings connectionSettings = client.getConnectionSettings();
+        OkHttpClient httpClient = createHttpClient(client);
+        client.setHttpClient(httpClient);
 
         for (Object api : client.getApis()) {
-            // Set API client URL and timeout
-            ApiClientHelper helper = new ApiClientHelper(api)
-                    .setBasePath(connectionSettings.getUrl())
-                    .setReadTimeout(1000 * client.getAdvancedSettings().getInt(AdvancedSettings.SettingInfo.HTTP_REQUEST_READ_TIMEOUT))
-                    .setWriteTimeout(1000 * client.getAdvancedSettings().getInt(AdvancedSettings.SettingInfo.HTTP_REQUEST_WRITE_TIMEOUT));
-            // If custom certificates are defined, set API clients with those
-            if (null != client.getConnectionSettings().getCaCertsPem())
-                helper.setSslCaCert(CertificateHelper.cleanupCaPem(connectionSettings.getCaCertsPem()));
-
-            X509TrustManager trustManager = createTrustManager(connectionSettings.getCaCertsPem(), connectionSettings.isInsecure());
-
-            OkHttpClient.Builder builder = helper.getHttpClient().newBuilder()
-                    .hostnameVerifier((hostname, session) -> true)
-                    .authenticator(new JwtAuthenticator(client))
-                    .addInterceptor(new LoggingInterceptor(client.getAdvancedSettings()))
-                    .protocols(Collections.singletonList(Protocol.HTTP_1_1));
-            if (null != trustManager) {
-                SSLContext sslContext = SSLContext.getInstance("TLS");
-                sslContext.init(null, new TrustManager[] { trustManager }, new SecureRandom());
-                builder.sslSocketFactory(sslContext.getSocketFactory(), trustManager);
-            }
+            // Set API client URL
+            ApiClientHelper helper = new ApiClientHelper(api).setBasePath(connectionSettings.getUrl());
+            // Derived client shares connection pool, dispatcher and SSL settings. Keep
+            // generated ApiClient's network interceptors like download progress one
+            OkHttpClient.Builder builder = httpClient.newBuilder();
+            helper.getHttpClient().networkInterceptors().forEach(builder::addNetworkInterceptor);
             helper.setHttpClient(builder.build());
         }
     }
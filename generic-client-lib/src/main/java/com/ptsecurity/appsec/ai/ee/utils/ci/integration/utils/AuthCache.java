@@ -0,0 +1,229 @@
+package com.ptsecurity.appsec.ai.ee.utils.ci.integration.utils;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.ptsecurity.appsec.ai.ee.scan.result.ScanBrief;
+import com.ptsecurity.appsec.ai.ee.utils.ci.integration.domain.*;
+import com.ptsecurity.appsec.ai.ee.utils.ci.integration.utils.json.BaseJsonHelper;
+import lombok.*;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.*;
+import java.security.SecureRandom;
+import java.util.*;
+
+/**
+ * Persistent cache of PT AI server API versions and JWTs. As CLI is called several times
+ * during single build, cache allows subsequent calls to skip API client implementation
+ * probing and initial authentication. Cache entries are keyed by server URL and
+ * credentials HMAC that uses random key generated for every cache file, and cache file
+ * is readable by its owner only. Entries expire after time-to-live since API version
+ * detection, so server upgrade is detected even if JWT is refreshed all the time
+ */
+@Slf4j
+public class AuthCache {
+    public static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    /**
+     * Default cache entry time-to-live in seconds
+     */
+    public static final int DEFAULT_TTL = 24 * 60 * 60;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    public static class Entry {
+        @JsonProperty
+        protected ScanBrief.ApiVersion apiVersion;
+
+        @JsonProperty
+        protected JwtResponse jwt;
+
+        /**
+         * Time in milliseconds since epoch when API version was detected
+         */
+        @JsonProperty
+        protected long created;
+
+        public Entry(final ScanBrief.ApiVersion apiVersion, final JwtResponse jwt) {
+            this.apiVersion = apiVersion;
+            this.jwt = jwt;
+            this.created = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * Cache file contents: HMAC key and entries keyed by credentials HMAC
+     */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    protected static class Data {
+        @JsonProperty
+        protected byte[] key;
+
+        @JsonProperty
+        protected Map<String, Entry> entries = new HashMap<>();
+    }
+
+    /**
+     * Cache file
+     */
+    @Getter
+    @NonNull
+    protected final Path file;
+
+    /**
+     * Cache entry time-to-live in seconds
+     */
+    protected final int ttl;
+
+    public AuthCache(@NonNull final Path file) {
+        this(file, DEFAULT_TTL);
+    }
+
+    public AuthCache(@NonNull final Path file, final int ttl) {
+        this.file = file;
+        this.ttl = ttl;
+    }
+
+    /**
+     * @return Default cache file that is located in user home folder
+     */
+    public static Path defaultFile() {
+        return Paths.get(System.getProperty("user.home"), ".ptai", "auth-cache.json");
+    }
+
+    /**
+     * Calculate cache entry key. Credentials are hashed using HMAC so they are never stored
+     * as is, and as HMAC key is random, hashes can't be checked against precomputed ones
+     * @param secret HMAC key
+     */
+    protected static String key(@NonNull final byte[] secret, @NonNull final ConnectionSettings connectionSettings) {
+        StringBuilder data = new StringBuilder(StringUtils.removeEnd(connectionSettings.getUrl().trim(), "/"));
+        BaseCredentials credentials = connectionSettings.getCredentials();
+        if (credentials instanceof TokenCredentials)
+            data.append("\ntoken\n").append(((TokenCredentials) credentials).getToken());
+        else if (credentials instanceof PasswordCredentials)
+            data.append("\npassword\n")
+                    .append(((PasswordCredentials) credentials).getUser()).append("\n")
+                    .append(((PasswordCredentials) credentials).getPassword());
+        byte[] hmac = CallHelper.call(() -> {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(new SecretKeySpec(secret, HMAC_ALGORITHM));
+            return mac.doFinal(data.toString().getBytes(StandardCharsets.UTF_8));
+        }, "Authentication cache key calculation failed");
+        StringBuilder res = new StringBuilder();
+        for (byte b : hmac)
+            res.append(String.format("%02x", b));
+        return res.toString();
+    }
+
+    /**
+     * @return Cache entry or null if there's no entry or it is expired
+     */
+    public synchronized Entry get(@NonNull final ConnectionSettings connectionSettings) {
+        Data data = load();
+        Entry res = data.entries.get(key(data.key, connectionSettings));
+        if (null == res) return null;
+        if (System.currentTimeMillis() - res.created > ttl * 1000L) {
+            log.debug("Authentication cache entry expired");
+            return null;
+        }
+        return res;
+    }
+
+    /**
+     * Put entry to cache. If there's existing entry with the same API version, its creation
+     * time is kept, so JWT refresh doesn't extend API version time-to-live
+     */
+    public synchronized void put(@NonNull final ConnectionSettings connectionSettings, @NonNull final Entry entry) {
+        Data data = load();
+        String key = key(data.key, connectionSettings);
+        Entry existing = data.entries.get(key);
+        if (null != existing && existing.apiVersion == entry.apiVersion)
+            entry.created = Math.min(entry.created, existing.created);
+        data.entries.put(key, entry);
+        save(data);
+    }
+
+    public synchronized void remove(@NonNull final ConnectionSettings connectionSettings) {
+        Data data = load();
+        if (null == data.entries.remove(key(data.key, connectionSettings))) return;
+        save(data);
+    }
+
+    /**
+     * Load cache data. Missing or corrupted cache file is treated as empty one with new random key
+     */
+    protected Data load() {
+        Data res = null;
+        if (file.toFile().isFile()) {
+            res = CallHelper.call(
+                    () -> BaseJsonHelper.createObjectMapper().readValue(file.toFile(), Data.class),
+                    "Authentication cache load failed", true);
+            if (null == res) log.debug("Authentication cache {} load failed, ignore it", file);
+        }
+        if (null == res || null == res.key || 0 == res.key.length || null == res.entries) {
+            res = new Data();
+            res.key = new byte[32];
+            new SecureRandom().nextBytes(res.key);
+        }
+        return res;
+    }
+
+    /**
+     * Save cache entries to temporal file with restricted permissions and replace cache
+     * file with it. Save errors aren't critical as cache is optional
+     */
+    protected void save(@NonNull final Data data) {
+        Path temp = null;
+        try {
+            Path folder = file.toAbsolutePath().getParent();
+            if (!folder.toFile().isDirectory()) {
+                Files.createDirectories(folder);
+                restrict(folder, true);
+            }
+            temp = Files.createTempFile(folder, "auth-cache", ".tmp");
+            restrict(temp, false);
+            BaseJsonHelper.createObjectMapper().writeValue(temp.toFile(), data);
+            try {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            log.warn("Authentication cache {} save failed", file);
+            log.debug("Exception details", e);
+            if (null != temp) temp.toFile().delete();
+        }
+    }
+
+    /**
+     * Make file or folder accessible by its owner only
+     */
+    public static void restrict(@NonNull final Path path, final boolean folder) throws IOException {
+        PosixFileAttributeView view = Files.getFileAttributeView(path, PosixFileAttributeView.class);
+        if (null != view) {
+            view.setPermissions(PosixFilePermissions.fromString(folder ? "rwx------" : "rw-------"));
+            return;
+        }
+        // Non-POSIX file systems like NTFS: replace ACL with single entry that allows owner everything
+        AclFileAttributeView acl = Files.getFileAttributeView(path, AclFileAttributeView.class);
+        if (null == acl) {
+            log.debug("Failed to restrict {} permissions as file system supports neither POSIX nor ACL", path);
+            return;
+        }
+        AclEntry.Builder entry = AclEntry.newBuilder()
+                .setType(AclEntryType.ALLOW)
+                .setPrincipal(acl.getOwner())
+                .setPermissions(EnumSet.allOf(AclEntryPermission.class));
+        if (folder) entry.setFlags(AclEntryFlag.FILE_INHERIT, AclEntryFlag.DIRECTORY_INHERIT);
+        acl.setAcl(Collections.singletonList(entry.build()));
+    }
+}
@@ -7,6 +7,12 @@ import lombok.ToString;
 import lombok.experimental.SuperBuilder;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 @Slf4j
 @SuperBuilder
 @NoArgsConstructor
@@ -60,4 +66,114 @@ public class CallHelper {
             return null;
         }, errorMessage);
     }
+
+    @FunctionalInterface
+    public interface KeyedCallable<K, V> {
+        V call(K key) throws Throwable;
+    }
+
+    @FunctionalInterface
+    public interface Cleanup<V> {
+        void accept(V value) throws Throwable;
+    }
+
+    /**
+     * Call function for each key concurrently, i.e. to download localized data in parallel. Calls are
+     * made using {@link #callConcurrently(Collection, int, KeyedRunnable, String)}, so if one of calls
+     * failed, others are completed and results of successful ones are passed to cleanup function
+     * @param keys Keys that function is to be called for
+     * @param parallelism Maximum number of concurrent calls
+     * @param function Function to be called
+     * @param cleanup Function that releases call result, i.e. deletes downloaded temporary file, if other call failed
+     * @param errorMessage Generic error message if function call failed
+     * @param <K> Key type
+     * @param <V> Function return type
+     * @return Map of call results. Map iteration order is the same as keys one
+     * @throws GenericException Exception that wraps first failed call internal error
+     */
+    public static <K, V> Map<K, V> callConcurrently(
+            @NonNull final Collection<K> keys,
+            final int parallelism,
+            @NonNull final KeyedCallable<K, V> function,
+            @NonNull final Cleanup<V> cleanup,
+            @NonNull final String errorMessage) throws GenericException {
+        Map<K, V> results = Collections.synchronizedMap(new HashMap<>());
+        try {
+            callConcurrently(keys, parallelism, key -> results.put(key, function.call(key)), errorMessage);
+        } catch (GenericException e) {
+            synchronized (results) {
+                for (V value : results.values()) {
+                    if (null == value) continue;
+                    call(() -> {
+                        cleanup.accept(value);
+                        return null;
+                    }, "Concurrent call result cleanup failed", true);
+                }
+            }
+            throw e;
+        }
+        Map<K, V> res = new LinkedHashMap<>();
+        for (K key : keys) res.put(key, results.get(key));
+        return res;
+    }
+
+    @FunctionalInterface
+    public interface KeyedRunnable<K> {
+        void run(K key) throws Throwable;
+    }
+
+    /**
+     * Call function for each key using bounded thread pool and wait for all the calls
+     * to complete. Failed call doesn't cancel others, both in sequential and concurrent
+     * modes, so function is to process its expected errors itself
+     * @param keys Keys that function is to be called for
+     * @param parallelism Maximum number of concurrent calls. Value of 1 or less means
+     *                    sequential calls in current thread
+     * @param function Function to be called
+     * @param errorMessage Generic error message if function call failed
+     * @param <K> Key type
+     * @throws GenericException Exception that wraps first failed call internal error
+     */
+    public static <K> void callConcurrently(
+            @NonNull final Collection<K> keys,
+            final int parallelism,
+            @NonNull final KeyedRunnable<K> function,
+            @NonNull final String errorMessage) throws GenericException {
+        if (keys.isEmpty()) return;
+        if (1 >= parallelism || 1 == keys.size()) {
+            GenericException error = null;
+            for (K key : keys) {
+                try {
+                    call(() -> function.run(key), errorMessage);
+                } catch (GenericException e) {
+                    if (null == error) error = e;
+                }
+            }
+            if (null != error) throw error;
+            return;
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, keys.size()));
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (K key : keys)
+                futures.add(executor.submit(() -> call(() -> function.run(key), errorMessage)));
+            Throwable error = null;
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    if (null == error) error = e.getCause();
+                } catch (InterruptedException e) {
+                    futures.forEach(f -> f.cancel(true));
+                    Thread.currentThread().interrupt();
+                    throw GenericException.raise(errorMessage, e);
+                }
+            }
+            // Calls are wrapped by call helper already, so there's no need to wrap them again
+            if (error instanceof GenericException) throw (GenericException) error;
+            if (null != error) throw GenericException.raise(errorMessage, error);
+        } finally {
+            executor.shutdown();
+        }
+    }
 }
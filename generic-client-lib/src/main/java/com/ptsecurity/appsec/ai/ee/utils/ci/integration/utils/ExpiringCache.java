@@ -0,0 +1,99 @@
+package com.ptsecurity.appsec.ai.ee.utils.ci.integration.utils;
+
+import com.ptsecurity.appsec.ai.ee.utils.ci.integration.exceptions.GenericException;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Thread-safe cache for rarely changed PT AI server data like report templates list.
+ * Cached values expire after time-to-live interval. Concurrent requests for the same
+ * missing or expired key wait for single value load
+ * @param <K> Key type
+ * @param <V> Value type
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class ExpiringCache<K, V> {
+    /**
+     * Time-to-live in seconds. Zero or negative value disables caching
+     */
+    protected final long ttl;
+
+    /**
+     * Cached value that is being loaded or is already loaded
+     */
+    private static class Entry<V> {
+        protected final CompletableFuture<V> value = new CompletableFuture<>();
+
+        /**
+         * Expiration {@link System#nanoTime()} timestamp that is set when value is loaded
+         */
+        protected volatile long expiration;
+
+        protected boolean expired(final long now) {
+            return value.isDone() && expiration - now <= 0;
+        }
+    }
+
+    private final Map<K, Entry<V>> values = new ConcurrentHashMap<>();
+
+    /**
+     * Get cached value or load it if there's no cached one or it is expired. Value is loaded
+     * outside of map's lock, so load of one key doesn't block other keys and {@link #clear()}
+     * @param key Value key
+     * @param loader Function that loads value
+     * @return Cached or loaded value
+     */
+    public V get(@NonNull final K key, @NonNull final Supplier<V> loader) {
+        if (0 >= ttl) return loader.get();
+        Entry<V> entry = values.get(key);
+        if (null != entry && entry.expired(System.nanoTime())) {
+            values.remove(key, entry);
+            entry = null;
+        }
+        if (null == entry) {
+            Entry<V> created = new Entry<>();
+            entry = values.putIfAbsent(key, created);
+            if (null == entry) return load(key, created, loader);
+        }
+        try {
+            return entry.value.get();
+        } catch (ExecutionException e) {
+            throw GenericException.raise("Cached value load failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw GenericException.raise("Cached value load interrupted", e);
+        }
+    }
+
+    private V load(@NonNull final K key, @NonNull final Entry<V> entry, @NonNull final Supplier<V> loader) {
+        log.trace("Load {} value into cache", key);
+        V res;
+        try {
+            res = loader.get();
+        } catch (RuntimeException | Error e) {
+            // Failed load isn't cached, so next call will try again
+            values.remove(key, entry);
+            entry.value.completeExceptionally(e);
+            throw e;
+        }
+        entry.expiration = System.nanoTime() + TimeUnit.SECONDS.toNanos(ttl);
+        entry.value.complete(res);
+        return res;
+    }
+
+    /**
+     * Drop all cached values, i.e. if those are known to be outdated
+     */
+    public void clear() {
+        values.clear();
+    }
+}
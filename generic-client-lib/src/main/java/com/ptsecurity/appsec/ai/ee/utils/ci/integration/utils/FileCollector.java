@@ -3,6 +3,7 @@ package com.ptsecurity.appsec.ai.ee.utils.ci.integration.utils;
 import com.ptsecurity.appsec.ai.ee.scan.sources.Transfer;
 import com.ptsecurity.appsec.ai.ee.scan.sources.Transfers;
 import com.ptsecurity.appsec.ai.ee.utils.ci.integration.AbstractTool;
+import com.ptsecurity.appsec.ai.ee.utils.ci.integration.domain.AdvancedSettings;
 import com.ptsecurity.appsec.ai.ee.utils.ci.integration.exceptions.GenericException;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -10,25 +11,38 @@ import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.compress.archivers.ArchiveException;
-import org.apache.commons.compress.archivers.ArchiveOutputStream;
 import org.apache.commons.compress.archivers.ArchiveStreamFactory;
+import org.apache.commons.compress.archivers.zip.ScatterZipOutputStream;
 import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntryRequest;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
 import org.apache.commons.io.FilenameUtils;
-import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.output.CountingOutputStream;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.tools.ant.DirectoryScanner;
 import org.apache.tools.ant.Project;
 import org.apache.tools.ant.types.FileSet;
 
 import java.io.*;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.text.DecimalFormat;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Optional;
-import java.util.Set;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.RecursiveTask;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
 
+import static com.ptsecurity.appsec.ai.ee.utils.ci.integration.domain.AdvancedSettings.SettingInfo.FILE_COLLECTOR_ANT_SCANNER;
+import static com.ptsecurity.appsec.ai.ee.utils.ci.integration.domain.AdvancedSettings.SettingInfo.ZIP_COMPRESSION_LEVEL;
+import static com.ptsecurity.appsec.ai.ee.utils.ci.integration.domain.AdvancedSettings.SettingInfo.ZIP_STORED_EXTENSIONS;
+import static com.ptsecurity.appsec.ai.ee.utils.ci.integration.domain.AdvancedSettings.SettingInfo.ZIP_THREADS;
 import static com.ptsecurity.appsec.ai.ee.utils.ci.integration.utils.CallHelper.call;
 import static org.apache.commons.compress.archivers.ArchiveStreamFactory.ZIP;
 import static org.joor.Reflect.on;
@@ -84,16 +98,7 @@ public class FileCollector {
         return call(() -> {
             owner.fine("Create file collector");
             FileCollector collector = new FileCollector(transfers, owner);
-
-            if (!dir.exists() || !dir.canRead()) {
-                String reason = "Unknown problem with source folder " + dir.getAbsolutePath();
-                if (!dir.exists())
-                    reason = "Source folder " + dir.getAbsolutePath() + " does not exist";
-                else if (!dir.canRead())
-                    reason = "Source folder " + dir.getAbsolutePath() + " can not be read";
-                throw GenericException.raise("File collect failed", new IllegalArgumentException(reason));
-            } else
-                owner.info("Folder to collect files from is %s", dir.getAbsolutePath());
+            checkSourceFolder(dir, owner);
             owner.info("Sources will be zipped to %s", zip.getAbsolutePath());
             List<Entry> fileEntries = collector.collectFiles(dir);
             if (fileEntries.isEmpty())
@@ -104,6 +109,70 @@ public class FileCollector {
         }, "File collect failed");
     }
 
+    /**
+     * Collect files defined by transfers but do not pack them. Instead of this
+     * return request body that zips collected files directly into HTTP request
+     * stream, so no temporary archive is created and compression overlaps with
+     * upload
+     * @param transfers Defines what are the files to be zipped
+     * @param dir Folder where files to be zipped are located
+     * @param owner Tool that is used to output log messages
+     * @return Streaming request body that zips collected files on the fly
+     * @throws GenericException Exception that contains error details if file collection failed
+     */
+    public static ZipRequestBody stream(Transfers transfers, @NonNull final File dir, @NonNull AbstractTool owner) throws GenericException {
+        return call(() -> {
+            owner.fine("Create file collector");
+            FileCollector collector = new FileCollector(transfers, owner);
+            checkSourceFolder(dir, owner);
+            owner.info("Sources will be zipped directly to upload stream");
+            List<Entry> fileEntries = collector.collectFiles(dir);
+            if (fileEntries.isEmpty())
+                throw new IllegalArgumentException("No files are match defined transfer settings");
+            return new ZipRequestBody(collector, fileEntries);
+        }, "File collect failed");
+    }
+
+    /**
+     * Collect files defined by transfers and create manifest that contains their hashes.
+     * Collected files may be packed later using {@link SourcesManifest#zip()} or
+     * {@link SourcesManifest#stream()} without walking source tree again
+     * @param transfers Defines what are the files to be zipped
+     * @param dir Folder where files to be zipped are located
+     * @param owner Tool that is used to output log messages
+     * @param projectId PT AI project ID where sources are to be uploaded
+     * @param file File where manifest of last successful upload is stored
+     * @return Manifest of collected files
+     * @throws GenericException Exception that contains error details if file collection failed
+     */
+    public static SourcesManifest manifest(
+            Transfers transfers, @NonNull final File dir, @NonNull AbstractTool owner,
+            @NonNull final UUID projectId, @NonNull final Path file) throws GenericException {
+        owner.fine("Create file collector");
+        FileCollector collector = new FileCollector(transfers, owner);
+        checkSourceFolder(dir, owner);
+        List<Entry> fileEntries = collector.collectFiles(dir);
+        if (fileEntries.isEmpty())
+            throw GenericException.raise("File collect failed", new IllegalArgumentException("No files are match defined transfer settings"));
+        SourcesManifest res = SourcesManifest.create(projectId, fileEntries, file);
+        // Keep collected files so they are packed without second source tree walk
+        res.collector = collector;
+        res.entries = fileEntries;
+        return res;
+    }
+
+    private static void checkSourceFolder(@NonNull final File dir, @NonNull AbstractTool owner) throws GenericException {
+        if (!dir.exists() || !dir.canRead()) {
+            String reason = "Unknown problem with source folder " + dir.getAbsolutePath();
+            if (!dir.exists())
+                reason = "Source folder " + dir.getAbsolutePath() + " does not exist";
+            else if (!dir.canRead())
+                reason = "Source folder " + dir.getAbsolutePath() + " can not be read";
+            throw GenericException.raise("File collect failed", new IllegalArgumentException(reason));
+        } else
+            owner.info("Folder to collect files from is %s", dir.getAbsolutePath());
+    }
+
     private static final int MAX_DETAILS = 20;
 
     private void verboseCollectionDetails(String[] items, String prefix) {
@@ -139,6 +208,7 @@ public class FileCollector {
             transfers = new Transfers().addTransfer(new Transfer());
         }
 
+        AdvancedSettings settings = null == owner ? AdvancedSettings.getDefault() : owner.getAdvancedSettings();
         for (Transfer transfer : transfers) {
             // Normalize prefix
             String removePrefix = Optional.ofNullable(
@@ -150,60 +220,212 @@ public class FileCollector {
             verbose("Pattern separator = %s", transfer.getPatternSeparator().isEmpty() ? "[empty]" : transfer.getPatternSeparator());
             verbose("Remove prefix = %s", removePrefix.isEmpty() ? "[empty]" : removePrefix);
             verbose("Includes = %s", transfer.getIncludes().isEmpty() ? "[empty]" : transfer.getIncludes());
+            verbose("Excludes = %s", transfer.getExcludes().isEmpty() ? "[empty]" : transfer.getExcludes());
             verbose("Use default excludes = %s", transfer.isUseDefaultExcludes());
 
-            final FileSet fileSet = new FileSet();
-            if (dir.isDirectory())
-                fileSet.setDir(dir);
-            else
-                fileSet.setFile(dir);
-            fileSet.setProject(new Project());
-            if (null != transfer.getIncludes())
-                for (String pattern : transfer.getIncludes().split(transfer.getPatternSeparator())) {
-                    fileSet.createInclude().setName(pattern);
-                    verbose("Include pattern = %s", pattern);
-                }
-            verbose("Excludes = %s", transfer.getExcludes().isEmpty() ? "[empty]" : transfer.getExcludes());
-            if (null != transfer.getExcludes())
-                for (String pattern : transfer.getExcludes().split(transfer.getPatternSeparator())) {
-                    fileSet.createExclude().setName(pattern);
-                    verbose("Exclude pattern = %s", pattern);
-                }
-            fileSet.setDefaultexcludes(transfer.isUseDefaultExcludes());
-            String[] dirs = fileSet.getDirectoryScanner().getIncludedDirectories();
-            String[] files = fileSet.getDirectoryScanner().getIncludedFiles();
-            verboseCollectionDetails(files, "Included files");
-            verboseCollectionDetails(getScannedDirs(fileSet.getDirectoryScanner()), "Scanned dirs");
-            verboseCollectionDetails(fileSet.getDirectoryScanner().getNotIncludedFiles(), "Not included files");
-            verboseCollectionDetails(fileSet.getDirectoryScanner().getDeselectedFiles(), "Deselected files");
-            verboseCollectionDetails(fileSet.getDirectoryScanner().getExcludedFiles(), "Excluded files");
-            // files is an array of this.srcDir - relative paths to files
+            List<String> includes = patterns(transfer.getIncludes(), transfer.getPatternSeparator());
+            List<String> excludes = patterns(transfer.getExcludes(), transfer.getPatternSeparator());
+            includes.forEach(pattern -> verbose("Include pattern = %s", pattern));
+            excludes.forEach(pattern -> verbose("Exclude pattern = %s", pattern));
+
+            // Walker doesn't support absolute patterns and single file as a source
+            boolean useAnt = settings.getBoolean(FILE_COLLECTOR_ANT_SCANNER) || !dir.isDirectory()
+                    || includes.stream().anyMatch(AntPatternMatcher::isAbsolute)
+                    || excludes.stream().anyMatch(AntPatternMatcher::isAbsolute);
+            List<Item> items = useAnt
+                    ? scan(dir, transfer, includes, excludes)
+                    : walk(dir, transfer, includes, excludes);
             Path parentFolder = dir.isDirectory() ? dir.toPath() : dir.getParentFile().toPath();
-            for (int i = 0 ; i < 2 ; i++) {
-                // Add all the folders then files
-                String[] items = 0 == i ? dirs : files;
-                for (String item : items) {
-                    // Normalize relative path
-                    Path itemPath = parentFolder.resolve(item);
-                    String relativePath = itemPath.toUri().normalize().getPath();
-                    relativePath = StringUtils.removeStart(relativePath, parentFolder.toUri().normalize().getPath());
-                    String entryName;
-                    if (transfer.isFlatten()) {
-                        if (0 == i) continue;
-                        entryName = itemPath.getFileName().toString();
-                    } else {
-                        if (!relativePath.startsWith(removePrefix))
-                            throw GenericException.raise("File collect failed", new IllegalArgumentException(String.format("File's %s does not starts with prefix %s", item, removePrefix)));
-                        entryName = StringUtils.removeStart(relativePath, removePrefix);
-                    }
-                    verbose("File %s will be added as %s", itemPath.toString(), entryName);
-                    res.add(new Entry(itemPath, entryName));
+            for (Item item : items) {
+                String entryName;
+                if (transfer.isFlatten()) {
+                    if (item.directory) continue;
+                    entryName = item.path.getFileName().toString();
+                } else {
+                    if (!item.relativePath.startsWith(removePrefix))
+                        throw GenericException.raise("File collect failed", new IllegalArgumentException(String.format("File's %s does not starts with prefix %s", parentFolder.relativize(item.path), removePrefix)));
+                    entryName = StringUtils.removeStart(item.relativePath, removePrefix);
                 }
+                verbose("File %s will be added as %s", item.path.toString(), entryName);
+                res.add(new Entry(item.path, entryName));
             }
         }
         return res;
     }
 
+    private static List<String> patterns(final String patterns, @NonNull final String separator) {
+        List<String> res = new ArrayList<>();
+        if (null == patterns) return res;
+        for (String pattern : patterns.split(separator))
+            if (!pattern.isEmpty()) res.add(pattern);
+        return res;
+    }
+
+    /**
+     * Collected file or folder
+     */
+    @AllArgsConstructor
+    private static class Item {
+        /**
+         * Absolute path
+         */
+        private final Path path;
+        /**
+         * Path relative to source folder where elements are separated using "/". Folder's
+         * relative path ends with "/"
+         */
+        private final String relativePath;
+        private final boolean directory;
+    }
+
+    /**
+     * Collect files using Ant directory scanner
+     * @return List of included folders followed by included files
+     */
+    private List<Item> scan(@NonNull final File dir, @NonNull final Transfer transfer, final List<String> includes, final List<String> excludes) {
+        final FileSet fileSet = new FileSet();
+        if (dir.isDirectory())
+            fileSet.setDir(dir);
+        else
+            fileSet.setFile(dir);
+        fileSet.setProject(new Project());
+        for (String pattern : includes)
+            fileSet.createInclude().setName(pattern);
+        for (String pattern : excludes)
+            fileSet.createExclude().setName(pattern);
+        fileSet.setDefaultexcludes(transfer.isUseDefaultExcludes());
+        DirectoryScanner scanner = fileSet.getDirectoryScanner();
+        String[] dirs = scanner.getIncludedDirectories();
+        String[] files = scanner.getIncludedFiles();
+        verboseCollectionDetails(files, "Included files");
+        verboseCollectionDetails(getScannedDirs(scanner), "Scanned dirs");
+        verboseCollectionDetails(scanner.getNotIncludedFiles(), "Not included files");
+        verboseCollectionDetails(scanner.getDeselectedFiles(), "Deselected files");
+        verboseCollectionDetails(scanner.getExcludedFiles(), "Excluded files");
+        // files is an array of this.srcDir - relative paths to files
+        Path parentFolder = dir.isDirectory() ? dir.toPath() : dir.getParentFile().toPath();
+        List<Item> res = new ArrayList<>();
+        for (int i = 0 ; i < 2 ; i++) {
+            // Add all the folders then files
+            String[] items = 0 == i ? dirs : files;
+            for (String item : items) {
+                // Normalize relative path
+                Path itemPath = parentFolder.resolve(item);
+                String relativePath = itemPath.toUri().normalize().getPath();
+                relativePath = StringUtils.removeStart(relativePath, parentFolder.toUri().normalize().getPath());
+                res.add(new Item(itemPath, relativePath, 0 == i));
+            }
+        }
+        return res;
+    }
+
+    /**
+     * Collect files using parallel NIO walker. Include and exclude patterns are compiled
+     * once, folders that can't contain included files are not walked. Result is the same
+     * as Ant scanner returns: folders are walked depth-first in directory listing order
+     * @return List of included folders followed by included files
+     */
+    private List<Item> walk(@NonNull final File dir, @NonNull final Transfer transfer, final List<String> includes, final List<String> excludes) throws GenericException {
+        List<String> allExcludes = new ArrayList<>(excludes);
+        if (transfer.isUseDefaultExcludes()) allExcludes.addAll(Arrays.asList(defaultExcludes()));
+        AntPatternMatcher matcher = new AntPatternMatcher(includes, allExcludes);
+
+        Path root = dir.toPath();
+        WalkResult result = new WalkResult();
+        // Ant checks source folder itself too
+        String[] rootTokens = new String[0];
+        if (matcher.isIncluded(rootTokens) && !matcher.isExcluded(rootTokens))
+            result.dirs.add(new Item(root, "", true));
+        if (matcher.couldHoldIncluded(rootTokens) && !matcher.contentsExcluded(rootTokens)) {
+            Set<Path> ancestors = new HashSet<>();
+            ancestors.add(call(() -> root.toRealPath(), "Source folder real path read failed"));
+            result.append(ForkJoinPool.commonPool().invoke(new WalkTask(matcher, root, rootTokens, ancestors)));
+        }
+        verboseCollectionDetails(result.files.stream().map(i -> i.relativePath).toArray(String[]::new), "Included files");
+        verboseCollectionDetails(result.dirs.stream().map(i -> i.relativePath).toArray(String[]::new), "Included dirs");
+
+        List<Item> res = new ArrayList<>(result.dirs);
+        res.addAll(result.files);
+        return res;
+    }
+
+    private static class WalkResult {
+        private final List<Item> dirs = new ArrayList<>();
+        private final List<Item> files = new ArrayList<>();
+
+        private void append(@NonNull final WalkResult other) {
+            dirs.addAll(other.dirs);
+            files.addAll(other.files);
+        }
+    }
+
+    @RequiredArgsConstructor
+    private class WalkTask extends RecursiveTask<WalkResult> {
+        private final AntPatternMatcher matcher;
+        private final Path folder;
+        private final String[] tokens;
+        /**
+         * Real paths of folders being walked. Used to avoid symbolic link loops
+         */
+        private final Set<Path> ancestors;
+
+        @Override
+        protected WalkResult compute() {
+            // Folder's content items in listing order: file / folder Item or WalkTask
+            List<Object> content = new ArrayList<>();
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(folder)) {
+                for (Path child : stream) {
+                    String name = child.getFileName().toString();
+                    String[] childTokens = Arrays.copyOf(tokens, tokens.length + 1);
+                    childTokens[tokens.length] = name;
+                    String relativePath = String.join("/", childTokens);
+                    boolean included = matcher.isIncluded(childTokens) && !matcher.isExcluded(childTokens);
+                    if (!Files.isDirectory(child)) {
+                        if (included) content.add(new Item(child, relativePath, false));
+                        continue;
+                    }
+                    if (included) content.add(new Item(child, relativePath + "/", true));
+                    if (!matcher.couldHoldIncluded(childTokens) || matcher.contentsExcluded(childTokens)) continue;
+                    Set<Path> childAncestors = ancestors;
+                    if (Files.isSymbolicLink(child)) {
+                        Path real = realPath(child);
+                        if (null == real || ancestors.contains(real)) {
+                            verbose("Skip %s as it is a symbolic link loop or its target can't be read", child);
+                            continue;
+                        }
+                        childAncestors = new HashSet<>(ancestors);
+                        childAncestors.add(real);
+                    }
+                    WalkTask task = new WalkTask(matcher, child, childTokens, childAncestors);
+                    task.fork();
+                    content.add(task);
+                }
+            } catch (IOException e) {
+                log.debug("Folder {} walk failed", folder, e);
+                verbose("Skip %s as it can't be read", folder);
+            }
+            WalkResult res = new WalkResult();
+            for (Object item : content) {
+                if (item instanceof WalkTask)
+                    res.append(((WalkTask) item).join());
+                else if (((Item) item).directory)
+                    res.dirs.add((Item) item);
+                else
+                    res.files.add((Item) item);
+            }
+            return res;
+        }
+
+        private Path realPath(@NonNull final Path path) {
+            try {
+                return path.toRealPath();
+            } catch (IOException e) {
+                log.debug("Symbolic link {} real path read failed", path, e);
+                return null;
+            }
+        }
+    }
+
     /*
     There's no need to create multipart Zip-archive during this stage as technically such an archive
     is a single-part archive splitted after creation. That may be checked by opening zip parts starting
@@ -215,7 +437,7 @@ public class FileCollector {
     ZipParameter.setFileNameInZip, but there's no way to pass array of ZipParameters into createSplitZipFile
     method.
      */
-    private void packCollectedFiles(@NonNull final File zip, final List<Entry> files) throws IOException, ArchiveException {
+    void packCollectedFiles(@NonNull final File zip, final List<Entry> files) throws IOException, ArchiveException {
         verbose("Pack collected files to %s", zip.getAbsolutePath());
         File destDir = zip.getParentFile();
 
@@ -223,12 +445,51 @@ public class FileCollector {
             verbose("Destination folder %s doesn't exist, creating", destDir.getAbsolutePath());
             destDir.mkdirs();
         }
-        OutputStream zfs = new FileOutputStream(zip);
-        ArchiveOutputStream as = new ArchiveStreamFactory().createArchiveOutputStream(ZIP, zfs);
+        try (OutputStream zfs = new FileOutputStream(zip)) {
+            packCollectedFiles(zfs, files);
+        }
+    }
+
+    /**
+     * Zip collected files into output stream. Stream is finished but not closed
+     * as it may be owned by caller, i.e. it may be an HTTP request body sink
+     * @param out Stream where zipped data are to be written
+     * @param files Files to be zipped
+     */
+    void packCollectedFiles(@NonNull final OutputStream out, final List<Entry> files) throws IOException, ArchiveException {
+        AdvancedSettings settings = null == owner ? AdvancedSettings.getDefault() : owner.getAdvancedSettings();
+        int threads = settings.getInt(ZIP_THREADS);
+        if (0 >= threads) threads = Runtime.getRuntime().availableProcessors();
+        int level = settings.getInt(ZIP_COMPRESSION_LEVEL);
+        if (Deflater.DEFAULT_COMPRESSION > level || Deflater.BEST_COMPRESSION < level) {
+            log.warn("Invalid compression level {}, default one will be used", level);
+            level = Deflater.DEFAULT_COMPRESSION;
+        }
+
+        CountingOutputStream counter = new CountingOutputStream(out);
+        ZipArchiveOutputStream as = (ZipArchiveOutputStream) new ArchiveStreamFactory().createArchiveOutputStream(ZIP, counter);
+        as.setLevel(level);
         verbose("Zip stream created");
 
+        Set<String> stored = new HashSet<>(patterns(settings.getString(ZIP_STORED_EXTENSIONS).toLowerCase(), "[, ]+"));
+
+        long started = System.nanoTime();
+        List<Entry> existing = skipBrokenSymlinks(files);
+        long size = (1 == threads || 1 >= existing.size())
+                ? packSequentially(as, existing, stored)
+                : packInParallel(as, existing, threads, level, stored);
+        verbose("Closing zip stream");
+        as.finish();
+        counter.flush();
+
+        double seconds = Math.max(System.nanoTime() - started, 1) / 1e9d;
+        verbose("%s of sources zipped to %s in %.1f s (%.1f MB/s) using %d thread(s)",
+                bytesToString(size), bytesToString(counter.getByteCount()), seconds, size / seconds / (1024 * 1024), threads);
+    }
+
+    private List<Entry> skipBrokenSymlinks(final List<Entry> files) throws IOException {
+        List<Entry> res = new ArrayList<>();
         for (Entry entry : files) {
-            verbose("Add %s file as %s to zip stream", entry.path, entry.entryName);
             // Check if this is symlink with missing destination
             if (Files.isSymbolicLink(entry.path)) {
                 verbose("%s is a symbolic link, let's check if its destination exist", entry.path);
@@ -237,20 +498,173 @@ public class FileCollector {
                     continue;
                 }
             }
+            res.add(entry);
+        }
+        return res;
+    }
 
+    /**
+     * @param path File to check
+     * @param stored Set of lowercase extensions of files that are already compressed
+     * @return True if file is to be stored in archive without compression
+     */
+    private static boolean isStored(@NonNull final Path path, @NonNull final Set<String> stored) {
+        return !stored.isEmpty() && stored.contains(FilenameUtils.getExtension(path.getFileName().toString()).toLowerCase());
+    }
+
+    private long packSequentially(@NonNull final ZipArchiveOutputStream as, final List<Entry> files, final Set<String> stored) throws IOException {
+        long total = 0;
+        for (Entry entry : files) {
+            verbose("Add %s file as %s to zip stream", entry.path, entry.entryName);
+            boolean directory = Files.isDirectory(entry.path);
+            if (!directory && isStored(entry.path, stored)) {
+                total += store(as, entry);
+                verbose("File %s added as %s", entry.path, entry.entryName);
+                continue;
+            }
             as.putArchiveEntry(new ZipArchiveEntry(entry.entryName));
-            if (!Files.isDirectory(entry.path)) {
-                BufferedInputStream is = new BufferedInputStream(new FileInputStream(entry.path.toFile()));
-                int size = IOUtils.copy(is, as);
+            if (!directory) {
+                long size = FileCopier.copy(entry.path, as);
                 verbose("%s zipped", bytesToString(size));
-                is.close();
+                total += size;
             }
             as.closeArchiveEntry();
             verbose("File %s added as %s", entry.path, entry.entryName);
         }
-        verbose("Closing zip stream");
-        as.finish();
-        zfs.close();
+        return total;
+    }
+
+    /**
+     * Add STORED entry to zip stream. Zip stream may be not seekable, so STORED entry size
+     * and checksum must be set before data is written. Checksum is calculated by separate
+     * read-only pass, so already compressed files aren't written to disk twice. If file is
+     * changed between passes, zip stream fails on checksum mismatch
+     * @return Number of bytes stored
+     */
+    private long store(@NonNull final ZipArchiveOutputStream as, @NonNull final Entry entry) throws IOException {
+        CRC32 crc = new CRC32();
+        long size = FileCopier.read(entry.path, (data, length) -> crc.update(data, 0, length));
+        ZipArchiveEntry zipEntry = new ZipArchiveEntry(entry.entryName);
+        zipEntry.setMethod(ZipEntry.STORED);
+        zipEntry.setSize(size);
+        zipEntry.setCrc(crc.getValue());
+        as.putArchiveEntry(zipEntry);
+        FileCopier.copy(entry.path, as);
+        as.closeArchiveEntry();
+        verbose("%s stored", bytesToString(size));
+        return size;
+    }
+
+    /**
+     * Number of chunks per compression thread. Chunks are compressed independently,
+     * so having more chunks than threads helps to balance threads load
+     */
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    /**
+     * Compress files using multiple threads. Files are split into ordered chunks of
+     * approximately the same size, every chunk is compressed into its own temporary
+     * scatter stream and then chunks are gathered into resulting archive in original
+     * order, so archive entries order does not depend on threads scheduling. At most
+     * threads + 1 chunks are compressed or wait to be gathered at any moment
+     */
+    private long packInParallel(@NonNull final ZipArchiveOutputStream as, final List<Entry> files, final int threads, final int level, final Set<String> stored) throws IOException {
+        long total = 0;
+        long[] sizes = new long[files.size()];
+        for (int i = 0 ; i < files.size() ; i++) {
+            sizes[i] = Files.isDirectory(files.get(i).path) ? 0 : Files.size(files.get(i).path);
+            total += sizes[i];
+        }
+        List<List<Entry>> chunks = new ArrayList<>();
+        long chunkSizeLimit = Math.max(total / ((long) threads * CHUNKS_PER_THREAD), 1);
+        List<Entry> chunk = new ArrayList<>();
+        long chunkSize = 0;
+        for (int i = 0 ; i < files.size() ; i++) {
+            chunk.add(files.get(i));
+            chunkSize += sizes[i];
+            if (chunkSize < chunkSizeLimit) continue;
+            chunks.add(chunk);
+            chunk = new ArrayList<>();
+            chunkSize = 0;
+        }
+        if (!chunk.isEmpty()) chunks.add(chunk);
+        verbose("Sources split into %d chunks to be zipped using %d threads", chunks.size(), threads);
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        // Number of chunks that are compressed or wait to be gathered. Chunk is submitted for
+        // compression only when previous one is gathered, so temporary scatter files never
+        // hold whole compressed archive. That is important for streaming upload
+        int window = threads + 1;
+        List<Future<ScatterZipOutputStream>> scatters = new ArrayList<>();
+        int gathered = 0;
+        try {
+            while (gathered < chunks.size()) {
+                while (scatters.size() < chunks.size() && scatters.size() < gathered + window) {
+                    List<Entry> item = chunks.get(scatters.size());
+                    scatters.add(executor.submit(() -> {
+                        ScatterZipOutputStream scatter = scatter(item, level, stored);
+                        // Result of cancelled task is never retrieved, so remove its temporary file here
+                        if (Thread.currentThread().isInterrupted()) {
+                            scatter.close();
+                            throw new InterruptedIOException("Sources chunk compression cancelled");
+                        }
+                        return scatter;
+                    }));
+                }
+                try (ScatterZipOutputStream scatter = scatters.get(gathered).get()) {
+                    scatter.writeTo(as);
+                    gathered++;
+                    verbose("Chunk %d of %d added to zip stream", gathered, chunks.size());
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    if (cause instanceof UncheckedIOException) cause = cause.getCause();
+                    if (cause instanceof IOException) throw (IOException) cause;
+                    throw new IOException(cause);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Sources compression interrupted");
+                }
+            }
+        } finally {
+            // Queued tasks are dropped by shutdownNow and their futures never complete, so
+            // cancel all the chunks that weren't gathered and don't wait for them
+            for (int i = gathered ; i < scatters.size() ; i++) scatters.get(i).cancel(true);
+            executor.shutdownNow();
+            // Remove temporary scatter files of chunks that were compressed but weren't gathered due to error
+            for (int i = gathered ; i < scatters.size() ; i++) {
+                Future<ScatterZipOutputStream> future = scatters.get(i);
+                if (!future.isDone() || future.isCancelled()) continue;
+                try {
+                    future.get().close();
+                } catch (Exception ignored) {
+                }
+            }
+        }
+        return total;
+    }
+
+    private ScatterZipOutputStream scatter(final List<Entry> files, final int level, final Set<String> stored) throws IOException {
+        File file = File.createTempFile("ptai-scatter-", ".tmp");
+        ScatterZipOutputStream scatter = ScatterZipOutputStream.fileBased(file, level);
+        try {
+            for (Entry entry : files) {
+                ZipArchiveEntry zipEntry = new ZipArchiveEntry(entry.entryName);
+                boolean directory = Files.isDirectory(entry.path);
+                zipEntry.setMethod(directory || isStored(entry.path, stored) ? ZipEntry.STORED : ZipEntry.DEFLATED);
+                scatter.addArchiveEntry(ZipArchiveEntryRequest.createZipArchiveEntryRequest(zipEntry, () -> {
+                    if (directory) return new ByteArrayInputStream(new byte[0]);
+                    try {
+                        return FileCopier.open(entry.path);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }));
+            }
+        } catch (IOException | UncheckedIOException e) {
+            scatter.close();
+            throw e;
+        }
+        return scatter;
     }
 
     private static final double LOG1024 = Math.log10(1024);
@@ -0,0 +1,82 @@
+package com.ptsecurity.appsec.ai.ee.utils.ci.integration.utils;
+
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * FileChannel-based file reader that is used to pack sources. Files are read using
+ * per-thread pooled direct buffer, so there's no per-file buffers allocation. As
+ * Deflater in Java 8 accepts byte arrays only, data are passed to consumer using
+ * per-thread pooled array. Memory mapping isn't used: mapped data would be copied
+ * to that array anyway, and mapped regions can't be explicitly unmapped in Java 8,
+ * so files would stay locked on Windows until buffers are garbage collected
+ */
+@Slf4j
+public class FileCopier {
+    protected static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final ThreadLocal<ByteBuffer> DIRECT_BUFFER = ThreadLocal.withInitial(() -> ByteBuffer.allocateDirect(BUFFER_SIZE));
+
+    private static final ThreadLocal<byte[]> ARRAY = ThreadLocal.withInitial(() -> new byte[BUFFER_SIZE]);
+
+    @FunctionalInterface
+    public interface Consumer {
+        void accept(byte[] data, int length) throws IOException;
+    }
+
+    /**
+     * Read file and pass its data to consumer chunk by chunk
+     * @param path File to read
+     * @param consumer Data consumer
+     * @return Number of bytes read
+     */
+    public static long read(@NonNull final Path path, @NonNull final Consumer consumer) throws IOException {
+        byte[] array = ARRAY.get();
+        long total = 0;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer buffer = DIRECT_BUFFER.get();
+            buffer.clear();
+            while (-1 != channel.read(buffer)) {
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    int length = Math.min(array.length, buffer.remaining());
+                    buffer.get(array, 0, length);
+                    consumer.accept(array, length);
+                    total += length;
+                }
+                buffer.clear();
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Copy file contents to output stream
+     * @param path File to copy
+     * @param out Stream where file data is to be written
+     * @return Number of bytes copied
+     */
+    public static long copy(@NonNull final Path path, @NonNull final OutputStream out) throws IOException {
+        return read(path, (data, length) -> out.write(data, 0, length));
+    }
+
+    /**
+     * Open file input stream. Stream is backed by file channel so
+     * there's no extra FileInputStream's native buffer copy
+     * @param path File to open
+     * @return File input stream
+     */
+    public static InputStream open(@NonNull final Path path) throws IOException {
+        return new BufferedInputStream(Channels.newInputStream(FileChannel.open(path, StandardOpenOption.READ)), BUFFER_SIZE);
+    }
+}
@@ -0,0 +1,149 @@
+package com.ptsecurity.appsec.ai.ee.utils.ci.integration.utils;
+
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.*;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.time.Instant;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Streaming reader for PT AI issues model JSON file. Issues model consists of descriptions
+ * and metadatas maps and issues list. The reader deserializes descriptions and metadatas
+ * entries one by one and passes them to consumers, then streams issues to issue consumer
+ * so issues list is never kept in memory as a whole. As issue conversion requires
+ * descriptions and metadatas to be known, issues that precede those in JSON are skipped
+ * during first pass and are read during second one
+ * @param <D> Issue description model class
+ * @param <M> Issue metadata class
+ * @param <I> Issue class
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class IssuesModelReader<D, M, I> {
+    public static final String DESCRIPTIONS = "descriptions";
+    public static final String METADATAS = "metadatas";
+    public static final String ISSUES = "issues";
+
+    @FunctionalInterface
+    public interface Consumer<T> {
+        void accept(T value) throws Exception;
+    }
+
+    /**
+     * Gson instance that knows how to deserialize polymorphic issues and metadatas
+     */
+    @NonNull
+    private final Gson gson;
+
+    @NonNull
+    private final Class<D> descriptionClass;
+
+    @NonNull
+    private final Class<M> metadataClass;
+
+    @NonNull
+    private final Class<I> issueClass;
+
+    /**
+     * Read issue descriptions only. Metadatas and issues are skipped
+     * @param data Issues model JSON file
+     * @param descriptions Description consumer
+     */
+    public void readDescriptions(@NonNull final File data, @NonNull final Consumer<D> descriptions) throws Exception {
+        pass(data, descriptions, null, null);
+    }
+
+    /**
+     * Read issues model
+     * @param data Issues model JSON file
+     * @param descriptions Description consumer
+     * @param metadatas Metadata consumer
+     * @param issues Issue consumer. Called after all descriptions and metadatas are passed to their consumers
+     */
+    public void read(
+            @NonNull final File data,
+            @NonNull final Consumer<D> descriptions,
+            @NonNull final Consumer<M> metadatas,
+            @NonNull final Consumer<I> issues) throws Exception {
+        MemoryUsage usage = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+        log.debug("JVM heap memory use before parse {} / {}", FileCollector.bytesToString(usage.getUsed()), FileCollector.bytesToString(usage.getMax()));
+        log.debug("Parse started at {}", Instant.now());
+        if (!pass(data, descriptions, metadatas, issues)) {
+            log.debug("Issues precede descriptions or metadatas, second pass required");
+            pass(data, null, null, issues);
+        }
+        log.debug("Parse finished at {}", Instant.now());
+        usage = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+        log.debug("JVM heap memory use after parse {} / {}", FileCollector.bytesToString(usage.getUsed()), FileCollector.bytesToString(usage.getMax()));
+    }
+
+    /**
+     * Single pass through issues model file
+     * @return False if issues were skipped as they precede descriptions or metadatas
+     */
+    protected boolean pass(
+            @NonNull final File data,
+            final Consumer<D> descriptions,
+            final Consumer<M> metadatas,
+            final Consumer<I> issues) throws Exception {
+        boolean descriptionsRead = null == descriptions;
+        boolean metadatasRead = null == metadatas;
+        boolean issuesSkipped = false;
+        try (JsonReader reader = new JsonReader(new BufferedReader(new InputStreamReader(new FileInputStream(data), UTF_8)))) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                // JSON report may use "Descriptions" while IssuesModel have "descriptions"
+                String name = reader.nextName();
+                if (DESCRIPTIONS.equalsIgnoreCase(name) && null != descriptions) {
+                    readMap(reader, descriptionClass, descriptions);
+                    descriptionsRead = true;
+                } else if (METADATAS.equalsIgnoreCase(name) && null != metadatas) {
+                    readMap(reader, metadataClass, metadatas);
+                    metadatasRead = true;
+                } else if (ISSUES.equalsIgnoreCase(name) && null != issues && descriptionsRead && metadatasRead) {
+                    readArray(reader, issueClass, issues);
+                } else {
+                    if (ISSUES.equalsIgnoreCase(name) && null != issues) issuesSkipped = true;
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+        }
+        return !issuesSkipped;
+    }
+
+    protected <T> void readMap(@NonNull final JsonReader reader, @NonNull final Class<T> clazz, @NonNull final Consumer<T> consumer) throws Exception {
+        if (JsonToken.NULL == reader.peek()) {
+            reader.nextNull();
+            return;
+        }
+        reader.beginObject();
+        while (reader.hasNext()) {
+            reader.nextName();
+            T value = gson.fromJson(reader, clazz);
+            if (null != value) consumer.accept(value);
+        }
+        reader.endObject();
+    }
+
+    protected <T> void readArray(@NonNull final JsonReader reader, @NonNull final Class<T> clazz, @NonNull final Consumer<T> consumer) throws Exception {
+        if (JsonToken.NULL == reader.peek()) {
+            reader.nextNull();
+            return;
+        }
+        reader.beginArray();
+        while (reader.hasNext()) {
+            T value = gson.fromJson(reader, clazz);
+            if (null != value) consumer.accept(value);
+        }
+        reader.endArray();
+    }
+}
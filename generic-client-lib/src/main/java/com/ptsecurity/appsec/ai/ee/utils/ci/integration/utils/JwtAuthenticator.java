@@ -2,6 +2,7 @@ package com.ptsecurity.appsec.ai.ee.utils.ci.integration.utils;
 
 import com.ptsecurity.appsec.ai.ee.utils.ci.integration.AbstractTool;
 import com.ptsecurity.appsec.ai.ee.utils.ci.integration.api.AbstractApiClient;
+import com.ptsecurity.appsec.ai.ee.utils.ci.integration.domain.JwtResponse;
 import com.ptsecurity.appsec.ai.ee.utils.ci.integration.exceptions.GenericException;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
@@ -29,12 +30,10 @@ public class JwtAuthenticator extends AbstractTool implements Authenticator {
     protected final AbstractApiClient client;
 
     /**
-     * Mutex that prevents from calling authenticate from multiple threads
-     */
-    private final Object mutex = new Object();
-
-    /**
-     * Authenticate failed API request using JWT scheme
+     * Authenticate failed API request using JWT scheme. As {@link JwtRefresher} renews JWT
+     * in background, this is a fallback for tokens that were expired or revoked unexpectedly.
+     * Concurrent failed requests do not stampede PT AI server with refresh calls: first
+     * of them refreshes JWT and others just resend their requests with new token
      * @param route
      * @param response Response from server
      * @return Modified API request with JWT access token in Authorization header
@@ -42,31 +41,32 @@ public class JwtAuthenticator extends AbstractTool implements Authenticator {
      */
     @Override
     public Request authenticate(Route route, @NonNull Response response) throws IOException {
+        if (null != response.priorResponse()) {
+            log.error("Unauthorized even after JWT refresh");
+            return null;
+        }
+        String auth = response.header("WWW-Authenticate");
+        if (StringUtils.isEmpty(auth) || !auth.startsWith("Bearer")) {
+            log.error("Unauthorized, but invalid WWW-Authenticate response header: {}", auth);
+            return null;
+        }
+        if (!auth.matches(UNAUTHORIZED_ERROR) && !auth.matches(INVALID_TOKEN_ERROR) && (null != client.getApiJwt()))
+            return null;
+        log.trace("WWW-Authenticate: {}", auth);
+        log.trace("Current client JWT: {}", client.getApiJwt());
         // Any authentication problem while getting JWT treated as a critical failure
-        synchronized (mutex) {
-            String auth = response.header("WWW-Authenticate");
-            if (StringUtils.isEmpty(auth) || !auth.startsWith("Bearer")) {
-                log.error("Unauthorized, but invalid WWW-Authenticate response header: {}", auth);
-                return null;
-            }
-            if (auth.matches(UNAUTHORIZED_ERROR) || auth.matches(INVALID_TOKEN_ERROR) || (null == client.getApiJwt())) {
-                log.trace("WWW-Authenticate: {}", auth);
-                log.trace("Current client JWT: {}", client.getApiJwt());
-                // Need to acquire new / refresh existing JWT using client secret
-                try {
-                    client.authenticate();
-                } catch (GenericException e) {
-                    // Do not try to call with new JWT as authentication failed
-                    severe(e);
-                    return null;
-                }
-            } else
-                return null;
-
-            // Tell OkHTTP to resend failed request with new JWT
-            return response.request().newBuilder()
-                    .header("Authorization", "Bearer " + client.getApiJwt().getAccessToken())
-                    .build();
+        JwtResponse jwt;
+        try {
+            jwt = client.refreshJwt(StringUtils.removeStart(response.request().header("Authorization"), "Bearer "));
+        } catch (GenericException e) {
+            // Do not try to call with new JWT as authentication failed
+            severe(e);
+            return null;
         }
+
+        // Tell OkHTTP to resend failed request with new JWT
+        return response.request().newBuilder()
+                .header("Authorization", "Bearer " + jwt.getAccessToken())
+                .build();
     }
 }
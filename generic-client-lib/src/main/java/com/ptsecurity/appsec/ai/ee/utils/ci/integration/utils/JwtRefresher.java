@@ -0,0 +1,92 @@
+package com.ptsecurity.appsec.ai.ee.utils.ci.integration.utils;
+
+import com.ptsecurity.appsec.ai.ee.utils.ci.integration.api.AbstractApiClient;
+import com.ptsecurity.appsec.ai.ee.utils.ci.integration.domain.JwtResponse;
+import com.ptsecurity.appsec.ai.ee.utils.ci.integration.exceptions.GenericException;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+
+import java.lang.ref.WeakReference;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Background JWT renewal. Each time API client gets new JWT, refresh is scheduled
+ * to be done before token expiration, so API calls do not receive 401 responses
+ * and do not wait for {@link JwtAuthenticator} to re-authenticate. Single daemon
+ * thread serves all the API clients
+ */
+@Slf4j
+public class JwtRefresher {
+    private static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "ptai-jwt-refresher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Parse JWT expiration timestamp
+     * @param jwt JWT with expiration timestamp in ISO 8601 format
+     * @return Expiration instant or null if timestamp is missing or can't be parsed
+     */
+    public static Instant expiration(@NonNull final JwtResponse jwt) {
+        if (StringUtils.isEmpty(jwt.getExpiredAt())) return null;
+        try {
+            return OffsetDateTime.parse(jwt.getExpiredAt()).toInstant();
+        } catch (DateTimeParseException e) {
+            log.debug("Failed to parse JWT expiration {}", jwt.getExpiredAt());
+            return null;
+        }
+    }
+
+    /**
+     * Calculate delay before JWT refresh
+     * @param expiration JWT expiration instant
+     * @param now Current instant
+     * @param advance Number of seconds before expiration when JWT is to be refreshed
+     * @return Delay in milliseconds. If token lifetime is shorter than advance, refresh
+     * is done in the middle of remaining lifetime
+     */
+    public static long delay(@NonNull final Instant expiration, @NonNull final Instant now, final int advance) {
+        long remaining = Duration.between(now, expiration).toMillis();
+        if (0 >= remaining) return 0;
+        long res = remaining - TimeUnit.SECONDS.toMillis(advance);
+        return res > 0 ? res : remaining / 2;
+    }
+
+    /**
+     * Schedule background JWT refresh
+     * @param client API client that owns JWT
+     * @param jwt JWT to be refreshed
+     * @param advance Number of seconds before expiration when JWT is to be refreshed. Zero or negative
+     *                value disables background refresh
+     * @return Scheduled refresh task or null if no refresh is scheduled
+     */
+    public static ScheduledFuture<?> schedule(@NonNull final AbstractApiClient client, @NonNull final JwtResponse jwt, final int advance) {
+        if (0 >= advance) return null;
+        Instant expiration = expiration(jwt);
+        if (null == expiration) return null;
+        long delay = delay(expiration, Instant.now(), advance);
+        log.trace("JWT expires at {}, schedule refresh in {} ms", expiration, delay);
+        // Scheduled task must not prevent abandoned API client from being garbage collected
+        final WeakReference<AbstractApiClient> reference = new WeakReference<>(client);
+        final String accessToken = jwt.getAccessToken();
+        return SCHEDULER.schedule(() -> {
+            AbstractApiClient owner = reference.get();
+            if (null == owner) return;
+            try {
+                owner.refreshJwt(accessToken);
+            } catch (GenericException e) {
+                // JwtAuthenticator will try to re-authenticate when API call fails
+                log.debug("Background JWT refresh failed", e);
+            }
+        }, delay, TimeUnit.MILLISECONDS);
+    }
+}
@@ -6,8 +6,6 @@ import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
 import okhttp3.*;
 import okio.Buffer;
-import okio.BufferedSink;
-import okio.BufferedSource;
 import org.apache.commons.lang3.StringUtils;
 import org.jetbrains.annotations.NotNull;
 
@@ -27,6 +25,8 @@ public class LoggingInterceptor implements Interceptor {
     @Override
     public Response intercept(Chain chain) throws IOException {
         Request request = chain.request();
+        // Do not spend time and memory on requests and responses that aren't to be logged
+        if (!log.isTraceEnabled()) return chain.proceed(request);
 
         long requestTime = System.nanoTime();
         log.trace("Sending {} request to {}", request.method(), request.url());
@@ -42,18 +42,19 @@ public class LoggingInterceptor implements Interceptor {
         log.trace("Response headers: {}", response.headers());
 
         int maxBody = advancedSettings.getInt(LOGGING_HTTP_RESPONSE_MAX_BODY_SIZE);
-        if (0 != maxBody && null != response.body()) {
-            BufferedSource source = response.body().source();
-            source.request(Long.MAX_VALUE); // Buffer the entire body.
-            Buffer buffer = source.getBuffer();
-            if (buffer.size() < maxBody) maxBody = (int) buffer.size();
-            String bufferData = buffer.clone().readString(maxBody, StandardCharsets.UTF_8);
+        if (0 < maxBody && null != response.body()) {
+            // Peek no more than maxBody bytes so large responses aren't buffered in memory
+            ResponseBody peekedBody = response.peekBody(maxBody);
+            long peekedSize = peekedBody.contentLength();
+            String bodyData = peekedBody.string();
 
-            if (maxBody >= bufferData.length()) {
-                log.trace("Response body: {}", StringUtils.isEmpty(bufferData) ? "[empty]" : bufferData);
+            if (maxBody > peekedSize) {
+                log.trace("Response body: {}", StringUtils.isEmpty(bodyData) ? "[empty]" : bodyData);
             } else {
-                log.trace("Response body trimmed to first {} bytes as it {} bytes long", maxBody, bufferData.length());
-                log.trace("Trimmed response body: {}", bufferData.substring(0, maxBody));
+                long contentLength = response.body().contentLength();
+                String bodySize = -1L != contentLength ? contentLength + " bytes" : "unknown number of bytes";
+                log.trace("Response body trimmed to first {} bytes as it is {} long", maxBody, bodySize);
+                log.trace("Trimmed response body: {}", bodyData);
             }
         }
         return response;
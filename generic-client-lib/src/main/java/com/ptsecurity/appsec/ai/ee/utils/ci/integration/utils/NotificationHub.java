@@ -0,0 +1,244 @@
+package com.ptsecurity.appsec.ai.ee.utils.ci.integration.utils;
+
+import com.microsoft.signalr.HubConnection;
+import com.ptsecurity.appsec.ai.ee.utils.ci.integration.functions.EventConsumer;
+import com.ptsecurity.appsec.ai.ee.utils.ci.integration.functions.TextOutput;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * SignalR notifications connection that is shared by all the scans API client waits for.
+ * Connection is opened when first scan listener is registered and closed when last one
+ * is unregistered. Notifications are routed to listeners by scan result ID. Connection start
+ * and reconnect after unexpected close are done outside of hub monitor, and failed start is
+ * retried in background with growing delay
+ * @param <S> Scan stage type
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class NotificationHub<S> {
+    /**
+     * Scan notifications listener
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public static class Listener<S> {
+        @NonNull
+        protected final UUID projectId;
+
+        /**
+         * Scan completion waiter that is to be notified about scan progress and completion. May be null
+         */
+        protected final ScanCompletionWaiter<S> waiter;
+
+        /**
+         * Output for scan progress messages. As API client may be shared by several jobs, each
+         * scan listener uses its own output. May be null
+         */
+        protected final TextOutput console;
+
+        /**
+         * Consumer of scan stage change events. May be null
+         */
+        protected final EventConsumer eventConsumer;
+    }
+
+    /**
+     * Function that creates and starts SignalR connection. Connection event handlers are expected
+     * to route notifications to listeners using {@link #listener(UUID)}
+     */
+    @NonNull
+    protected final Supplier<HubConnection> connectionFactory;
+
+    /**
+     * Function that subscribes connection to notifications for given project IDs
+     */
+    @NonNull
+    protected final BiConsumer<HubConnection, Set<UUID>> subscriber;
+
+    /**
+     * Minimum delay in milliseconds before reconnect attempt. Delay is doubled after each failed attempt
+     */
+    protected static final long RECONNECT_DELAY_MIN = 1000;
+
+    /**
+     * Maximum delay in milliseconds before reconnect attempt
+     */
+    protected static final long RECONNECT_DELAY_MAX = 60 * 1000;
+
+    /**
+     * Single daemon thread that serves reconnect attempts of all the hubs, so SignalR
+     * threads that report connection close aren't blocked by connection start
+     */
+    private static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "ptai-signalr-reconnect");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Map<UUID, Listener<S>> listeners = new ConcurrentHashMap<>();
+
+    /**
+     * Started connection or null if there's no connection yet or it is being started
+     */
+    private HubConnection connection = null;
+
+    /**
+     * Connection is being started now. As start blocks until server responds,
+     * it is done outside of hub monitor
+     */
+    private boolean connecting = false;
+
+    /**
+     * Scheduled reconnect attempt or null if there's no such attempt
+     */
+    private ScheduledFuture<?> reconnectAttempt = null;
+
+    private long reconnectDelay = RECONNECT_DELAY_MIN;
+
+    /**
+     * Register scan notifications listener. Opens connection if there were no listeners yet.
+     * Connection start failure isn't critical as scan completion waiters poll scan state,
+     * so it is logged and connection start is retried later
+     * @param scanResultId PT AI scan result ID
+     * @param listener Scan notifications listener
+     */
+    public void register(@NonNull final UUID scanResultId, @NonNull final Listener<S> listener) {
+        boolean connect = false;
+        boolean subscribe = false;
+        synchronized (this) {
+            UUID projectId = listener.getProjectId();
+            boolean newProject = listeners.values().stream().noneMatch(l -> projectId.equals(l.getProjectId()));
+            listeners.put(scanResultId, listener);
+            if (null != connection)
+                // Some notifications are filtered by project ID on server side
+                subscribe = newProject;
+            else if (!connecting && null == reconnectAttempt) {
+                connecting = true;
+                connect = true;
+            }
+        }
+        if (connect)
+            connect();
+        else if (subscribe)
+            subscribe();
+    }
+
+    /**
+     * Unregister scan notifications listener. Closes connection if there's no listeners left
+     * @param scanResultId PT AI scan result ID
+     */
+    public void unregister(@NonNull final UUID scanResultId) {
+        HubConnection released;
+        synchronized (this) {
+            listeners.remove(scanResultId);
+            if (!listeners.isEmpty()) return;
+            if (null != reconnectAttempt) {
+                reconnectAttempt.cancel(false);
+                reconnectAttempt = null;
+            }
+            if (null == connection) return;
+            released = connection;
+            connection = null;
+        }
+        log.debug("No scan notification listeners left, close SignalR connection");
+        released.stop();
+    }
+
+    /**
+     * @param scanResultId PT AI scan result ID
+     * @return Listener of scan notifications or null if there's no such listener
+     */
+    public Listener<S> listener(@NonNull final UUID scanResultId) {
+        return listeners.get(scanResultId);
+    }
+
+    /**
+     * Subscribe to notifications for all the registered listeners. Need to be done
+     * after connection start and if server asks to sync client state
+     */
+    public void subscribe() {
+        HubConnection current;
+        Set<UUID> projectIds;
+        synchronized (this) {
+            if (null == connection) return;
+            current = connection;
+            projectIds = listeners.values().stream().map(Listener::getProjectId).collect(Collectors.toSet());
+        }
+        log.trace("Subscribe to notifications for projects {}", projectIds);
+        subscriber.accept(current, projectIds);
+    }
+
+    /**
+     * Create and start connection. Must be called outside of hub monitor with
+     * {@link #connecting} flag set
+     */
+    private void connect() {
+        HubConnection created;
+        try {
+            created = connectionFactory.get();
+        } catch (RuntimeException e) {
+            // Scan completion waiters poll scan state, so notifications loss isn't critical
+            log.warn("SignalR connection start failed, notifications are unavailable until reconnect");
+            log.debug("Exception details", e);
+            synchronized (this) {
+                connecting = false;
+                schedule();
+            }
+            return;
+        }
+        boolean used;
+        synchronized (this) {
+            connecting = false;
+            reconnectDelay = RECONNECT_DELAY_MIN;
+            // All the listeners might be unregistered while connection was being started
+            used = !listeners.isEmpty();
+            if (used) {
+                created.onClosed(e -> closed(created, e));
+                connection = created;
+            }
+        }
+        if (used)
+            subscribe();
+        else
+            created.stop();
+    }
+
+    /**
+     * Schedule reconnect attempt. Must be called with hub monitor held
+     */
+    private void schedule() {
+        if (listeners.isEmpty() || null != reconnectAttempt) return;
+        log.debug("Schedule SignalR reconnect in {} ms", reconnectDelay);
+        reconnectAttempt = SCHEDULER.schedule(this::reconnect, reconnectDelay, TimeUnit.MILLISECONDS);
+        reconnectDelay = Math.min(reconnectDelay * 2, RECONNECT_DELAY_MAX);
+    }
+
+    private void reconnect() {
+        synchronized (this) {
+            reconnectAttempt = null;
+            if (listeners.isEmpty() || null != connection || connecting) return;
+            connecting = true;
+        }
+        connect();
+    }
+
+    private synchronized void closed(@NonNull final HubConnection closed, final Exception e) {
+        // Ignore connections that were intentionally stopped
+        if (closed != connection) return;
+        connection = null;
+        if (listeners.isEmpty()) return;
+        log.debug("SignalR connection closed unexpectedly, reconnecting", e);
+        schedule();
+    }
+}
@@ -0,0 +1,143 @@
+package com.ptsecurity.appsec.ai.ee.utils.ci.integration.utils;
+
+import com.ptsecurity.appsec.ai.ee.utils.ci.integration.domain.AdvancedSettings;
+import com.ptsecurity.appsec.ai.ee.utils.ci.integration.exceptions.GenericException;
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.internal.http2.StreamResetException;
+import org.apache.http.client.HttpResponseException;
+
+import java.io.EOFException;
+import java.io.FileNotFoundException;
+import java.net.*;
+import java.nio.file.FileSystemException;
+
+import static com.ptsecurity.appsec.ai.ee.utils.ci.integration.domain.AdvancedSettings.SettingInfo.UPLOAD_RETRY_ATTEMPTS;
+import static com.ptsecurity.appsec.ai.ee.utils.ci.integration.domain.AdvancedSettings.SettingInfo.UPLOAD_RETRY_DELAY;
+
+/**
+ * Helper that repeats failed call with exponential backoff. Call is repeated only
+ * if it failed due to network error, timeout or server-side HTTP error. Client-side
+ * errors like 401 or 404 and local errors like missing or unreadable source file
+ * are thrown immediately
+ */
+@Slf4j
+@Builder
+public class RetryHelper {
+    /**
+     * Total number of attempts including first one
+     */
+    @Builder.Default
+    protected final int attempts = 3;
+
+    /**
+     * Delay in milliseconds before second attempt. Every next delay is twice as long
+     */
+    @Builder.Default
+    protected final long delay = 5000;
+
+    /**
+     * Maximum delay in milliseconds between attempts
+     */
+    @Builder.Default
+    protected final long maxDelay = 60000;
+
+    public static RetryHelper upload(@NonNull final AdvancedSettings settings) {
+        return RetryHelper.builder()
+                .attempts(Math.max(1, settings.getInt(UPLOAD_RETRY_ATTEMPTS)))
+                .delay(Math.max(0, 1000L * settings.getInt(UPLOAD_RETRY_DELAY)))
+                .build();
+    }
+
+    public <V> V call(@NonNull final CallHelper.Callable<V> call, @NonNull final String errorMessage) throws GenericException {
+        long currentDelay = delay;
+        for (int attempt = 1 ; ; attempt++) {
+            try {
+                return call.call();
+            } catch (Throwable e) {
+                if (attempt >= attempts || !isRetryable(e)) throw GenericException.raise(errorMessage, e);
+                log.warn("{}, attempt {} of {} will be made in {} ms", errorMessage, attempt + 1, attempts, currentDelay);
+                log.debug("Exception details", e);
+                try {
+                    Thread.sleep(currentDelay);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    throw GenericException.raise(errorMessage, e);
+                }
+                currentDelay = Math.min(currentDelay * 2, maxDelay);
+            }
+        }
+    }
+
+    public void call(@NonNull final CallHelper.Runnable call, @NonNull final String errorMessage) throws GenericException {
+        call(() -> {
+            call.run();
+            return null;
+        }, errorMessage);
+    }
+
+    /**
+     * Check if failed call may be repeated
+     * @param e Exception that call failed with
+     * @return True if exception or its causes are network errors or server-side HTTP errors.
+     * Local file system errors are never retryable even if those are wrapped into network ones
+     */
+    public static boolean isRetryable(final Throwable e) {
+        for (Throwable cause = e; null != cause; cause = cause.getCause()) {
+            if (cause instanceof HttpResponseException)
+                return isRetryable(((HttpResponseException) cause).getStatusCode());
+            // OpenAPI-generated ApiException classes have no common parent, so
+            // check files store API exceptions for every supported server version
+            Integer code = null;
+            if (cause instanceof com.ptsecurity.appsec.ai.ee.server.v36.filesstore.ApiException)
+                code = ((com.ptsecurity.appsec.ai.ee.server.v36.filesstore.ApiException) cause).getCode();
+            else if (cause instanceof com.ptsecurity.appsec.ai.ee.server.v40.filesstore.ApiException)
+                code = ((com.ptsecurity.appsec.ai.ee.server.v40.filesstore.ApiException) cause).getCode();
+            else if (cause instanceof com.ptsecurity.appsec.ai.ee.server.v41.filesstore.ApiException)
+                code = ((com.ptsecurity.appsec.ai.ee.server.v41.filesstore.ApiException) cause).getCode();
+            if (null != code)
+                // Zero code means that there were no HTTP response at all. Retry only if that's
+                // network error like connection reset and not i.e. request serialization error
+                return 0 == code ? isTransportError(cause.getCause()) && !isLocalError(cause.getCause()) : isRetryable(code);
+            if (cause instanceof FileSystemException || cause instanceof FileNotFoundException) return false;
+            if (isTransportError(cause)) return !isLocalError(cause.getCause());
+            if (cause == cause.getCause()) break;
+        }
+        return false;
+    }
+
+    /**
+     * @return True if exception is network error: socket error, timeout, unexpected connection
+     * close or HTTP protocol error
+     */
+    protected static boolean isTransportError(final Throwable e) {
+        return e instanceof SocketException
+                || e instanceof SocketTimeoutException
+                || e instanceof UnknownHostException
+                || e instanceof EOFException
+                || e instanceof ProtocolException
+                || e instanceof StreamResetException;
+    }
+
+    /**
+     * @return True if exception or its causes are local file system errors
+     */
+    protected static boolean isLocalError(final Throwable e) {
+        for (Throwable cause = e; null != cause; cause = cause.getCause()) {
+            if (cause instanceof FileSystemException || cause instanceof FileNotFoundException) return true;
+            if (cause == cause.getCause()) break;
+        }
+        return false;
+    }
+
+    /**
+     * @param code HTTP response code
+     * @return True for request timeout, too many requests and server-side errors except
+     * those that will not go away on repeat: not implemented and HTTP version not supported
+     */
+    protected static boolean isRetryable(final int code) {
+        if (HttpURLConnection.HTTP_NOT_IMPLEMENTED == code || HttpURLConnection.HTTP_VERSION == code) return false;
+        return HttpURLConnection.HTTP_CLIENT_TIMEOUT == code || 429 == code || HttpURLConnection.HTTP_INTERNAL_ERROR <= code;
+    }
+}
@@ -0,0 +1,169 @@
+package com.ptsecurity.appsec.ai.ee.utils.ci.integration.utils;
+
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.*;
+
+/**
+ * Waits for AST job completion that is reported by SignalR notifications. As sometimes
+ * notifications get lost, scan state is also polled. Polling is done with adaptive
+ * interval: first poll is done shortly, then interval grows exponentially. Every
+ * scan progress notification postpones next poll and resets its interval, so there's
+ * no polling while notifications are delivered and lost completion notification is
+ * detected soon after last progress one. All the waiters share single scheduler thread,
+ * so there's no dedicated thread per waiting job. Scheduler only triggers polls, and
+ * blocking poll calls are done by shared cached pool, so slow poll of one scan doesn't
+ * delay polls of other ones
+ * @param <S> Scan stage type
+ */
+@Slf4j
+public class ScanCompletionWaiter<S> {
+    private static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "ptai-scan-state-scheduler");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Pool that executes poll calls. Poll is HTTP request that may take up to read timeout,
+     * so pool is unbounded. Idle threads are released after a minute
+     */
+    private static final ExecutorService POLLER = Executors.newCachedThreadPool(r -> {
+        Thread thread = new Thread(r, "ptai-scan-state-poller");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Function that gets scan stage from PT AI server. Returns final stage or null if scan isn't finished yet
+     */
+    protected final Callable<S> poll;
+
+    protected final long minInterval;
+
+    protected final long maxInterval;
+
+    protected final CompletableFuture<S> result = new CompletableFuture<>();
+
+    /**
+     * Interval in milliseconds between previous and next polls
+     */
+    private long interval;
+
+    private ScheduledFuture<?> next = null;
+
+    /**
+     * Number of polling interval resets caused by scan progress notifications
+     */
+    private long resets = 0;
+
+    /**
+     * @param poll Function that gets scan stage from PT AI server. Returns final stage or null if scan isn't finished yet
+     * @param minInterval Interval before first poll and after scan progress notification
+     * @param maxInterval Maximum interval between polls
+     * @param unit Intervals time unit
+     */
+    public ScanCompletionWaiter(@NonNull final Callable<S> poll, final long minInterval, final long maxInterval, @NonNull final TimeUnit unit) {
+        this.poll = poll;
+        this.minInterval = Math.max(1, unit.toMillis(minInterval));
+        this.maxInterval = Math.max(this.minInterval, unit.toMillis(maxInterval));
+        this.interval = this.minInterval;
+        // Polling stops as soon as result is completed or cancelled by anyone
+        result.whenComplete((stage, e) -> stop());
+    }
+
+    /**
+     * Start scan state polling
+     */
+    public synchronized ScanCompletionWaiter<S> start() {
+        if (!result.isDone()) schedule(minInterval);
+        return this;
+    }
+
+    /**
+     * Process scan progress notification: postpone next poll and reset polling interval
+     */
+    public synchronized void progress() {
+        if (result.isDone()) return;
+        interval = minInterval;
+        resets++;
+        schedule(interval);
+    }
+
+    /**
+     * Process scan completion notification
+     * @param stage Final scan stage
+     */
+    public void complete(@NonNull final S stage) {
+        if (result.complete(stage)) log.debug("Scan completed with stage {}", stage);
+    }
+
+    /**
+     * Stop waiting. Threads that wait for completion get {@link CancellationException}
+     */
+    public void cancel() {
+        result.cancel(false);
+    }
+
+    /**
+     * Wait for scan completion
+     * @return Final scan stage
+     * @throws InterruptedException Waiting thread was interrupted. Polling is stopped in this case
+     */
+    public S await() throws InterruptedException {
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            cancel();
+            throw e;
+        } catch (ExecutionException e) {
+            // Result never completes exceptionally as poll errors are just logged
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * @return Future that is completed with final scan stage
+     */
+    public CompletableFuture<S> future() {
+        return result;
+    }
+
+    private synchronized void stop() {
+        if (null == next) return;
+        next.cancel(false);
+        next = null;
+    }
+
+    private void schedule(final long delay) {
+        if (null != next) next.cancel(false);
+        log.trace("Next scan state poll in {} ms", delay);
+        next = SCHEDULER.schedule(() -> POLLER.execute(this::check), delay, TimeUnit.MILLISECONDS);
+    }
+
+    private void check() {
+        final long checkResets;
+        synchronized (this) {
+            if (result.isDone()) return;
+            checkResets = resets;
+        }
+        try {
+            S stage = poll.call();
+            if (null != stage) {
+                log.trace("Scan completion detected by polling");
+                complete(stage);
+                return;
+            }
+        } catch (Exception e) {
+            // Polling is a fallback for lost notifications, so its failures aren't critical
+            log.debug("Scan state poll failed", e);
+        }
+        synchronized (this) {
+            // Progress notification received during poll already scheduled next one
+            if (result.isDone() || checkResets != resets) return;
+            interval = Math.min(interval * 2, maxInterval);
+            schedule(interval);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.ptsecurity.appsec.ai.ee.utils.ci.integration.utils;
+
+import com.ptsecurity.appsec.ai.ee.scan.reports.Reports;
+import com.ptsecurity.appsec.ai.ee.scan.result.ScanResult;
+import com.ptsecurity.appsec.ai.ee.utils.ci.integration.exceptions.GenericException;
+import com.ptsecurity.appsec.ai.ee.utils.ci.integration.tasks.GenericAstTasks;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.tuple.ImmutablePair;
+import org.apache.commons.lang3.tuple.Pair;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Scan results cache that is shared by all the exports of single job. Scan result
+ * issues download, parse and conversion is expensive, so it is done once per
+ * project and scan result ID pair. Exports must not modify cached scan results
+ * and use filtered views instead, see {@link ScanResultHelper#view(ScanResult, Reports.IssuesFilter)}
+ */
+@Slf4j
+public class ScanResultCache {
+    private final Map<Pair<UUID, UUID>, CompletableFuture<ScanResult>> results = new ConcurrentHashMap<>();
+
+    /**
+     * Get scan result from cache or load it from PT AI server
+     * @param projectId PT AI project ID
+     * @param scanResultId PT AI AST result ID
+     * @param genericAstTasks Tasks that are used to load scan result if there's no cached one
+     * @return Shared scan result instance
+     * @throws GenericException Exception that contains scan result load error details
+     */
+    public ScanResult get(
+            @NonNull final UUID projectId,
+            @NonNull final UUID scanResultId,
+            @NonNull final GenericAstTasks genericAstTasks) throws GenericException {
+        // Concurrent exports of the same scan result wait for single load. Load itself
+        // is done outside of map's lock, so loads of different scan results don't block
+        // each other and map isn't locked during long issues download
+        Pair<UUID, UUID> key = new ImmutablePair<>(projectId, scanResultId);
+        CompletableFuture<ScanResult> future = new CompletableFuture<>();
+        CompletableFuture<ScanResult> cached = results.putIfAbsent(key, future);
+        if (null == cached) {
+            log.debug("Loading project {} scan result {} into cache", projectId, scanResultId);
+            ScanResult res;
+            try {
+                res = genericAstTasks.getScanResult(projectId, scanResultId);
+            } catch (RuntimeException | Error e) {
+                // Failed load isn't cached, so next export will try again
+                results.remove(key, future);
+                future.completeExceptionally(e);
+                throw e;
+            }
+            future.complete(res);
+            return res;
+        }
+        try {
+            return cached.get();
+        } catch (ExecutionException e) {
+            throw GenericException.raise("Scan result load failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw GenericException.raise("Scan result load interrupted", e);
+        }
+    }
+
+    /**
+     * Get filtered view of cached scan result
+     * @param filter Filter to be applied. Null means no filtering
+     * @return Scan result instance with its own issues list. Issues themselves are shared with cached instance
+     */
+    public ScanResult get(
+            @NonNull final UUID projectId,
+            @NonNull final UUID scanResultId,
+            @NonNull final GenericAstTasks genericAstTasks,
+            final Reports.IssuesFilter filter) throws GenericException {
+        return ScanResultHelper.view(get(projectId, scanResultId, genericAstTasks), filter);
+    }
+
+    /**
+     * Drop cached scan results as those may consume lots of memory
+     */
+    public void clear() {
+        results.clear();
+    }
+}
@@ -7,9 +7,8 @@ import com.ptsecurity.appsec.ai.ee.scan.result.issue.types.VulnerabilityIssue;
 import lombok.NonNull;
 import org.apache.commons.lang3.StringUtils;
 
-import java.util.HashSet;
-import java.util.Iterator;
-import java.util.Set;
+import java.util.*;
+import java.util.function.Predicate;
 
 import static org.apache.commons.collections.CollectionUtils.isNotEmpty;
 
@@ -17,6 +16,20 @@ import static org.apache.commons.collections.CollectionUtils.isNotEmpty;
  * As {@link ScanResult} is in fact a DTO class, we need to implement its processing separately
  */
 public class ScanResultHelper {
+    /**
+     * Create filtered view of {@link ScanResult}. View is a copy of source scan result with its own
+     * issues list, so filtering doesn't modify source that may be shared between multiple exports.
+     * Issues themselves, i18n map, scan settings and statistics are shared with source and must not
+     * be modified
+     * @param scanResult Source scan result
+     * @param filter Filter to be applied. Null means no filtering
+     * @return Filtered scan result view
+     */
+    public static ScanResult view(@NonNull final ScanResult scanResult, final Reports.IssuesFilter filter) {
+        ScanResult res = new ScanResult(scanResult);
+        res.getIssues().addAll(filter(scanResult.getIssues(), scanResult.getId(), filter));
+        return res;
+    }
 
     /**
      * Apply {@link com.ptsecurity.appsec.ai.ee.scan.reports.Reports.IssuesFilter} to {@link ScanResult}. Method
@@ -27,140 +40,154 @@ public class ScanResultHelper {
      */
     public static void apply(@NonNull final ScanResult scanResult, final Reports.IssuesFilter filter) {
         if (null == filter) return;
+        // ArrayList.removeIf compacts list in a single pass
+        scanResult.getIssues().removeIf(compile(filter, scanResult.getId()).negate());
+    }
+
+    /**
+     * Filter issues list in a single pass
+     * @param issues Issues to be filtered. List isn't modified
+     * @param scanResultId Scan result ID that is used to check if issue is a new one
+     * @param filter Filter to be applied. Null means no filtering
+     * @return New list of issues that match filter
+     */
+    public static List<BaseIssue> filter(@NonNull final List<BaseIssue> issues, final UUID scanResultId, final Reports.IssuesFilter filter) {
+        if (null == filter) return new ArrayList<>(issues);
+        Predicate<BaseIssue> predicate = compile(filter, scanResultId);
+        List<BaseIssue> res = new ArrayList<>();
+        for (BaseIssue issue : issues)
+            if (predicate.test(issue)) res.add(issue);
+        return res;
+    }
+
+    private static final Map<Reports.IssuesFilter.Level, BaseIssue.Level> LEVEL_MAP = new EnumMap<>(Reports.IssuesFilter.Level.class);
+    private static final Map<Reports.IssuesFilter.ApprovalState, BaseIssue.ApprovalState> APPROVAL_STATE_MAP = new EnumMap<>(Reports.IssuesFilter.ApprovalState.class);
+    private static final Map<Reports.IssuesFilter.ScanMode, VulnerabilityIssue.ScanMode> SCAN_MODE_MAP = new EnumMap<>(Reports.IssuesFilter.ScanMode.class);
+
+    static {
+        LEVEL_MAP.put(Reports.IssuesFilter.Level.HIGH, BaseIssue.Level.HIGH);
+        LEVEL_MAP.put(Reports.IssuesFilter.Level.MEDIUM, BaseIssue.Level.MEDIUM);
+        LEVEL_MAP.put(Reports.IssuesFilter.Level.LOW, BaseIssue.Level.LOW);
+        LEVEL_MAP.put(Reports.IssuesFilter.Level.POTENTIAL, BaseIssue.Level.POTENTIAL);
+        LEVEL_MAP.put(Reports.IssuesFilter.Level.NONE, BaseIssue.Level.NONE);
+
+        APPROVAL_STATE_MAP.put(Reports.IssuesFilter.ApprovalState.APPROVED, BaseIssue.ApprovalState.APPROVAL);
+        APPROVAL_STATE_MAP.put(Reports.IssuesFilter.ApprovalState.AUTOAPPROVED, BaseIssue.ApprovalState.AUTO_APPROVAL);
+        APPROVAL_STATE_MAP.put(Reports.IssuesFilter.ApprovalState.DISCARDED, BaseIssue.ApprovalState.DISCARD);
+        APPROVAL_STATE_MAP.put(Reports.IssuesFilter.ApprovalState.UNDEFINED, BaseIssue.ApprovalState.NOT_EXIST);
+        APPROVAL_STATE_MAP.put(Reports.IssuesFilter.ApprovalState.NONE, BaseIssue.ApprovalState.NONE);
+
+        SCAN_MODE_MAP.put(Reports.IssuesFilter.ScanMode.FROMOTHER, VulnerabilityIssue.ScanMode.FROM_OTHER);
+        SCAN_MODE_MAP.put(Reports.IssuesFilter.ScanMode.FROMENTRYPOINT, VulnerabilityIssue.ScanMode.FROM_ENTRYPOINT);
+        SCAN_MODE_MAP.put(Reports.IssuesFilter.ScanMode.FROMPUBLICPROTECTED, VulnerabilityIssue.ScanMode.FROM_PUBLICPROTECTED);
+    }
+
+    /**
+     * Merge single and multiple values filter fields
+     * @return Set of values that are to be kept or null if there's no filtering by this field
+     */
+    private static <T extends Enum<T>> Set<T> values(final T value, final List<T> values, @NonNull final T all) {
+        Set<T> res = new HashSet<>();
+        if (null != value) res.add(value);
+        if (isNotEmpty(values)) res.addAll(values);
+        return res.isEmpty() || res.contains(all) ? null : res;
+    }
+
+    /**
+     * Map set of filter values to set of issue field values
+     */
+    private static <F extends Enum<F>, T extends Enum<T>> EnumSet<T> map(@NonNull final Set<F> values, @NonNull final Map<F, T> mapping, @NonNull final Class<T> clazz) {
+        EnumSet<T> res = EnumSet.noneOf(clazz);
+        for (F value : values)
+            if (mapping.containsKey(value)) res.add(mapping.get(value));
+        return res;
+    }
+
+    /**
+     * Convert {@link com.ptsecurity.appsec.ai.ee.scan.reports.Reports.IssuesFilter} to single predicate. Filter
+     * fields are resolved to enum sets once, so every issue is checked using a few set lookups
+     * @param filter Filter to be compiled
+     * @param scanResultId Scan result ID that is used to check if issue is a new one
+     * @return Predicate that returns true for issues that are to be kept
+     */
+    public static Predicate<BaseIssue> compile(@NonNull final Reports.IssuesFilter filter, final UUID scanResultId) {
+        List<Predicate<BaseIssue>> predicates = new ArrayList<>();
 
         // TODO: Get rid of NONE filters
 
         // Filter by issue level
-        Set<Reports.IssuesFilter.Level> filterLevels = new HashSet<>();
-        if (null != filter.getIssueLevel()) filterLevels.add(filter.getIssueLevel());
-        if (isNotEmpty(filter.getIssueLevels())) filterLevels.addAll(filter.getIssueLevels());
-        // At this point filterLevels contain issue levels that are to be kept in scan result
-        if (!filterLevels.isEmpty() && !filterLevels.contains(Reports.IssuesFilter.Level.ALL)) {
-            Iterator<BaseIssue> iterator = scanResult.getIssues().iterator();
-            while (iterator.hasNext()) {
-                BaseIssue issue = iterator.next();
-                if (BaseIssue.Level.HIGH.equals(issue.getLevel()) && filterLevels.contains(Reports.IssuesFilter.Level.HIGH)) continue;
-                if (BaseIssue.Level.MEDIUM.equals(issue.getLevel()) && filterLevels.contains(Reports.IssuesFilter.Level.MEDIUM)) continue;
-                if (BaseIssue.Level.LOW.equals(issue.getLevel()) && filterLevels.contains(Reports.IssuesFilter.Level.LOW)) continue;
-                if (BaseIssue.Level.POTENTIAL.equals(issue.getLevel()) && filterLevels.contains(Reports.IssuesFilter.Level.POTENTIAL)) continue;
-                if (BaseIssue.Level.NONE.equals(issue.getLevel()) && filterLevels.contains(Reports.IssuesFilter.Level.NONE)) continue;
-                iterator.remove();
-            }
+        Set<Reports.IssuesFilter.Level> filterLevels = values(filter.getIssueLevel(), filter.getIssueLevels(), Reports.IssuesFilter.Level.ALL);
+        if (null != filterLevels) {
+            EnumSet<BaseIssue.Level> levels = map(filterLevels, LEVEL_MAP, BaseIssue.Level.class);
+            predicates.add(issue -> null != issue.getLevel() && levels.contains(issue.getLevel()));
         }
 
         // Filter by confirmation status
-        Set<Reports.IssuesFilter.ApprovalState> approvalStates = new HashSet<>();
-        if (null != filter.getConfirmationStatus()) approvalStates.add(filter.getConfirmationStatus());
-        if (isNotEmpty(filter.getConfirmationStatuses())) approvalStates.addAll(filter.getConfirmationStatuses());
-        // At this point approvalStates contain confirmatiion sttatuses that are to be kept in scan result
-        if (!approvalStates.isEmpty() && !approvalStates.contains(Reports.IssuesFilter.ApprovalState.ALL)) {
-            Iterator<BaseIssue> iterator = scanResult.getIssues().iterator();
-            while (iterator.hasNext()) {
-                BaseIssue issue = iterator.next();
-                if (BaseIssue.ApprovalState.APPROVAL.equals(issue.getApprovalState()) && approvalStates.contains(Reports.IssuesFilter.ApprovalState.APPROVED)) continue;
-                if (BaseIssue.ApprovalState.AUTO_APPROVAL.equals(issue.getApprovalState()) && approvalStates.contains(Reports.IssuesFilter.ApprovalState.AUTOAPPROVED)) continue;
-                if (BaseIssue.ApprovalState.DISCARD.equals(issue.getApprovalState()) && approvalStates.contains(Reports.IssuesFilter.ApprovalState.DISCARDED)) continue;
-                if (BaseIssue.ApprovalState.NOT_EXIST.equals(issue.getApprovalState()) && approvalStates.contains(Reports.IssuesFilter.ApprovalState.UNDEFINED)) continue;
-                if (BaseIssue.ApprovalState.NONE.equals(issue.getApprovalState()) && approvalStates.contains(Reports.IssuesFilter.ApprovalState.NONE)) continue;
-                iterator.remove();
-            }
+        Set<Reports.IssuesFilter.ApprovalState> filterApprovalStates = values(filter.getConfirmationStatus(), filter.getConfirmationStatuses(), Reports.IssuesFilter.ApprovalState.ALL);
+        if (null != filterApprovalStates) {
+            EnumSet<BaseIssue.ApprovalState> approvalStates = map(filterApprovalStates, APPROVAL_STATE_MAP, BaseIssue.ApprovalState.class);
+            predicates.add(issue -> null != issue.getApprovalState() && approvalStates.contains(issue.getApprovalState()));
         }
 
-        // Filter by exploitation condition
-        Set<Reports.IssuesFilter.Condition> conditions = new HashSet<>();
-        if (null != filter.getExploitationCondition()) conditions.add(filter.getExploitationCondition());
-        if (isNotEmpty(filter.getExploitationConditions())) conditions.addAll(filter.getExploitationConditions());
-        // At this point exploitation condition statuses contain those that are to be kept in scan result
-        if (!conditions.isEmpty() && !conditions.contains(Reports.IssuesFilter.Condition.ALL)) {
-            Iterator<BaseIssue> iterator = scanResult.getIssues().iterator();
-            while (iterator.hasNext()) {
-                BaseIssue issue = iterator.next();
-                if (!BaseIssue.Type.VULNERABILITY.equals(issue.getClazz())) continue;
-
-                VulnerabilityIssue vulnerabilityIssue = (VulnerabilityIssue) issue;
-                if (StringUtils.isEmpty(vulnerabilityIssue.getConditions()) && conditions.contains(Reports.IssuesFilter.Condition.NOCONDITION)) continue;
-                if (StringUtils.isNotEmpty(vulnerabilityIssue.getConditions()) && conditions.contains(Reports.IssuesFilter.Condition.UNDERCONDITION)) continue;
-                iterator.remove();
-            }
+        // Filter by exploitation condition. Non-vulnerability issues are kept
+        Set<Reports.IssuesFilter.Condition> conditions = values(filter.getExploitationCondition(), filter.getExploitationConditions(), Reports.IssuesFilter.Condition.ALL);
+        if (null != conditions) {
+            boolean noCondition = conditions.contains(Reports.IssuesFilter.Condition.NOCONDITION);
+            boolean underCondition = conditions.contains(Reports.IssuesFilter.Condition.UNDERCONDITION);
+            predicates.add(issue -> {
+                if (BaseIssue.Type.VULNERABILITY != issue.getClazz()) return true;
+                return StringUtils.isEmpty(((VulnerabilityIssue) issue).getConditions()) ? noCondition : underCondition;
+            });
         }
 
         // Filter by suppress statuses
-        Set<Reports.IssuesFilter.SuppressStatus> suppressStatuses = new HashSet<>();
-        if (null != filter.getSuppressStatus()) suppressStatuses.add(filter.getSuppressStatus());
-        if (isNotEmpty(filter.getSuppressStatuses())) suppressStatuses.addAll(filter.getSuppressStatuses());
-        // At this point suppress statuses contain those that are to be kept in scan result
-        if (!suppressStatuses.isEmpty() && !suppressStatuses.contains(Reports.IssuesFilter.SuppressStatus.ALL)) {
-            Iterator<BaseIssue> iterator = scanResult.getIssues().iterator();
-            while (iterator.hasNext()) {
-                BaseIssue issue = iterator.next();
-                if (issue.getSuppressed() && suppressStatuses.contains(Reports.IssuesFilter.SuppressStatus.SUPPRESSED)) continue;
-                if (!issue.getSuppressed() && suppressStatuses.contains(Reports.IssuesFilter.SuppressStatus.EXCEPTSUPPRESSED)) continue;
-                iterator.remove();
-            }
+        Set<Reports.IssuesFilter.SuppressStatus> suppressStatuses = values(filter.getSuppressStatus(), filter.getSuppressStatuses(), Reports.IssuesFilter.SuppressStatus.ALL);
+        if (null != suppressStatuses) {
+            boolean suppressed = suppressStatuses.contains(Reports.IssuesFilter.SuppressStatus.SUPPRESSED);
+            boolean exceptSuppressed = suppressStatuses.contains(Reports.IssuesFilter.SuppressStatus.EXCEPTSUPPRESSED);
+            predicates.add(issue -> Boolean.TRUE.equals(issue.getSuppressed()) ? suppressed : exceptSuppressed);
         }
 
         // Filter by source type
-        Set<Reports.IssuesFilter.SourceType> sourceTypes = new HashSet<>();
-        if (null != filter.getSourceType()) sourceTypes.add(filter.getSourceType());
-        if (isNotEmpty(filter.getSourceTypes())) sourceTypes.addAll(filter.getSourceTypes());
-        // At this point source types contain those that are to be kept in scan result
-        if (!sourceTypes.isEmpty() && !sourceTypes.contains(Reports.IssuesFilter.SourceType.ALL)) {
-            Iterator<BaseIssue> iterator = scanResult.getIssues().iterator();
-            while (iterator.hasNext()) {
-                BaseIssue issue = iterator.next();
-                if (!BaseIssue.Type.BLACKBOX.equals(issue.getClazz()) && sourceTypes.contains(Reports.IssuesFilter.SourceType.STATIC)) continue;
-                if (BaseIssue.Type.BLACKBOX.equals(issue.getClazz()) && sourceTypes.contains(Reports.IssuesFilter.SourceType.BLACKBOX)) continue;
-                iterator.remove();
-            }
+        Set<Reports.IssuesFilter.SourceType> sourceTypes = values(filter.getSourceType(), filter.getSourceTypes(), Reports.IssuesFilter.SourceType.ALL);
+        if (null != sourceTypes) {
+            boolean staticSource = sourceTypes.contains(Reports.IssuesFilter.SourceType.STATIC);
+            boolean blackBox = sourceTypes.contains(Reports.IssuesFilter.SourceType.BLACKBOX);
+            predicates.add(issue -> BaseIssue.Type.BLACKBOX.equals(issue.getClazz()) ? blackBox : staticSource);
         }
 
-        // Filter by scan mode
-        Set<Reports.IssuesFilter.ScanMode> scanModes = new HashSet<>();
-        if (null != filter.getScanMode()) scanModes.add(filter.getScanMode());
-        if (isNotEmpty(filter.getScanModes())) scanModes.addAll(filter.getScanModes());
-        // At this point scan modes contain those that are to be kept in scan result
-        if (!scanModes.isEmpty() && !scanModes.contains(Reports.IssuesFilter.ScanMode.ALL)) {
-            Iterator<BaseIssue> iterator = scanResult.getIssues().iterator();
-            while (iterator.hasNext()) {
-                BaseIssue issue = iterator.next();
-                if (BaseIssue.Type.VULNERABILITY.equals(issue.getClazz())) {
-                    VulnerabilityIssue vulnerabilityIssue = (VulnerabilityIssue) issue;
-                    if (VulnerabilityIssue.ScanMode.FROM_OTHER.equals(vulnerabilityIssue.getScanMode()) && scanModes.contains(Reports.IssuesFilter.ScanMode.FROMOTHER)) continue;
-                    if (VulnerabilityIssue.ScanMode.FROM_ENTRYPOINT.equals(vulnerabilityIssue.getScanMode()) && scanModes.contains(Reports.IssuesFilter.ScanMode.FROMENTRYPOINT)) continue;
-                    if (VulnerabilityIssue.ScanMode.FROM_PUBLICPROTECTED.equals(vulnerabilityIssue.getScanMode()) && scanModes.contains(Reports.IssuesFilter.ScanMode.FROMPUBLICPROTECTED)) continue;
-                } else
-                if (scanModes.contains(Reports.IssuesFilter.ScanMode.FROMOTHER)) continue;
-                iterator.remove();
-            }
+        // Filter by scan mode. Non-vulnerability issues are treated as "from other" ones
+        Set<Reports.IssuesFilter.ScanMode> filterScanModes = values(filter.getScanMode(), filter.getScanModes(), Reports.IssuesFilter.ScanMode.ALL);
+        if (null != filterScanModes) {
+            EnumSet<VulnerabilityIssue.ScanMode> scanModes = map(filterScanModes, SCAN_MODE_MAP, VulnerabilityIssue.ScanMode.class);
+            boolean fromOther = filterScanModes.contains(Reports.IssuesFilter.ScanMode.FROMOTHER);
+            predicates.add(issue -> {
+                if (BaseIssue.Type.VULNERABILITY != issue.getClazz()) return fromOther;
+                VulnerabilityIssue.ScanMode scanMode = ((VulnerabilityIssue) issue).getScanMode();
+                return null != scanMode && scanModes.contains(scanMode);
+            });
         }
+
         // Filter by new / old status
-        Set<Reports.IssuesFilter.ActualStatus> actualStatuses = new HashSet<>();
-        if (null != filter.getActualStatus()) actualStatuses.add(filter.getActualStatus());
-        // At this point new / old statuses contain those that are to be kept in scan result
-        if (!actualStatuses.isEmpty() && !actualStatuses.contains(Reports.IssuesFilter.ActualStatus.ALL)) {
-            Iterator<BaseIssue> iterator = scanResult.getIssues().iterator();
-            while (iterator.hasNext()) {
-                BaseIssue issue = iterator.next();
-                if (scanResult.getId().equals(issue.getNewInScanResultId()) && actualStatuses.contains(Reports.IssuesFilter.ActualStatus.ISNEW)) continue;
-                if (!scanResult.getId().equals(issue.getNewInScanResultId()) && actualStatuses.contains(Reports.IssuesFilter.ActualStatus.NOTISNEW)) continue;
-                iterator.remove();
-            }
+        Reports.IssuesFilter.ActualStatus actualStatus = filter.getActualStatus();
+        if (null != actualStatus && Reports.IssuesFilter.ActualStatus.ALL != actualStatus) {
+            boolean isNew = Reports.IssuesFilter.ActualStatus.ISNEW == actualStatus;
+            predicates.add(issue -> isNew == (null != scanResultId && scanResultId.equals(issue.getNewInScanResultId())));
         }
 
-        Iterator<BaseIssue> iterator = scanResult.getIssues().iterator();
-        while (iterator.hasNext()) {
-            BaseIssue issue = iterator.next();
-            boolean remove = true;
-            do {
-                if (BaseIssue.Type.VULNERABILITY.equals(issue.getClazz())) {
-                    VulnerabilityIssue vulnerabilityIssue = (VulnerabilityIssue) issue;
-                    if (Boolean.TRUE.equals(filter.getHideSecondOrder()) && Boolean.TRUE.equals(vulnerabilityIssue.getSecondOrder())) break;
-                }
-                if (Boolean.TRUE.equals(filter.getHideSuspected()) && Boolean.TRUE.equals(issue.getSuspected())) break;
-                remove = false;
-            } while (false);
-            if (remove) iterator.remove();
-        }
+        if (Boolean.TRUE.equals(filter.getHideSecondOrder()))
+            predicates.add(issue -> BaseIssue.Type.VULNERABILITY != issue.getClazz() || !Boolean.TRUE.equals(((VulnerabilityIssue) issue).getSecondOrder()));
+        if (Boolean.TRUE.equals(filter.getHideSuspected()))
+            predicates.add(issue -> !Boolean.TRUE.equals(issue.getSuspected()));
         // Ignore "byXxx" filter options as those aren't applicable to JSON reports
+
+        if (predicates.isEmpty()) return issue -> true;
+        @SuppressWarnings("unchecked")
+        Predicate<BaseIssue>[] tests = predicates.toArray(new Predicate[0]);
+        return issue -> {
+            for (Predicate<BaseIssue> test : tests)
+                if (!test.test(issue)) return false;
+            return true;
+        };
     }
 }
@@ -0,0 +1,231 @@
+package com.ptsecurity.appsec.ai.ee.utils.ci.integration.utils;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.ptsecurity.appsec.ai.ee.utils.ci.integration.exceptions.GenericException;
+import com.ptsecurity.appsec.ai.ee.utils.ci.integration.utils.json.BaseJsonHelper;
+import lombok.*;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static com.ptsecurity.appsec.ai.ee.utils.ci.integration.utils.CallHelper.call;
+
+/**
+ * Manifest of sources that were uploaded to PT AI project. Manifest maps every
+ * zip entry name to its source file size, modification time and content hash.
+ * Manifest of last successful upload is stored in job output folder together with
+ * ID of scan that was started for these sources. Manifest is used to skip upload
+ * if sources aren't changed and that scan is still the latest one in the project,
+ * i.e. project wasn't re-created and nobody else scanned it since then. Also it
+ * allows to avoid re-hashing of files whose size and modification time are the
+ * same as during last upload
+ */
+@Slf4j
+@Getter
+@NoArgsConstructor
+public class SourcesManifest {
+    public static final String HASH_ALGORITHM = "SHA-256";
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Item {
+        @JsonProperty
+        protected String path;
+        @JsonProperty
+        protected long size;
+        @JsonProperty
+        protected long modified;
+        @JsonProperty
+        protected String hash;
+    }
+
+    @JsonProperty
+    protected UUID projectId;
+
+    /**
+     * ID of scan that was started after sources upload
+     */
+    @JsonProperty
+    protected UUID scanResultId;
+
+    /**
+     * Sorted map of zip entry name to source file info. Directory entries
+     * are stored with null hash
+     */
+    @JsonProperty
+    protected SortedMap<String, Item> items = new TreeMap<>();
+
+    /**
+     * File where this manifest is to be saved
+     */
+    @JsonIgnore
+    protected Path file;
+
+    /**
+     * Manifest of last successful upload, loaded from {@link #file}
+     */
+    @JsonIgnore
+    protected SourcesManifest previous;
+
+    /**
+     * File collector and collected files that manifest was created for. These
+     * are used to pack exactly the same files whose hashes are in manifest
+     */
+    @JsonIgnore
+    protected FileCollector collector;
+
+    @JsonIgnore
+    protected List<FileCollector.Entry> entries;
+
+    public static String fileName(@NonNull final UUID projectId) {
+        return "sources." + projectId + ".json";
+    }
+
+    /**
+     * Load manifest from file. Missing or corrupted manifest file is treated as empty one
+     * @param file Manifest file
+     * @return Manifest that was loaded or empty manifest if load failed
+     */
+    public static SourcesManifest load(@NonNull final Path file) {
+        if (!file.toFile().isFile()) return new SourcesManifest();
+        SourcesManifest res = call(
+                () -> BaseJsonHelper.createObjectMapper().readValue(file.toFile(), SourcesManifest.class),
+                "Sources manifest load failed", true);
+        if (null == res) {
+            log.debug("Sources manifest {} load failed, ignore it", file);
+            return new SourcesManifest();
+        }
+        return res;
+    }
+
+    /**
+     * Create manifest for collected files. If file's size and modification time are the same
+     * as in previous manifest, its hash is taken from there
+     * @param projectId PT AI project ID
+     * @param entries Collected files
+     * @param file File where previous manifest is stored and where this one is to be saved
+     * @return Manifest of collected files
+     * @throws GenericException Exception that contains error details if files hashing failed
+     */
+    public static SourcesManifest create(
+            @NonNull final UUID projectId, @NonNull final List<FileCollector.Entry> entries,
+            @NonNull final Path file) throws GenericException {
+        SourcesManifest res = new SourcesManifest();
+        res.projectId = projectId;
+        res.file = file;
+        res.previous = load(file);
+        if (!projectId.equals(res.previous.projectId)) res.previous = new SourcesManifest();
+
+        Map<String, Item> items = call(() -> entries.parallelStream()
+                .collect(Collectors.toMap(
+                        FileCollector.Entry::getEntryName,
+                        e -> item(e, res.previous.items.get(e.getEntryName())),
+                        (first, second) -> second)),
+                "Sources hash calculation failed");
+        res.items.putAll(items);
+        return res;
+    }
+
+    private static Item item(@NonNull final FileCollector.Entry entry, final Item previous) {
+        try {
+            Path path = entry.getPath();
+            if (Files.isDirectory(path))
+                return new Item(path.toString(), 0, 0, null);
+            long size = Files.size(path);
+            long modified = Files.getLastModifiedTime(path).toMillis();
+            if (null != previous && path.toString().equals(previous.path) && size == previous.size && modified == previous.modified)
+                return previous;
+            return new Item(path.toString(), size, modified, hash(path));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String hash(@NonNull final Path path) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance(HASH_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        byte[] buffer = new byte[64 * 1024];
+        try (InputStream is = Files.newInputStream(path)) {
+            for (int read = is.read(buffer); -1 != read; read = is.read(buffer))
+                digest.update(buffer, 0, read);
+        }
+        StringBuilder res = new StringBuilder();
+        for (byte b : digest.digest())
+            res.append(String.format("%02x", b));
+        return res.toString();
+    }
+
+    /**
+     * Check if there's no need to upload sources. PT AI server doesn't report uploaded sources
+     * hash, so the only server-side state that is checked is project's latest scan. It allows
+     * to detect project re-creation and scans started by someone else, but sources upload
+     * without scan start isn't detected
+     * @param latestScanResultId ID of project's latest scan result on PT AI server
+     * @return True if sources set and contents are the same as during last successful upload
+     * and scan that was started after that upload is still the latest one
+     */
+    public boolean isUnchanged(final UUID latestScanResultId) {
+        if (null == previous || null == previous.scanResultId || !previous.scanResultId.equals(latestScanResultId)) return false;
+        if (previous.items.isEmpty() || previous.items.size() != items.size()) return false;
+        for (Map.Entry<String, Item> entry : items.entrySet()) {
+            Item item = previous.items.get(entry.getKey());
+            if (null == item || !Objects.equals(item.hash, entry.getValue().hash)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Zip collected files to temporary file
+     * @return Zip archive with sources
+     * @throws GenericException Exception that contains error details if files pack failed
+     */
+    public File zip() throws GenericException {
+        if (null == collector || null == entries)
+            throw GenericException.raise("Sources pack failed", new IllegalStateException("Manifest isn't created from collected files"));
+        File zip = FileCollector.createTempFile();
+        call(() -> collector.packCollectedFiles(zip, entries), "Collected files pack error");
+        return zip;
+    }
+
+    /**
+     * @return Request body that zips collected files directly into upload stream
+     * @throws GenericException Exception that contains error details if manifest isn't created from collected files
+     */
+    public ZipRequestBody stream() throws GenericException {
+        if (null == collector || null == entries)
+            throw GenericException.raise("Sources pack failed", new IllegalStateException("Manifest isn't created from collected files"));
+        return new ZipRequestBody(collector, entries);
+    }
+
+    /**
+     * Save manifest to its file. Method is to be called after successful sources upload
+     * and scan start
+     * @param scanResultId ID of scan that was started for uploaded sources
+     * @throws GenericException Exception that contains error details if manifest save failed
+     */
+    public void save(@NonNull final UUID scanResultId) throws GenericException {
+        if (null == file) return;
+        this.scanResultId = scanResultId;
+        call(() -> {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            BaseJsonHelper.createObjectMapper().writeValue(file.toFile(), this);
+        }, "Sources manifest save failed");
+    }
+}
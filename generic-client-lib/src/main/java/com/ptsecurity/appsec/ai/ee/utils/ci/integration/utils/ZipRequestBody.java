@@ -0,0 +1,111 @@
+package com.ptsecurity.appsec.ai.ee.utils.ci.integration.utils;
+
+import com.ptsecurity.appsec.ai.ee.utils.ci.integration.exceptions.GenericException;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.*;
+import okio.BufferedSink;
+import org.apache.commons.compress.archivers.ArchiveException;
+import org.apache.commons.io.output.CountingOutputStream;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.http.client.HttpResponseException;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.util.List;
+
+import static com.ptsecurity.appsec.ai.ee.utils.ci.integration.utils.CallHelper.call;
+
+/**
+ * Request body that zips collected source files directly into HTTP request stream.
+ * As resulting archive size isn't known in advance, body is sent using chunked
+ * transfer encoding. Body may be written more than once (i.e. if request is
+ * repeated after JWT refresh): every write packs files again
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class ZipRequestBody extends RequestBody {
+    public static final MediaType ZIP = MediaType.parse("application/zip");
+
+    /**
+     * File name that is reported to server in multipart form data
+     */
+    public static final String FILE_NAME = "sources.zip";
+
+    @NonNull
+    private final FileCollector collector;
+
+    @NonNull
+    private final List<FileCollector.Entry> entries;
+
+    /**
+     * Zipped data size written during last {@link #writeTo(BufferedSink)} call
+     */
+    @Getter
+    private long size = 0;
+
+    @Override
+    public MediaType contentType() {
+        return ZIP;
+    }
+
+    @Override
+    public long contentLength() {
+        return -1;
+    }
+
+    @Override
+    public void writeTo(@NotNull BufferedSink sink) throws IOException {
+        CountingOutputStream out = new CountingOutputStream(sink.outputStream());
+        try {
+            collector.packCollectedFiles(out, entries);
+        } catch (ArchiveException e) {
+            throw new IOException(e);
+        }
+        size = out.getByteCount();
+    }
+
+    /**
+     * Upload sources using request template. Template is a request that is created by generated
+     * API for regular file-based upload. Its URL and headers are preserved, but file part of its
+     * multipart body is replaced with this streaming body
+     * @param httpClient HTTP client to be used for request execution
+     * @param template Request created by generated API for file-based upload
+     * @return True if upload succeeded, false if server requires Content-Length header
+     * and file-based upload is to be used
+     * @throws GenericException Exception that contains error details if upload failed
+     */
+    public boolean upload(@NonNull final OkHttpClient httpClient, @NonNull final Request template) throws GenericException {
+        if (!(template.body() instanceof MultipartBody))
+            throw GenericException.raise("PT AI project sources upload failed", new IllegalArgumentException("Upload request body is not a multipart one"));
+        MultipartBody templateBody = (MultipartBody) template.body();
+        MultipartBody.Builder builder = new MultipartBody.Builder().setType(templateBody.type());
+        for (MultipartBody.Part part : templateBody.parts()) {
+            String disposition = null == part.headers() ? null : part.headers().get("Content-Disposition");
+            // Replace file part with streaming one and keep other form data as is
+            if (StringUtils.contains(disposition, "filename="))
+                builder.addPart(part.headers(), this);
+            else
+                builder.addPart(part);
+        }
+        Request request = template.newBuilder().method(template.method(), builder.build()).build();
+
+        try (Response response = call(() -> httpClient.newCall(request).execute(), "PT AI project sources upload failed")) {
+            if (response.isSuccessful()) {
+                log.debug("Streamed {} bytes of zipped sources", size);
+                return true;
+            }
+            if (HttpURLConnection.HTTP_LENGTH_REQUIRED == response.code()) {
+                log.debug("Server does not support chunked upload");
+                return false;
+            }
+            String body = call(() -> null == response.body() ? "" : response.body().string(), "PT AI project sources upload response read failed");
+            throw GenericException.raise(
+                    "PT AI project sources upload failed",
+                    new HttpResponseException(response.code(), String.format("HTTP %d response: %s", response.code(), body)));
+        }
+    }
+}
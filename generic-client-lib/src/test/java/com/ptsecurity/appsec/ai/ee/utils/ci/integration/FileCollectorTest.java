@@ -3,12 +3,19 @@ package com.ptsecurity.appsec.ai.ee.utils.ci.integration;
 import com.ptsecurity.appsec.ai.ee.scan.sources.Transfer;
 import com.ptsecurity.appsec.ai.ee.scan.sources.Transfers;
 import com.ptsecurity.appsec.ai.ee.utils.ci.integration.client.BaseAstIT;
+import com.ptsecurity.appsec.ai.ee.utils.ci.integration.domain.AdvancedSettings;
+import com.ptsecurity.appsec.ai.ee.utils.ci.integration.exceptions.GenericException;
 import com.ptsecurity.appsec.ai.ee.utils.ci.integration.test.BaseTest;
 import com.ptsecurity.appsec.ai.ee.utils.ci.integration.utils.FileCollector;
+import com.ptsecurity.appsec.ai.ee.utils.ci.integration.utils.ZipRequestBody;
+import lombok.NonNull;
 import lombok.SneakyThrows;
+import okio.Buffer;
 import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.SystemUtils;
 import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
@@ -16,11 +23,21 @@ import org.junit.jupiter.api.condition.EnabledOnOs;
 import org.junit.jupiter.api.io.TempDir;
 
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
 
 import static org.junit.jupiter.api.condition.OS.LINUX;
 
@@ -63,6 +80,146 @@ public class FileCollectorTest extends BaseTest {
         Assertions.assertTrue(zip.exists());
     }
 
+    @SneakyThrows
+    @Test
+    @DisplayName("Streaming zip contains the same entries as zip file")
+    public void createZipStream(@TempDir final Path sources) {
+        createSampleFileSystem(sources);
+        File zip = FileCollector.collect(null, sources.toFile(), new Tool());
+        ZipRequestBody body = FileCollector.stream(null, sources.toFile(), new Tool());
+        Buffer buffer = new Buffer();
+        body.writeTo(buffer);
+        Assertions.assertEquals(-1, body.contentLength());
+        Assertions.assertEquals(buffer.size(), body.getSize());
+        Assertions.assertEquals(entryNames(new FileInputStream(zip)), entryNames(buffer.inputStream()));
+        Assertions.assertTrue(zip.delete());
+    }
+
+    @SneakyThrows
+    @Test
+    @DisplayName("Parallel zip keeps the same entries order as sequential one")
+    public void createZipInParallel(@TempDir final Path sources) {
+        createSampleFileSystem(sources);
+        for (int i = 0 ; i < 100 ; i++)
+            Files.write(sources.resolve("file" + i + ".txt"), UUID.randomUUID().toString().getBytes(StandardCharsets.UTF_8));
+        File zip = FileCollector.collect(null, sources.toFile(), new Tool());
+
+        Tool tool = new Tool();
+        AdvancedSettings settings = new AdvancedSettings();
+        settings.apply("zip.threads = 4\nzip.compression.level = 9");
+        tool.setAdvancedSettings(settings);
+        File parallelZip = FileCollector.collect(null, sources.toFile(), tool);
+        Assertions.assertEquals(entryNames(new FileInputStream(zip)), entryNames(new FileInputStream(parallelZip)));
+        Assertions.assertTrue(zip.delete());
+        Assertions.assertTrue(parallelZip.delete());
+    }
+
+    @SneakyThrows
+    @Test
+    @EnabledOnOs(LINUX)
+    @DisplayName("Parallel zip fails instead of hanging if some file can't be read")
+    public void failZipInParallelOnUnreadableFile(@TempDir final Path sources) {
+        createSampleFileSystem(sources);
+        // Unreadable file goes to first chunk, and there's more chunks than threads, so some chunks are still queued
+        Path unreadable = sources.resolve("a.txt");
+        Files.write(unreadable, UUID.randomUUID().toString().getBytes(StandardCharsets.UTF_8));
+        for (int i = 0 ; i < 100 ; i++)
+            Files.write(sources.resolve("file" + i + ".txt"), UUID.randomUUID().toString().getBytes(StandardCharsets.UTF_8));
+        Files.setPosixFilePermissions(unreadable, PosixFilePermissions.fromString("-w-------"));
+        // Superuser ignores file permissions
+        Assumptions.assumeFalse(Files.isReadable(unreadable));
+
+        Tool tool = new Tool();
+        AdvancedSettings settings = new AdvancedSettings();
+        settings.apply("zip.threads = 2");
+        tool.setAdvancedSettings(settings);
+        Assertions.assertTimeoutPreemptively(Duration.ofSeconds(30), () -> {
+            Assertions.assertThrows(GenericException.class, () -> FileCollector.collect(null, sources.toFile(), tool));
+        });
+    }
+
+    @SneakyThrows
+    @Test
+    @DisplayName("File walker collects the same entries as Ant directory scanner")
+    public void compareWalkerWithAntScanner(@TempDir final Path sources) {
+        createSampleFileSystem(sources);
+        for (String name : new String[] { "README.md", "build.gradle", ".gitignore", "docs/index.html", "docs/img/logo.png",
+                ".git/HEAD", ".git/refs/heads/master", "module/.ptai/report.json", "module/file~", "web/a b/page.jsp",
+                "web/WEB-INF/web.xml", "web/WEB-INF/lib/lib.jar", "empty/", "deep/1/2/3/4/5/Deep.java" }) {
+            Path path = sources.resolve(name);
+            if (name.endsWith("/")) {
+                Files.createDirectories(path);
+                continue;
+            }
+            Files.createDirectories(path.getParent());
+            Files.write(path, name.getBytes(StandardCharsets.UTF_8));
+        }
+        Tool ant = new Tool();
+        AdvancedSettings settings = new AdvancedSettings();
+        settings.apply("file.collector.ant.scanner = true");
+        ant.setAdvancedSettings(settings);
+
+        List<Transfer> cases = new ArrayList<>();
+        cases.add(new Transfer());
+        cases.add(Transfer.builder().useDefaultExcludes(true).build());
+        cases.add(Transfer.builder().includes("**").excludes("").build());
+        cases.add(Transfer.builder().includes("**/*.java, **/*.jsp").build());
+        cases.add(Transfer.builder().includes("web/").excludes("**/lib/**").build());
+        cases.add(Transfer.builder().includes("web/**/*").removePrefix("web").build());
+        cases.add(Transfer.builder().includes("*/*/").excludes("**/build/**").build());
+        cases.add(Transfer.builder().includes("**/?ocs/**/*.*").excludes("**/img").build());
+        cases.add(Transfer.builder().excludes("./module/*/build/*/*.class, deep/**/4/**").build());
+        cases.add(Transfer.builder().includes("**/*.jar").flatten(true).build());
+        cases.add(Transfer.builder().includes("deep/**/**/Deep.java, **/3").build());
+
+        for (Transfer transfer : cases) {
+            Transfers transfers = new Transfers().addTransfer(transfer);
+            List<String> expected = entries(new FileCollector(transfers, ant).collectFiles(sources.toFile()));
+            List<String> actual = entries(new FileCollector(transfers, new Tool()).collectFiles(sources.toFile()));
+            Assertions.assertEquals(expected, actual, transfer.toString());
+        }
+    }
+
+    private static List<String> entries(@NonNull final List<FileCollector.Entry> entries) {
+        return entries.stream().map(e -> e.getPath() + " -> " + e.getEntryName()).collect(Collectors.toList());
+    }
+
+    @SneakyThrows
+    @Test
+    @DisplayName("Already compressed files are stored without compression")
+    public void storeCompressedFiles(@TempDir final Path sources) {
+        createSampleFileSystem(sources);
+        byte[] data = new byte[2 * 1024 * 1024];
+        new Random().nextBytes(data);
+        Files.write(sources.resolve("lib.jar"), data);
+        Files.write(sources.resolve("image.PNG"), UUID.randomUUID().toString().getBytes(StandardCharsets.UTF_8));
+
+        for (String threads : new String[] { "1", "4" }) {
+            Tool tool = new Tool();
+            AdvancedSettings settings = new AdvancedSettings();
+            settings.apply("zip.threads = " + threads);
+            tool.setAdvancedSettings(settings);
+            File zip = FileCollector.collect(null, sources.toFile(), tool);
+            try (ZipFile zipFile = new ZipFile(zip)) {
+                Assertions.assertEquals(ZipEntry.STORED, zipFile.getEntry("lib.jar").getMethod());
+                Assertions.assertEquals(ZipEntry.STORED, zipFile.getEntry("image.PNG").getMethod());
+                Assertions.assertArrayEquals(data, IOUtils.toByteArray(zipFile.getInputStream(zipFile.getEntry("lib.jar"))));
+                Assertions.assertEquals(ZipEntry.DEFLATED, zipFile.getEntry("module/submodule/src/main/java/module/submodule/Source.java").getMethod());
+            }
+            Assertions.assertTrue(zip.delete());
+        }
+    }
+
+    @SneakyThrows
+    private static List<String> entryNames(@NonNull final InputStream data) {
+        List<String> res = new ArrayList<>();
+        try (ZipInputStream zis = new ZipInputStream(data)) {
+            for (ZipEntry entry = zis.getNextEntry(); null != entry; entry = zis.getNextEntry())
+                res.add(entry.getName());
+        }
+        return res;
+    }
+
     @SneakyThrows
     public void createSampleFileSystem(@TempDir final Path sources) {
         Path classFile = sources
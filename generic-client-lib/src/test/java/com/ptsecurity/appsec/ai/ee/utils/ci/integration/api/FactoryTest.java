@@ -0,0 +1,39 @@
+package com.ptsecurity.appsec.ai.ee.utils.ci.integration.api;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@DisplayName("Check API client implementation choice")
+class FactoryTest {
+    protected static List<Class<? extends AbstractApiClient>> matching(final Integer... version) {
+        return Factory.getAllClientImplementations().stream()
+                .filter(c -> Factory.matches(c, Arrays.asList(version)))
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    @DisplayName("Choose single client implementation for supported server version")
+    public void chooseClientByVersion() {
+        Assertions.assertEquals(
+                Arrays.asList(com.ptsecurity.appsec.ai.ee.utils.ci.integration.api.v36.ApiClient.class),
+                matching(3, 6, 5, 3000));
+        Assertions.assertEquals(
+                Arrays.asList(com.ptsecurity.appsec.ai.ee.utils.ci.integration.api.v40.ApiClient.class),
+                matching(4, 0, 0, 1234));
+        Assertions.assertEquals(
+                Arrays.asList(com.ptsecurity.appsec.ai.ee.utils.ci.integration.api.v41.ApiClient.class),
+                matching(4, 1, 0, 12345));
+    }
+
+    @Test
+    @DisplayName("Find no client implementation for unsupported server version")
+    public void skipUnsupportedVersion() {
+        Assertions.assertTrue(matching(3, 5, 0, 0).isEmpty());
+        Assertions.assertTrue(matching(4, 2, 0, 0).isEmpty());
+    }
+}
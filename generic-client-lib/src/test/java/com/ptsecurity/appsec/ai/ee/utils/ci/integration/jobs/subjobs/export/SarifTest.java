@@ -13,10 +13,13 @@ import lombok.NonNull;
 import lombok.SneakyThrows;
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayOutputStream;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 
 import static com.ptsecurity.appsec.ai.ee.scan.reports.Reports.Locale.EN;
@@ -40,4 +43,20 @@ public class SarifTest extends ConverterTest {
         String sarifStr = BaseJsonHelper.createObjectMapper().writerWithDefaultPrettyPrinter().writeValueAsString(sarif);
         JsonNode root = new ObjectMapper().readTree(sarifStr);
     }
-}
\ No newline at end of file
+
+    @SneakyThrows
+    @Test
+    @DisplayName("Check streamed SARIF report is identical to serialized one")
+    public void streamMultiflowReport() {
+        ScanResult scanResult = generateScanResultV36(PHP_SMOKE_MULTIFLOW.getName());
+        for (boolean processGroups : new boolean[] { true, false }) {
+            String expected = BaseJsonHelper.createObjectMapper().writerWithDefaultPrettyPrinter().writeValueAsString(Sarif.convert(scanResult, processGroups));
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            Sarif.write(scanResult, processGroups, out);
+            String actual = new String(out.toByteArray(), StandardCharsets.UTF_8);
+            ObjectMapper mapper = new ObjectMapper();
+            Assertions.assertEquals(mapper.readTree(expected), mapper.readTree(actual));
+            Assertions.assertEquals(expected, actual);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.ptsecurity.appsec.ai.ee.utils.ci.integration.jobs.subjobs.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ptsecurity.appsec.ai.ee.scan.result.ScanResult;
+import com.ptsecurity.appsec.ai.ee.utils.ci.integration.ConverterTest;
+import com.ptsecurity.appsec.ai.ee.utils.ci.integration.utils.json.BaseJsonHelper;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static com.ptsecurity.appsec.ai.ee.utils.ci.integration.client.BaseAstIT.PHP_SMOKE_MULTIFLOW;
+
+@DisplayName("Test SonarQube GIIF report generation")
+public class SonarGiifTest extends ConverterTest {
+    @SneakyThrows
+    @Test
+    @DisplayName("Check streamed GIIF report is identical to serialized one")
+    public void streamMultiflowReport() {
+        ScanResult scanResult = generateScanResultV36(PHP_SMOKE_MULTIFLOW.getName());
+        String expected = BaseJsonHelper.createObjectMapper().writerWithDefaultPrettyPrinter().writeValueAsString(SonarGiif.convert(scanResult));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        SonarGiif.write(scanResult, out);
+        String actual = new String(out.toByteArray(), StandardCharsets.UTF_8);
+        ObjectMapper mapper = new ObjectMapper();
+        Assertions.assertEquals(mapper.readTree(expected), mapper.readTree(actual));
+        Assertions.assertEquals(expected, actual);
+    }
+}
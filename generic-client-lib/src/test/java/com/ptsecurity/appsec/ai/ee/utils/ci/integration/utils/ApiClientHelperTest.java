@@ -0,0 +1,52 @@
+package com.ptsecurity.appsec.ai.ee.utils.ci.integration.utils;
+
+import com.ptsecurity.appsec.ai.ee.utils.ci.integration.api.v41.ApiClient;
+import com.ptsecurity.appsec.ai.ee.utils.ci.integration.domain.AdvancedSettings;
+import com.ptsecurity.appsec.ai.ee.utils.ci.integration.domain.ConnectionSettings;
+import com.ptsecurity.appsec.ai.ee.utils.ci.integration.domain.TokenCredentials;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+
+import static org.joor.Reflect.on;
+
+@DisplayName("Check API clients initialization")
+class ApiClientHelperTest {
+    protected static ApiClient client(final AdvancedSettings settings) {
+        ApiClient client = new ApiClient(ConnectionSettings.builder()
+                .url("https://ptai.domain.org")
+                .credentials(new TokenCredentials("token"))
+                .build(), settings);
+        client.init();
+        return client;
+    }
+
+    @Test
+    @DisplayName("Derive all APIs HTTP clients from single shared one")
+    public void shareHttpClient() {
+        ApiClient client = client(new AdvancedSettings());
+        OkHttpClient shared = client.getHttpClient();
+        Assertions.assertNotNull(shared);
+        Assertions.assertTrue(shared.protocols().contains(Protocol.HTTP_2));
+        for (Object api : client.getApis()) {
+            OkHttpClient httpClient = on(api).call("getApiClient").call("getHttpClient").get();
+            Assertions.assertSame(shared.connectionPool(), httpClient.connectionPool());
+            Assertions.assertSame(shared.dispatcher(), httpClient.dispatcher());
+            Assertions.assertSame(shared.authenticator(), httpClient.authenticator());
+        }
+    }
+
+    @Test
+    @DisplayName("Apply HTTP client advanced settings")
+    public void applyAdvancedSettings() {
+        AdvancedSettings settings = new AdvancedSettings();
+        settings.apply("http.http2 = false\nhttp.dispatcher.max.requests.per.host = 10");
+        OkHttpClient shared = client(settings).getHttpClient();
+        Assertions.assertEquals(Collections.singletonList(Protocol.HTTP_1_1), shared.protocols());
+        Assertions.assertEquals(10, shared.dispatcher().getMaxRequestsPerHost());
+    }
+}
@@ -0,0 +1,104 @@
+package com.ptsecurity.appsec.ai.ee.utils.ci.integration.utils;
+
+import com.ptsecurity.appsec.ai.ee.scan.result.ScanBrief;
+import com.ptsecurity.appsec.ai.ee.utils.ci.integration.domain.ConnectionSettings;
+import com.ptsecurity.appsec.ai.ee.utils.ci.integration.domain.JwtResponse;
+import com.ptsecurity.appsec.ai.ee.utils.ci.integration.domain.TokenCredentials;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermissions;
+
+@DisplayName("Check persistent authentication cache")
+class AuthCacheTest {
+    protected static ConnectionSettings connectionSettings(final String url, final String token) {
+        return ConnectionSettings.builder()
+                .url(url)
+                .credentials(new TokenCredentials(token))
+                .build();
+    }
+
+    @SneakyThrows
+    @Test
+    @DisplayName("Store JWT by server URL and credentials")
+    public void storeJwt(@TempDir final Path temp) {
+        AuthCache cache = new AuthCache(temp.resolve("cache").resolve("auth-cache.json"));
+        ConnectionSettings settings = connectionSettings("https://ptai.domain.org/", "token");
+        cache.put(settings, new AuthCache.Entry(ScanBrief.ApiVersion.V41, new JwtResponse("access", "refresh", "2030-01-01T00:00:00Z")));
+
+        AuthCache.Entry entry = new AuthCache(cache.getFile()).get(connectionSettings("https://ptai.domain.org", "token"));
+        Assertions.assertNotNull(entry);
+        Assertions.assertEquals(ScanBrief.ApiVersion.V41, entry.getApiVersion());
+        Assertions.assertEquals("refresh", entry.getJwt().getRefreshToken());
+        Assertions.assertNull(cache.get(connectionSettings("https://ptai.domain.org", "other-token")));
+        Assertions.assertNull(cache.get(connectionSettings("https://other.domain.org", "token")));
+        // Credentials are never stored as is
+        Assertions.assertFalse(new String(Files.readAllBytes(cache.getFile()), StandardCharsets.UTF_8).contains("token\""));
+
+        cache.remove(settings);
+        Assertions.assertNull(cache.get(settings));
+    }
+
+    @SneakyThrows
+    @Test
+    @DisplayName("Use random HMAC key for every cache file")
+    public void useRandomKey(@TempDir final Path temp) {
+        ConnectionSettings settings = connectionSettings("https://ptai.domain.org", "token");
+        AuthCache first = new AuthCache(temp.resolve("first.json"));
+        first.put(settings, new AuthCache.Entry(ScanBrief.ApiVersion.V41, new JwtResponse()));
+        AuthCache second = new AuthCache(temp.resolve("second.json"));
+        second.put(settings, new AuthCache.Entry(ScanBrief.ApiVersion.V41, new JwtResponse()));
+        Assertions.assertNotEquals(
+                first.load().getEntries().keySet(),
+                second.load().getEntries().keySet());
+    }
+
+    @SneakyThrows
+    @Test
+    @DisplayName("Expire cache entries after time-to-live")
+    public void expireEntries(@TempDir final Path temp) {
+        ConnectionSettings settings = connectionSettings("https://ptai.domain.org", "token");
+        AuthCache cache = new AuthCache(temp.resolve("auth-cache.json"), 60);
+        AuthCache.Entry entry = new AuthCache.Entry(ScanBrief.ApiVersion.V41, new JwtResponse());
+        entry.setCreated(System.currentTimeMillis() - 120 * 1000L);
+        cache.put(settings, entry);
+        Assertions.assertNull(cache.get(settings));
+        // JWT refresh must not extend API version time-to-live
+        cache.put(settings, new AuthCache.Entry(ScanBrief.ApiVersion.V41, new JwtResponse("access", "refresh", "2030-01-01T00:00:00Z")));
+        Assertions.assertNull(cache.get(settings));
+        // Another API version detected
+        cache.put(settings, new AuthCache.Entry(ScanBrief.ApiVersion.V40, new JwtResponse()));
+        Assertions.assertNotNull(cache.get(settings));
+    }
+
+    @SneakyThrows
+    @Test
+    @DisplayName("Restrict cache file access to its owner")
+    public void restrictPermissions(@TempDir final Path temp) {
+        Assumptions.assumeTrue(null != Files.getFileAttributeView(temp, PosixFileAttributeView.class));
+        AuthCache cache = new AuthCache(temp.resolve("cache").resolve("auth-cache.json"));
+        cache.put(connectionSettings("https://ptai.domain.org", "token"), new AuthCache.Entry(ScanBrief.ApiVersion.V40, new JwtResponse()));
+        Assertions.assertEquals("rw-------", PosixFilePermissions.toString(Files.getPosixFilePermissions(cache.getFile())));
+        Assertions.assertEquals("rwx------", PosixFilePermissions.toString(Files.getPosixFilePermissions(cache.getFile().getParent())));
+    }
+
+    @SneakyThrows
+    @Test
+    @DisplayName("Ignore corrupted cache file")
+    public void ignoreCorruptedCache(@TempDir final Path temp) {
+        AuthCache cache = new AuthCache(temp.resolve("auth-cache.json"));
+        Files.write(cache.getFile(), "{ corrupted".getBytes(StandardCharsets.UTF_8));
+        ConnectionSettings settings = connectionSettings("https://ptai.domain.org", "token");
+        Assertions.assertNull(cache.get(settings));
+        cache.put(settings, new AuthCache.Entry(ScanBrief.ApiVersion.V36, new JwtResponse()));
+        Assertions.assertNotNull(cache.get(settings));
+    }
+}
@@ -0,0 +1,98 @@
+package com.ptsecurity.appsec.ai.ee.utils.ci.integration.utils;
+
+import com.ptsecurity.appsec.ai.ee.scan.reports.Reports;
+import com.ptsecurity.appsec.ai.ee.utils.ci.integration.exceptions.GenericException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.FileNotFoundException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static com.ptsecurity.appsec.ai.ee.utils.ci.integration.utils.CallHelper.callConcurrently;
+
+@DisplayName("Check concurrent calls helper")
+class CallHelperTest {
+    @Test
+    @DisplayName("Call function for all locales concurrently")
+    public void callForAllLocales() {
+        CountDownLatch latch = new CountDownLatch(Reports.Locale.values().length);
+        Map<Reports.Locale, String> res = callConcurrently(Arrays.asList(Reports.Locale.values()), Reports.Locale.values().length, locale -> {
+            latch.countDown();
+            // Each call waits for others to start so calls that are made sequentially will fail
+            if (!latch.await(10, TimeUnit.SECONDS)) throw new IllegalStateException("Calls aren't concurrent");
+            return locale.getCode();
+        }, code -> Assertions.fail("Unexpected cleanup"), "Call failed");
+        Assertions.assertEquals(Arrays.asList(Reports.Locale.values()), new ArrayList<>(res.keySet()));
+        for (Reports.Locale locale : Reports.Locale.values())
+            Assertions.assertEquals(locale.getCode(), res.get(locale));
+    }
+
+    @Test
+    @DisplayName("Fail if any of concurrent calls failed and cleanup results of successful ones")
+    public void failConcurrentCall() {
+        List<Integer> keys = IntStream.range(0, 10).boxed().collect(Collectors.toList());
+        List<Integer> cleaned = Collections.synchronizedList(new ArrayList<>());
+        GenericException e = Assertions.assertThrows(GenericException.class, () -> callConcurrently(keys, 3, key -> {
+            if (5 == key) throw new FileNotFoundException(key.toString());
+            return key;
+        }, cleaned::add, "Call failed"));
+        Assertions.assertTrue(e.getCause() instanceof FileNotFoundException);
+        Assertions.assertEquals(keys.size() - 1, cleaned.size());
+        Assertions.assertFalse(cleaned.contains(5));
+    }
+
+    @Test
+    @DisplayName("Call function for all keys using bounded parallelism")
+    public void callWithBoundedParallelism() {
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger maxActive = new AtomicInteger();
+        List<Integer> processed = Collections.synchronizedList(new ArrayList<>());
+        List<Integer> keys = IntStream.range(0, 20).boxed().collect(Collectors.toList());
+        callConcurrently(keys, 3, key -> {
+            maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+            Thread.sleep(20);
+            active.decrementAndGet();
+            processed.add(key);
+        }, "Call failed");
+        Assertions.assertEquals(keys.size(), processed.size());
+        Assertions.assertTrue(maxActive.get() <= 3);
+        Assertions.assertTrue(maxActive.get() > 1);
+    }
+
+    @Test
+    @DisplayName("Complete all bounded parallelism calls if one of them failed")
+    public void failBoundedParallelismCall() {
+        List<Integer> processed = Collections.synchronizedList(new ArrayList<>());
+        List<Integer> keys = IntStream.range(0, 10).boxed().collect(Collectors.toList());
+        GenericException e = Assertions.assertThrows(GenericException.class, () -> callConcurrently(keys, 2, key -> {
+            if (0 == key) throw new FileNotFoundException(key.toString());
+            processed.add(key);
+        }, "Call failed"));
+        Assertions.assertTrue(e.getCause() instanceof FileNotFoundException);
+        Assertions.assertEquals(keys.size() - 1, processed.size());
+    }
+
+    @Test
+    @DisplayName("Complete all sequential calls if one of them failed")
+    public void failSequentialCall() {
+        List<Integer> processed = new ArrayList<>();
+        List<Integer> keys = IntStream.range(0, 10).boxed().collect(Collectors.toList());
+        GenericException e = Assertions.assertThrows(GenericException.class, () -> callConcurrently(keys, 1, key -> {
+            if (0 == key || 5 == key) throw new FileNotFoundException(key.toString());
+            processed.add(key);
+        }, "Call failed"));
+        Assertions.assertTrue(e.getCause() instanceof FileNotFoundException);
+        Assertions.assertEquals("0", e.getCause().getMessage());
+        Assertions.assertEquals(keys.size() - 2, processed.size());
+    }
+}
@@ -0,0 +1,53 @@
+package com.ptsecurity.appsec.ai.ee.utils.ci.integration.utils;
+
+import com.ptsecurity.appsec.ai.ee.scan.reports.Reports;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+@DisplayName("Check expiring cache")
+class ExpiringCacheTest {
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private String load(final Reports.Locale locale) {
+        loads.incrementAndGet();
+        return locale.getCode();
+    }
+
+    @Test
+    @DisplayName("Load value once till cache is cleared")
+    public void loadOnce() {
+        ExpiringCache<Reports.Locale, String> cache = new ExpiringCache<>(300);
+        for (int i = 0; i < 3; i++)
+            for (Reports.Locale locale : Reports.Locale.values())
+                Assertions.assertEquals(locale.getCode(), cache.get(locale, () -> load(locale)));
+        Assertions.assertEquals(Reports.Locale.values().length, loads.get());
+        cache.clear();
+        cache.get(Reports.Locale.EN, () -> load(Reports.Locale.EN));
+        Assertions.assertEquals(Reports.Locale.values().length + 1, loads.get());
+    }
+
+    @Test
+    @DisplayName("Load value every time if caching is disabled")
+    public void loadWithoutCaching() {
+        ExpiringCache<Reports.Locale, String> cache = new ExpiringCache<>(0);
+        for (int i = 0; i < 3; i++)
+            cache.get(Reports.Locale.EN, () -> load(Reports.Locale.EN));
+        Assertions.assertEquals(3, loads.get());
+    }
+
+    @Test
+    @DisplayName("Do not cache failed load")
+    public void retryFailedLoad() {
+        ExpiringCache<Reports.Locale, String> cache = new ExpiringCache<>(300);
+        Assertions.assertThrows(IllegalStateException.class, () -> cache.get(Reports.Locale.EN, () -> {
+            loads.incrementAndGet();
+            throw new IllegalStateException();
+        }));
+        Assertions.assertEquals(Reports.Locale.EN.getCode(), cache.get(Reports.Locale.EN, () -> load(Reports.Locale.EN)));
+        Assertions.assertEquals(Reports.Locale.EN.getCode(), cache.get(Reports.Locale.EN, () -> load(Reports.Locale.EN)));
+        Assertions.assertEquals(2, loads.get());
+    }
+}
@@ -0,0 +1,90 @@
+package com.ptsecurity.appsec.ai.ee.utils.ci.integration.utils;
+
+import com.google.gson.Gson;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@DisplayName("Check issues model streaming reader")
+class IssuesModelReaderTest {
+    static class Description {
+        String identity;
+    }
+
+    static class Metadata {
+        String key;
+    }
+
+    static class Issue {
+        String id;
+        String type;
+    }
+
+    private static final String DESCRIPTIONS = "\"Descriptions\": { \"a\": { \"identity\": \"a\", \"link\": \"x\" }, \"b\": { \"identity\": \"b\" } }";
+    private static final String METADATAS = "\"metadatas\": { \"a\": { \"key\": \"a\" }, \"b\": { \"key\": \"b\" } }";
+    private static final String ISSUES = "\"issues\": [ { \"id\": \"1\", \"type\": \"a\" }, { \"id\": \"2\", \"type\": \"b\" }, { \"id\": \"3\", \"type\": \"a\" } ]";
+
+    private final IssuesModelReader<Description, Metadata, Issue> reader = new IssuesModelReader<>(new Gson(), Description.class, Metadata.class, Issue.class);
+
+    @SneakyThrows
+    private void checkRead(final File data) {
+        Set<String> descriptions = new HashSet<>();
+        Set<String> metadatas = new HashSet<>();
+        List<String> issues = new ArrayList<>();
+        reader.read(
+                data,
+                d -> descriptions.add(d.identity),
+                m -> metadatas.add(m.key),
+                i -> {
+                    // Issue must be linked to already known description and metadata
+                    Assertions.assertTrue(descriptions.contains(i.type));
+                    Assertions.assertTrue(metadatas.contains(i.type));
+                    issues.add(i.id);
+                });
+        Assertions.assertEquals(2, descriptions.size());
+        Assertions.assertEquals(2, metadatas.size());
+        Assertions.assertEquals(3, issues.size());
+        Assertions.assertEquals("1", issues.get(0));
+        Assertions.assertEquals("3", issues.get(2));
+    }
+
+    @SneakyThrows
+    @Test
+    @DisplayName("Read issues that follow descriptions and metadatas")
+    public void readOrderedModel(@TempDir final Path folder) {
+        Path data = folder.resolve("issues.json");
+        Files.write(data, ("{ " + DESCRIPTIONS + ", " + METADATAS + ", \"unknown\": [ 1, 2 ], " + ISSUES + " }").getBytes(StandardCharsets.UTF_8));
+        checkRead(data.toFile());
+    }
+
+    @SneakyThrows
+    @Test
+    @DisplayName("Read issues that precede descriptions and metadatas")
+    public void readUnorderedModel(@TempDir final Path folder) {
+        Path data = folder.resolve("issues.json");
+        Files.write(data, ("{ " + ISSUES + ", " + METADATAS + ", " + DESCRIPTIONS + " }").getBytes(StandardCharsets.UTF_8));
+        checkRead(data.toFile());
+    }
+
+    @SneakyThrows
+    @Test
+    @DisplayName("Read descriptions only from model with null fields")
+    public void readDescriptions(@TempDir final Path folder) {
+        Path data = folder.resolve("issues.json");
+        Files.write(data, ("{ \"issues\": null, \"metadatas\": null, " + DESCRIPTIONS + " }").getBytes(StandardCharsets.UTF_8));
+        Set<String> descriptions = new HashSet<>();
+        reader.readDescriptions(data.toFile(), d -> descriptions.add(d.identity));
+        Assertions.assertEquals(2, descriptions.size());
+    }
+}
@@ -0,0 +1,36 @@
+package com.ptsecurity.appsec.ai.ee.utils.ci.integration.utils;
+
+import com.ptsecurity.appsec.ai.ee.utils.ci.integration.domain.JwtResponse;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+@DisplayName("Check background JWT refresh scheduling")
+class JwtRefresherTest {
+    @Test
+    @DisplayName("Parse JWT expiration timestamp")
+    public void parseExpiration() {
+        OffsetDateTime expiredAt = OffsetDateTime.of(2021, 10, 20, 12, 30, 0, 0, ZoneOffset.ofHours(3));
+        JwtResponse jwt = new JwtResponse("access", "refresh", expiredAt.toString());
+        Assertions.assertEquals(expiredAt.toInstant(), JwtRefresher.expiration(jwt));
+
+        jwt.setExpiredAt("not a timestamp");
+        Assertions.assertNull(JwtRefresher.expiration(jwt));
+        jwt.setExpiredAt(null);
+        Assertions.assertNull(JwtRefresher.expiration(jwt));
+    }
+
+    @Test
+    @DisplayName("Refresh JWT before expiration")
+    public void calculateDelay() {
+        Instant now = Instant.now();
+        Assertions.assertEquals(240_000, JwtRefresher.delay(now.plusSeconds(300), now, 60));
+        // Short-living token is refreshed in the middle of its lifetime
+        Assertions.assertEquals(15_000, JwtRefresher.delay(now.plusSeconds(30), now, 60));
+        Assertions.assertEquals(0, JwtRefresher.delay(now.minusSeconds(1), now, 60));
+    }
+}
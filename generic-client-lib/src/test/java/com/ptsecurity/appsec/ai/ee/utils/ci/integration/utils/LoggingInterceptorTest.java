@@ -0,0 +1,152 @@
+package com.ptsecurity.appsec.ai.ee.utils.ci.integration.utils;
+
+import com.ptsecurity.appsec.ai.ee.utils.ci.integration.domain.AdvancedSettings;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.*;
+import okio.Buffer;
+import okio.BufferedSource;
+import okio.Okio;
+import okio.Source;
+import okio.Timeout;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.Callable;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static com.ptsecurity.appsec.ai.ee.utils.ci.integration.domain.AdvancedSettings.SettingInfo.LOGGING_HTTP_RESPONSE_MAX_BODY_SIZE;
+
+@Slf4j
+@DisplayName("Check HTTP requests and responses logging")
+class LoggingInterceptorTest {
+    /**
+     * Response body source that generates data on the fly and counts bytes read from it
+     */
+    @Getter
+    @RequiredArgsConstructor
+    protected static class GeneratedSource implements Source {
+        private static final byte[] CHUNK = new byte[8192];
+
+        protected final long size;
+
+        protected long read = 0;
+
+        @Override
+        public long read(@NonNull final Buffer sink, final long byteCount) {
+            if (read >= size) return -1;
+            int count = (int) Math.min(Math.min(byteCount, size - read), CHUNK.length);
+            sink.write(CHUNK, 0, count);
+            read += count;
+            return count;
+        }
+
+        @Override
+        public Timeout timeout() {
+            return Timeout.NONE;
+        }
+
+        @Override
+        public void close() {}
+    }
+
+    /**
+     * JUL logger that slf4j-jdk14 binding uses for {@link LoggingInterceptor}. Need to keep
+     * strong reference to it as JUL holds loggers weakly and level change may be lost
+     */
+    private final Logger logger = Logger.getLogger(LoggingInterceptor.class.getName());
+
+    /**
+     * Create HTTP client that responds to any request with generated body
+     */
+    protected static OkHttpClient client(@NonNull final GeneratedSource source) {
+        return new OkHttpClient.Builder()
+                .addInterceptor(new LoggingInterceptor(AdvancedSettings.getDefault()))
+                .addInterceptor(chain -> new Response.Builder()
+                        .request(chain.request())
+                        .protocol(Protocol.HTTP_1_1)
+                        .code(200)
+                        .message("OK")
+                        .body(ResponseBody.create(MediaType.parse("application/json"), source.getSize(), Okio.buffer(source)))
+                        .build())
+                .build();
+    }
+
+    /**
+     * Download generated response body and discard its data
+     * @return Number of bytes downloaded
+     */
+    @SneakyThrows
+    protected static long download(@NonNull final OkHttpClient client, @NonNull final GeneratedSource source, final Runnable onChunk) {
+        try (Response response = client.newCall(new Request.Builder().url("http://localhost/api/issues").build()).execute()) {
+            // Response body must not be read before client starts downloading it
+            Assertions.assertTrue(source.getRead() <= AdvancedSettings.getDefault().getInt(LOGGING_HTTP_RESPONSE_MAX_BODY_SIZE) + 8192);
+            BufferedSource body = response.body().source();
+            Buffer buffer = new Buffer();
+            long res = 0;
+            for (long count; -1 != (count = body.read(buffer, 8192)); res += count) {
+                buffer.clear();
+                if (null != onChunk) onChunk.run();
+            }
+            return res;
+        }
+    }
+
+    @SneakyThrows
+    protected <T> T withLevel(@NonNull final Level level, @NonNull final Callable<T> callable) {
+        Level current = logger.getLevel();
+        logger.setLevel(level);
+        try {
+            return callable.call();
+        } finally {
+            logger.setLevel(current);
+        }
+    }
+
+    @Test
+    @DisplayName("Do not read response body if trace logging is disabled")
+    public void skipResponseBodyWithoutTrace() {
+        GeneratedSource source = new GeneratedSource(10 * 1024 * 1024);
+        long size = withLevel(Level.INFO, () -> {
+            try (Response response = client(source).newCall(new Request.Builder().url("http://localhost/api/issues").build()).execute()) {
+                Assertions.assertEquals(0, source.getRead());
+                return response.body().bytes().length;
+            }
+        });
+        Assertions.assertEquals(source.getSize(), size);
+    }
+
+    @Test
+    @DisplayName("Peek limited response body part if trace logging is enabled")
+    public void peekResponseBodyWithTrace() {
+        GeneratedSource source = new GeneratedSource(10 * 1024 * 1024);
+        long size = withLevel(Level.FINEST, () -> download(client(source), source, null));
+        Assertions.assertEquals(source.getSize(), size);
+    }
+
+    @Test
+    @Tag("development")
+    @DisplayName("Measure heap usage while downloading 500 MB response body")
+    public void measureLargeResponseBodyHeapUsage() {
+        final long[] maxUsed = { 0 };
+        final Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        final long baseline = runtime.totalMemory() - runtime.freeMemory();
+        for (Level level : new Level[] { Level.INFO, Level.FINEST }) {
+            maxUsed[0] = 0;
+            GeneratedSource source = new GeneratedSource(500L * 1024 * 1024);
+            long size = withLevel(level, () -> download(client(source), source,
+                    () -> maxUsed[0] = Math.max(maxUsed[0], runtime.totalMemory() - runtime.freeMemory())));
+            Assertions.assertEquals(source.getSize(), size);
+            log.info("Logging level {}: peak heap usage growth is {} MB", level, (maxUsed[0] - baseline) / 1024 / 1024);
+            // Buffered response body would take at least 500 MB of heap
+            Assertions.assertTrue(maxUsed[0] - baseline < source.getSize() / 2);
+        }
+    }
+}
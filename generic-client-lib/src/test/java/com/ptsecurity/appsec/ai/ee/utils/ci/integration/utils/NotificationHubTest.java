@@ -0,0 +1,95 @@
+package com.ptsecurity.appsec.ai.ee.utils.ci.integration.utils;
+
+import com.microsoft.signalr.HubConnection;
+import com.microsoft.signalr.HubConnectionBuilder;
+import com.ptsecurity.appsec.ai.ee.scan.progress.Stage;
+import com.ptsecurity.appsec.ai.ee.utils.ci.integration.exceptions.GenericException;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@DisplayName("Check SignalR connection sharing between scans")
+class NotificationHubTest {
+    private final AtomicInteger connections = new AtomicInteger();
+
+    private final List<Set<UUID>> subscriptions = new CopyOnWriteArrayList<>();
+
+    /**
+     * Hub with connections that aren't started as there's no PT AI server to connect to
+     */
+    private final NotificationHub<Stage> hub = new NotificationHub<>(
+            () -> {
+                connections.incrementAndGet();
+                return HubConnectionBuilder.create("http://localhost/notifyApi/notifications").build();
+            },
+            (connection, projectIds) -> subscriptions.add(new HashSet<>(projectIds)));
+
+    @Test
+    @DisplayName("Share single connection between concurrent scans")
+    public void shareConnection() {
+        UUID projectId = UUID.randomUUID();
+        UUID otherProjectId = UUID.randomUUID();
+        UUID firstScanResultId = UUID.randomUUID();
+        UUID secondScanResultId = UUID.randomUUID();
+        UUID thirdScanResultId = UUID.randomUUID();
+        ScanCompletionWaiter<Stage> waiter = new ScanCompletionWaiter<>(() -> null, 1, 1, TimeUnit.HOURS);
+
+        hub.register(firstScanResultId, new NotificationHub.Listener<>(projectId, waiter, null, null));
+        hub.register(secondScanResultId, new NotificationHub.Listener<>(projectId, null, null, null));
+        Assertions.assertEquals(1, connections.get());
+        // Same project scan doesn't require resubscription
+        Assertions.assertEquals(Collections.singletonList(Collections.singleton(projectId)), subscriptions);
+
+        hub.register(thirdScanResultId, new NotificationHub.Listener<>(otherProjectId, null, null, null));
+        Assertions.assertEquals(1, connections.get());
+        Assertions.assertEquals(new HashSet<>(Arrays.asList(projectId, otherProjectId)), subscriptions.get(1));
+
+        Assertions.assertSame(waiter, hub.listener(firstScanResultId).getWaiter());
+        Assertions.assertEquals(otherProjectId, hub.listener(thirdScanResultId).getProjectId());
+        Assertions.assertNull(hub.listener(UUID.randomUUID()));
+
+        hub.unregister(firstScanResultId);
+        Assertions.assertNull(hub.listener(firstScanResultId));
+        hub.subscribe();
+        Assertions.assertEquals(new HashSet<>(Arrays.asList(projectId, otherProjectId)), subscriptions.get(2));
+        hub.unregister(secondScanResultId);
+        hub.unregister(thirdScanResultId);
+
+        // Last listener unregistration closes connection so next scan opens new one
+        hub.register(UUID.randomUUID(), new NotificationHub.Listener<>(projectId, null, null, null));
+        Assertions.assertEquals(2, connections.get());
+    }
+
+    @SneakyThrows
+    @Test
+    @DisplayName("Retry connection start in background")
+    public void retryConnectionStart() {
+        AtomicInteger attempts = new AtomicInteger();
+        NotificationHub<Stage> failing = new NotificationHub<>(
+                () -> {
+                    if (1 == attempts.incrementAndGet()) throw GenericException.raise("SignalR connection start failed", new IOException());
+                    return HubConnectionBuilder.create("http://localhost/notifyApi/notifications").build();
+                },
+                (connection, projectIds) -> subscriptions.add(new HashSet<>(projectIds)));
+        UUID projectId = UUID.randomUUID();
+        UUID scanResultId = UUID.randomUUID();
+
+        // Start failure must not prevent scan state polling
+        failing.register(scanResultId, new NotificationHub.Listener<>(projectId, null, null, null));
+        Assertions.assertNotNull(failing.listener(scanResultId));
+        Assertions.assertEquals(1, attempts.get());
+        Assertions.assertTrue(subscriptions.isEmpty());
+
+        for (int i = 0; i < 50 && subscriptions.isEmpty(); i++) Thread.sleep(100);
+        Assertions.assertEquals(2, attempts.get());
+        Assertions.assertEquals(Collections.singletonList(Collections.singleton(projectId)), subscriptions);
+        failing.unregister(scanResultId);
+    }
+}
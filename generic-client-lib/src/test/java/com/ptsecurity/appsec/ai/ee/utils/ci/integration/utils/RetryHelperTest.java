@@ -0,0 +1,173 @@
+package com.ptsecurity.appsec.ai.ee.utils.ci.integration.utils;
+
+import com.ptsecurity.appsec.ai.ee.utils.ci.integration.AbstractTool;
+import com.ptsecurity.appsec.ai.ee.utils.ci.integration.exceptions.GenericException;
+import com.sun.net.httpserver.HttpServer;
+import lombok.SneakyThrows;
+import okhttp3.MediaType;
+import okhttp3.MultipartBody;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import org.apache.commons.io.IOUtils;
+import org.apache.http.client.HttpResponseException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@DisplayName("Check sources upload is repeated after failures injected by local server")
+class RetryHelperTest {
+    /**
+     * Stand-in upload server that answers with predefined HTTP codes. Zero code means
+     * that connection is to be closed without response
+     */
+    private HttpServer server;
+    private final Deque<Integer> responses = new ArrayDeque<>();
+    private final AtomicInteger requests = new AtomicInteger();
+    private volatile byte[] lastBody;
+
+    @SneakyThrows
+    @BeforeEach
+    public void startServer() {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/api/store", exchange -> {
+            requests.incrementAndGet();
+            byte[] body = IOUtils.toByteArray(exchange.getRequestBody());
+            Integer code = responses.poll();
+            if (null == code) code = 200;
+            if (0 == code) {
+                exchange.close();
+                return;
+            }
+            if (200 == code) lastBody = body;
+            exchange.sendResponseHeaders(code, -1);
+            exchange.close();
+        });
+        server.start();
+    }
+
+    @AfterEach
+    public void stopServer() {
+        server.stop(0);
+    }
+
+    private Request template(final RequestBody file) {
+        return new Request.Builder()
+                .url("http://127.0.0.1:" + server.getAddress().getPort() + "/api/store/" + UUID.randomUUID() + "/sources")
+                .post(new MultipartBody.Builder()
+                        .setType(MultipartBody.FORM)
+                        .addFormDataPart("file", ZipRequestBody.FILE_NAME, file)
+                        .build())
+                .build();
+    }
+
+    private static final RetryHelper RETRY = RetryHelper.builder().attempts(4).delay(10).build();
+
+    @SneakyThrows
+    @Test
+    @DisplayName("File upload is repeated after server errors and connection reset")
+    public void repeatFileUpload(@TempDir final Path folder) {
+        File file = folder.resolve("sources.zip").toFile();
+        Files.write(file.toPath(), UUID.randomUUID().toString().getBytes(StandardCharsets.UTF_8));
+        responses.addAll(Arrays.asList(503, 0, 500));
+        OkHttpClient client = new OkHttpClient.Builder().retryOnConnectionFailure(false).build();
+        Request request = template(RequestBody.create(file, MediaType.parse("application/zip")));
+
+        RETRY.call(() -> {
+            try (Response response = client.newCall(request).execute()) {
+                if (!response.isSuccessful())
+                    throw new HttpResponseException(response.code(), "Upload failed");
+            }
+        }, "Upload failed");
+        Assertions.assertEquals(4, requests.get());
+        Assertions.assertNotNull(lastBody);
+    }
+
+    @SneakyThrows
+    @Test
+    @DisplayName("Streaming upload is repeated after server error and client error is not")
+    public void repeatStreamingUpload(@TempDir final Path sources) {
+        Files.write(sources.resolve("Source.java"), UUID.randomUUID().toString().getBytes(StandardCharsets.UTF_8));
+        ZipRequestBody body = FileCollector.stream(null, sources.toFile(), new AbstractTool() {});
+        OkHttpClient client = new OkHttpClient.Builder().retryOnConnectionFailure(false).build();
+
+        responses.addAll(Arrays.asList(502, 503));
+        Assertions.assertTrue(RETRY.call(() -> body.upload(client, template(body)), "Upload failed"));
+        Assertions.assertEquals(3, requests.get());
+        Assertions.assertTrue(lastBody.length >= body.getSize());
+
+        requests.set(0);
+        responses.add(403);
+        Assertions.assertThrows(GenericException.class, () -> RETRY.call(() -> body.upload(client, template(body)), "Upload failed"));
+        Assertions.assertEquals(1, requests.get());
+
+        requests.set(0);
+        responses.add(411);
+        Assertions.assertFalse(RETRY.call(() -> body.upload(client, template(body)), "Upload failed"));
+        Assertions.assertEquals(1, requests.get());
+    }
+
+    @SneakyThrows
+    @Test
+    @DisplayName("Streaming upload is not repeated if source file can't be read")
+    public void failOnUnreadableSource(@TempDir final Path sources) {
+        Path source = sources.resolve("Source.java");
+        Files.write(source, UUID.randomUUID().toString().getBytes(StandardCharsets.UTF_8));
+        ZipRequestBody body = FileCollector.stream(null, sources.toFile(), new AbstractTool() {});
+        OkHttpClient client = new OkHttpClient.Builder().retryOnConnectionFailure(false).build();
+        // Source file removed after it was collected
+        Files.delete(source);
+
+        AtomicInteger attempts = new AtomicInteger();
+        GenericException e = Assertions.assertThrows(GenericException.class, () -> RETRY.call(() -> {
+            attempts.incrementAndGet();
+            return body.upload(client, template(body));
+        }, "Upload failed"));
+        Assertions.assertEquals(1, attempts.get());
+        Assertions.assertFalse(RetryHelper.isRetryable(e));
+    }
+
+    @Test
+    @DisplayName("Only network errors and transient server errors are retryable")
+    public void checkRetryable() {
+        Assertions.assertTrue(RetryHelper.isRetryable(new HttpResponseException(503, "Service unavailable")));
+        Assertions.assertTrue(RetryHelper.isRetryable(new HttpResponseException(429, "Too many requests")));
+        Assertions.assertFalse(RetryHelper.isRetryable(new HttpResponseException(501, "Not implemented")));
+        Assertions.assertFalse(RetryHelper.isRetryable(new HttpResponseException(505, "HTTP version not supported")));
+        Assertions.assertFalse(RetryHelper.isRetryable(new HttpResponseException(401, "Unauthorized")));
+
+        Assertions.assertTrue(RetryHelper.isRetryable(new com.ptsecurity.appsec.ai.ee.server.v41.filesstore.ApiException(new SocketException("Connection reset"))));
+        Assertions.assertTrue(RetryHelper.isRetryable(new com.ptsecurity.appsec.ai.ee.server.v40.filesstore.ApiException(502, "Bad gateway")));
+        Assertions.assertFalse(RetryHelper.isRetryable(new com.ptsecurity.appsec.ai.ee.server.v36.filesstore.ApiException(0, "Request serialization failed")));
+        Assertions.assertFalse(RetryHelper.isRetryable(new com.ptsecurity.appsec.ai.ee.server.v41.filesstore.ApiException(new IllegalArgumentException())));
+        Assertions.assertFalse(RetryHelper.isRetryable(new com.ptsecurity.appsec.ai.ee.server.v41.filesstore.ApiException(new NoSuchFileException("sources.zip"))));
+
+        Assertions.assertTrue(RetryHelper.isRetryable(new SocketTimeoutException("Read timed out")));
+        Assertions.assertTrue(RetryHelper.isRetryable(new IOException(new EOFException())));
+        Assertions.assertFalse(RetryHelper.isRetryable(new AccessDeniedException("Source.java")));
+        Assertions.assertFalse(RetryHelper.isRetryable(new IOException(new FileNotFoundException("sources.zip"))));
+        Assertions.assertFalse(RetryHelper.isRetryable(new IOException("Bad CRC checksum")));
+    }
+}
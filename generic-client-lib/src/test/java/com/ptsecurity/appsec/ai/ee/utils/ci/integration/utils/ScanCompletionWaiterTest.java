@@ -0,0 +1,71 @@
+package com.ptsecurity.appsec.ai.ee.utils.ci.integration.utils;
+
+import com.ptsecurity.appsec.ai.ee.scan.progress.Stage;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@DisplayName("Check scan completion wait")
+class ScanCompletionWaiterTest {
+    @Test
+    @SneakyThrows
+    @DisplayName("Detect scan completion by polling with growing interval")
+    public void detectCompletionByPolling() {
+        List<Long> polls = new CopyOnWriteArrayList<>();
+        ScanCompletionWaiter<Stage> waiter = new ScanCompletionWaiter<>(() -> {
+            polls.add(System.nanoTime());
+            return 4 == polls.size() ? Stage.DONE : null;
+        }, 20, 1000, TimeUnit.MILLISECONDS);
+        Assertions.assertEquals(Stage.DONE, waiter.start().await());
+        Assertions.assertEquals(4, polls.size());
+        for (int i = 2; i < polls.size(); i++) {
+            long previous = polls.get(i - 1) - polls.get(i - 2);
+            long current = polls.get(i) - polls.get(i - 1);
+            Assertions.assertTrue(current > previous, "Poll interval must grow");
+        }
+    }
+
+    @Test
+    @SneakyThrows
+    @DisplayName("Postpone polling while scan progress notifications are received")
+    public void postponePollingOnProgress() {
+        AtomicInteger polls = new AtomicInteger();
+        ScanCompletionWaiter<Stage> waiter = new ScanCompletionWaiter<>(() -> {
+            polls.incrementAndGet();
+            return null;
+        }, 200, 1000, TimeUnit.MILLISECONDS).start();
+        for (int i = 0; i < 10; i++) {
+            Thread.sleep(50);
+            waiter.progress();
+        }
+        Assertions.assertEquals(0, polls.get());
+        waiter.complete(Stage.DONE);
+        Assertions.assertEquals(Stage.DONE, waiter.await());
+        Thread.sleep(300);
+        Assertions.assertEquals(0, polls.get());
+    }
+
+    @Test
+    @SneakyThrows
+    @DisplayName("Stop polling if wait is cancelled")
+    public void stopPollingOnCancel() {
+        AtomicInteger polls = new AtomicInteger();
+        ScanCompletionWaiter<Stage> waiter = new ScanCompletionWaiter<>(() -> {
+            polls.incrementAndGet();
+            throw new IllegalStateException("Server unavailable");
+        }, 10, 10, TimeUnit.MILLISECONDS).start();
+        Thread.sleep(100);
+        Assertions.assertTrue(polls.get() > 1, "Polling must survive poll errors");
+        waiter.future().cancel(false);
+        Thread.sleep(50);
+        int count = polls.get();
+        Thread.sleep(100);
+        Assertions.assertEquals(count, polls.get());
+    }
+}
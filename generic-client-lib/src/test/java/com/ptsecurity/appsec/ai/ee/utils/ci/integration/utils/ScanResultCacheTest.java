@@ -0,0 +1,92 @@
+package com.ptsecurity.appsec.ai.ee.utils.ci.integration.utils;
+
+import com.ptsecurity.appsec.ai.ee.scan.reports.Reports;
+import com.ptsecurity.appsec.ai.ee.scan.result.ScanResult;
+import com.ptsecurity.appsec.ai.ee.scan.result.issue.types.BaseIssue;
+import com.ptsecurity.appsec.ai.ee.scan.result.issue.types.VulnerabilityIssue;
+import com.ptsecurity.appsec.ai.ee.utils.ci.integration.exceptions.GenericException;
+import com.ptsecurity.appsec.ai.ee.utils.ci.integration.tasks.GenericAstTasks;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@DisplayName("Check scan results cache shared by exports")
+class ScanResultCacheTest {
+    private final AtomicInteger loads = new AtomicInteger();
+
+    /**
+     * Number of loads that are to fail before successful one
+     */
+    private final AtomicInteger failures = new AtomicInteger();
+
+    /**
+     * Stand-in for API version-specific tasks that creates scan result with one issue per level
+     */
+    private final GenericAstTasks tasks = (GenericAstTasks) Proxy.newProxyInstance(
+            GenericAstTasks.class.getClassLoader(),
+            new Class<?>[] { GenericAstTasks.class },
+            (proxy, method, args) -> {
+                if (!"getScanResult".equals(method.getName()) || 2 != args.length)
+                    throw new UnsupportedOperationException(method.getName());
+                loads.incrementAndGet();
+                if (0 <= failures.decrementAndGet())
+                    throw GenericException.raise("Scan result load failed", new IOException("Connection reset"));
+                ScanResult res = new ScanResult();
+                res.setProjectId((UUID) args[0]);
+                res.setId((UUID) args[1]);
+                for (BaseIssue.Level level : BaseIssue.Level.values()) {
+                    VulnerabilityIssue issue = new VulnerabilityIssue();
+                    issue.setId(UUID.randomUUID().toString());
+                    issue.setLevel(level);
+                    res.getIssues().add(issue);
+                }
+                return res;
+            });
+
+    @Test
+    @DisplayName("Load scan result once and filter views without shared data modification")
+    public void filterCachedScanResult() {
+        ScanResultCache cache = new ScanResultCache();
+        UUID projectId = UUID.randomUUID();
+        UUID scanResultId = UUID.randomUUID();
+        int total = BaseIssue.Level.values().length;
+
+        Reports.IssuesFilter high = new Reports.IssuesFilter();
+        high.setIssueLevels(Collections.singletonList(Reports.IssuesFilter.Level.HIGH));
+        ScanResult highView = cache.get(projectId, scanResultId, tasks, high);
+        Assertions.assertEquals(1, highView.getIssues().size());
+        Assertions.assertEquals(BaseIssue.Level.HIGH, highView.getIssues().get(0).getLevel());
+        Assertions.assertEquals(scanResultId, highView.getId());
+        Assertions.assertEquals(projectId, highView.getProjectId());
+
+        ScanResult fullView = cache.get(projectId, scanResultId, tasks, null);
+        Assertions.assertEquals(total, fullView.getIssues().size());
+        Assertions.assertNotSame(fullView, highView);
+        Assertions.assertEquals(total, cache.get(projectId, scanResultId, tasks).getIssues().size());
+        Assertions.assertEquals(1, loads.get());
+
+        cache.get(projectId, UUID.randomUUID(), tasks);
+        Assertions.assertEquals(2, loads.get());
+        cache.clear();
+        cache.get(projectId, scanResultId, tasks);
+        Assertions.assertEquals(3, loads.get());
+    }
+
+    @Test
+    @DisplayName("Don't cache failed scan result load")
+    public void retryFailedLoad() {
+        ScanResultCache cache = new ScanResultCache();
+        UUID projectId = UUID.randomUUID();
+        UUID scanResultId = UUID.randomUUID();
+        failures.set(1);
+        Assertions.assertThrows(GenericException.class, () -> cache.get(projectId, scanResultId, tasks));
+        Assertions.assertEquals(scanResultId, cache.get(projectId, scanResultId, tasks).getId());
+        Assertions.assertEquals(2, loads.get());
+    }
+}
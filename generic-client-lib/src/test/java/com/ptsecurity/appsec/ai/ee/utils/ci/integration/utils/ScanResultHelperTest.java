@@ -0,0 +1,167 @@
+package com.ptsecurity.appsec.ai.ee.utils.ci.integration.utils;
+
+import com.ptsecurity.appsec.ai.ee.scan.reports.Reports;
+import com.ptsecurity.appsec.ai.ee.scan.result.ScanBrief;
+import com.ptsecurity.appsec.ai.ee.scan.result.ScanResult;
+import com.ptsecurity.appsec.ai.ee.scan.result.issue.types.BaseIssue;
+import com.ptsecurity.appsec.ai.ee.scan.result.issue.types.VulnerabilityIssue;
+import com.ptsecurity.appsec.ai.ee.scan.result.issue.types.WeaknessIssue;
+import lombok.NonNull;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.*;
+
+@Slf4j
+@DisplayName("Check scan result issues filtering")
+class ScanResultHelperTest {
+    /**
+     * Create scan result with pseudo-random issues
+     * @param count Number of issues
+     */
+    public static ScanResult generate(final int count) {
+        Random random = new Random(count);
+        ScanResult res = new ScanResult();
+        res.setId(UUID.randomUUID());
+        BaseIssue.Level[] levels = BaseIssue.Level.values();
+        BaseIssue.ApprovalState[] approvalStates = BaseIssue.ApprovalState.values();
+        VulnerabilityIssue.ScanMode[] scanModes = VulnerabilityIssue.ScanMode.values();
+        for (int i = 0; i < count; i++) {
+            BaseIssue issue;
+            if (random.nextBoolean()) {
+                VulnerabilityIssue vulnerability = new VulnerabilityIssue();
+                vulnerability.setScanMode(scanModes[random.nextInt(scanModes.length)]);
+                vulnerability.setConditions(random.nextBoolean() ? null : "condition");
+                vulnerability.setSecondOrder(random.nextBoolean());
+                issue = vulnerability;
+            } else
+                issue = new WeaknessIssue();
+            issue.setId(Integer.toString(i));
+            issue.setLevel(levels[random.nextInt(levels.length)]);
+            issue.setApprovalState(approvalStates[random.nextInt(approvalStates.length)]);
+            issue.setSuppressed(random.nextBoolean());
+            issue.setSuspected(random.nextBoolean());
+            issue.setNewInScanResultId(random.nextBoolean() ? res.getId() : null);
+            res.getIssues().add(issue);
+        }
+        return res;
+    }
+
+    protected static Reports.IssuesFilter complexFilter() {
+        Reports.IssuesFilter filter = new Reports.IssuesFilter();
+        filter.setIssueLevels(Arrays.asList(Reports.IssuesFilter.Level.HIGH, Reports.IssuesFilter.Level.MEDIUM));
+        filter.setConfirmationStatus(Reports.IssuesFilter.ApprovalState.APPROVED);
+        filter.setConfirmationStatuses(Arrays.asList(Reports.IssuesFilter.ApprovalState.NONE, Reports.IssuesFilter.ApprovalState.AUTOAPPROVED));
+        filter.setExploitationCondition(Reports.IssuesFilter.Condition.NOCONDITION);
+        filter.setSuppressStatus(Reports.IssuesFilter.SuppressStatus.EXCEPTSUPPRESSED);
+        filter.setScanModes(Arrays.asList(Reports.IssuesFilter.ScanMode.FROMENTRYPOINT, Reports.IssuesFilter.ScanMode.FROMOTHER));
+        filter.setActualStatus(Reports.IssuesFilter.ActualStatus.ISNEW);
+        filter.setHideSecondOrder(true);
+        return filter;
+    }
+
+    /**
+     * Straightforward check of issue against {@link #complexFilter()}
+     */
+    protected static boolean matches(final BaseIssue issue, final UUID scanResultId) {
+        if (BaseIssue.Level.HIGH != issue.getLevel() && BaseIssue.Level.MEDIUM != issue.getLevel()) return false;
+        if (BaseIssue.ApprovalState.APPROVAL != issue.getApprovalState()
+                && BaseIssue.ApprovalState.NONE != issue.getApprovalState()
+                && BaseIssue.ApprovalState.AUTO_APPROVAL != issue.getApprovalState()) return false;
+        if (issue.getSuppressed()) return false;
+        if (!scanResultId.equals(issue.getNewInScanResultId())) return false;
+        if (issue instanceof VulnerabilityIssue) {
+            VulnerabilityIssue vulnerability = (VulnerabilityIssue) issue;
+            if (null != vulnerability.getConditions()) return false;
+            if (VulnerabilityIssue.ScanMode.FROM_ENTRYPOINT != vulnerability.getScanMode()
+                    && VulnerabilityIssue.ScanMode.FROM_OTHER != vulnerability.getScanMode()) return false;
+            return !vulnerability.getSecondOrder();
+        }
+        return true;
+    }
+
+    @Test
+    @DisplayName("Filter issues using multiple criteria")
+    public void filterIssues() {
+        ScanResult scanResult = generate(10000);
+        List<BaseIssue> expected = ScanResultHelper.filter(scanResult.getIssues(), scanResult.getId(), null);
+        expected.removeIf(issue -> !matches(issue, scanResult.getId()));
+        Assertions.assertFalse(expected.isEmpty());
+
+        ScanResult view = ScanResultHelper.view(scanResult, complexFilter());
+        Assertions.assertEquals(10000, scanResult.getIssues().size());
+        Assertions.assertEquals(expected, view.getIssues());
+
+        ScanResultHelper.apply(scanResult, complexFilter());
+        Assertions.assertEquals(expected, scanResult.getIssues());
+    }
+
+    @Test
+    @DisplayName("Keep all issues if filter contains ALL values")
+    public void filterAllIssues() {
+        ScanResult scanResult = generate(1000);
+        Reports.IssuesFilter filter = new Reports.IssuesFilter();
+        filter.setIssueLevel(Reports.IssuesFilter.Level.ALL);
+        filter.setIssueLevels(Arrays.asList(Reports.IssuesFilter.Level.HIGH));
+        filter.setScanMode(Reports.IssuesFilter.ScanMode.ALL);
+        filter.setActualStatus(Reports.IssuesFilter.ActualStatus.ALL);
+        Assertions.assertEquals(1000, ScanResultHelper.view(scanResult, filter).getIssues().size());
+    }
+
+    /**
+     * Create sample value that differs from field's default one
+     */
+    @SneakyThrows
+    private static Object sample(@NonNull final Class<?> type) {
+        if (UUID.class == type) return UUID.randomUUID();
+        if (String.class == type) return UUID.randomUUID().toString();
+        if (Boolean.class == type || boolean.class == type) return true;
+        if (type.isEnum()) return type.getEnumConstants()[type.getEnumConstants().length - 1];
+        if (Map.class == type) return new HashMap<>();
+        if (ScanBrief.ScanSettings.class == type) return new ScanBrief.ScanSettings();
+        if (ScanBrief.Statistics.class == type) return new ScanBrief.Statistics();
+        throw new IllegalArgumentException("Unsupported field type " + type + ", update view copy test and ScanResult copy constructor");
+    }
+
+    @SneakyThrows
+    @Test
+    @DisplayName("Copy every scan result field except issues to filtered view")
+    public void copyAllFieldsToView() {
+        ScanResult scanResult = generate(100);
+        List<Field> fields = new ArrayList<>();
+        for (Class<?> c = ScanResult.class; Object.class != c; c = c.getSuperclass()) {
+            for (Field field : c.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers()) || "issues".equals(field.getName())) continue;
+                field.setAccessible(true);
+                field.set(scanResult, sample(field.getType()));
+                fields.add(field);
+            }
+        }
+        ScanResult view = ScanResultHelper.view(scanResult, complexFilter());
+        for (Field field : fields)
+            Assertions.assertSame(field.get(scanResult), field.get(view), "Field " + field.getName() + " isn't copied");
+        Assertions.assertNotSame(scanResult.getIssues(), view.getIssues());
+    }
+
+    @Test
+    @Tag("development")
+    @DisplayName("Measure large scan results filtering time")
+    public void filterLargeScanResult() {
+        for (int count : new int[] { 100_000, 1_000_000 }) {
+            ScanResult scanResult = generate(count);
+            long start = System.nanoTime();
+            ScanResult view = ScanResultHelper.view(scanResult, complexFilter());
+            log.info("{} issues filtered to {} in {} ms", count, view.getIssues().size(), (System.nanoTime() - start) / 1_000_000);
+            start = System.nanoTime();
+            ScanResultHelper.apply(scanResult, complexFilter());
+            log.info("{} issues filtered in place in {} ms", count, (System.nanoTime() - start) / 1_000_000);
+            Assertions.assertEquals(view.getIssues(), scanResult.getIssues());
+        }
+    }
+}
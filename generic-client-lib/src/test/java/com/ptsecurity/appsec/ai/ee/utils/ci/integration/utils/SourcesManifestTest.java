@@ -0,0 +1,50 @@
+package com.ptsecurity.appsec.ai.ee.utils.ci.integration.utils;
+
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+
+class SourcesManifestTest {
+    @SneakyThrows
+    @Test
+    @DisplayName("Detect sources changes using saved manifest")
+    public void detectChanges(@TempDir final Path sources, @TempDir final Path output) {
+        UUID projectId = UUID.randomUUID();
+        UUID scanResultId = UUID.randomUUID();
+        Path manifestFile = output.resolve(SourcesManifest.fileName(projectId));
+        Files.write(sources.resolve("first.txt"), "first".getBytes(StandardCharsets.UTF_8));
+        Files.write(sources.resolve("second.txt"), "second".getBytes(StandardCharsets.UTF_8));
+        FileCollector collector = new FileCollector(null, null);
+
+        List<FileCollector.Entry> entries = collector.collectFiles(sources.toFile());
+        SourcesManifest manifest = SourcesManifest.create(projectId, entries, manifestFile);
+        Assertions.assertFalse(manifest.isUnchanged(null));
+        manifest.save(scanResultId);
+
+        manifest = SourcesManifest.create(projectId, collector.collectFiles(sources.toFile()), manifestFile);
+        Assertions.assertTrue(manifest.isUnchanged(scanResultId));
+        // Project was re-created or scanned by someone else since last upload
+        Assertions.assertFalse(manifest.isUnchanged(null));
+        Assertions.assertFalse(manifest.isUnchanged(UUID.randomUUID()));
+        // Manifest of another project must not be used
+        Assertions.assertFalse(SourcesManifest.create(UUID.randomUUID(), entries, manifestFile).isUnchanged(scanResultId));
+
+        Files.write(sources.resolve("second.txt"), "changed".getBytes(StandardCharsets.UTF_8));
+        manifest = SourcesManifest.create(projectId, collector.collectFiles(sources.toFile()), manifestFile);
+        Assertions.assertFalse(manifest.isUnchanged(scanResultId));
+        scanResultId = UUID.randomUUID();
+        manifest.save(scanResultId);
+
+        Files.write(sources.resolve("third.txt"), "third".getBytes(StandardCharsets.UTF_8));
+        manifest = SourcesManifest.create(projectId, collector.collectFiles(sources.toFile()), manifestFile);
+        Assertions.assertFalse(manifest.isUnchanged(scanResultId));
+    }
+}
@@ -0,0 +1,116 @@
+package com.ptsecurity.appsec.ai.ee.utils.ci.integration.benchmarks;
+
+import com.ptsecurity.appsec.ai.ee.scan.sources.Transfer;
+import com.ptsecurity.appsec.ai.ee.scan.sources.Transfers;
+import com.ptsecurity.appsec.ai.ee.utils.ci.integration.AbstractTool;
+import com.ptsecurity.appsec.ai.ee.utils.ci.integration.domain.AdvancedSettings;
+import com.ptsecurity.appsec.ai.ee.utils.ci.integration.utils.FileCollector;
+import lombok.NonNull;
+import lombok.SneakyThrows;
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sources collection and zip packing over synthetic source tree
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class FileCollectorBenchmark {
+    private static class Tool extends AbstractTool {
+
+    }
+
+    @State(Scope.Benchmark)
+    public static class Data {
+        @Param({ "1000", "10000" })
+        public int files;
+
+        protected Path sources;
+
+        protected FileCollector collector;
+
+        /**
+         * Create source tree where files are spread over nested folders. File contents are
+         * pseudo-random source-like text, so it is compressible as real sources are
+         */
+        @Setup(Level.Trial)
+        @SneakyThrows
+        public void setup() {
+            sources = Files.createTempDirectory("ptai-benchmark-");
+            Random random = new Random(files);
+            String[] words = { "public", "class", "return", "final", "static", "void", "if", "else", "for", "new", "null" };
+            for (int i = 0; i < files; i++) {
+                Path folder = sources.resolve("module" + i % 10).resolve("src").resolve("package" + i % 100);
+                Files.createDirectories(folder);
+                StringBuilder text = new StringBuilder();
+                for (int j = 0, count = 200 + random.nextInt(2000); j < count; j++)
+                    text.append(words[random.nextInt(words.length)]).append(0 == j % 10 ? '\n' : ' ');
+                Files.write(folder.resolve("Source" + i + ".java"), text.toString().getBytes(StandardCharsets.UTF_8));
+            }
+            // Files collection doesn't depend on zip threads, so default settings are used
+            collector = new FileCollector(new Transfers().addTransfer(new Transfer()), new Tool());
+        }
+
+        @TearDown(Level.Trial)
+        @SneakyThrows
+        public void tearDown() {
+            FileUtils.deleteDirectory(sources.toFile());
+        }
+    }
+
+    /**
+     * Packing settings. Kept apart from {@link Data} so files collection
+     * benchmark isn't repeated for each zip threads value
+     */
+    @State(Scope.Benchmark)
+    public static class Packing {
+        @Param({ "1", "4" })
+        public int threads;
+
+        protected File zip;
+
+        protected FileCollector collector;
+
+        @Setup(Level.Trial)
+        @SneakyThrows
+        public void setup() {
+            zip = Files.createTempFile("ptai-benchmark-", ".zip").toFile();
+            Tool tool = new Tool();
+            AdvancedSettings settings = new AdvancedSettings();
+            settings.apply("zip.threads = " + threads);
+            tool.setAdvancedSettings(settings);
+            collector = new FileCollector(new Transfers().addTransfer(new Transfer()), tool);
+        }
+
+        @TearDown(Level.Trial)
+        @SneakyThrows
+        public void tearDown() {
+            Files.deleteIfExists(zip.toPath());
+        }
+    }
+
+    @Benchmark
+    public List<FileCollector.Entry> collectFiles(@NonNull final Data data) {
+        return data.collector.collectFiles(data.sources.toFile());
+    }
+
+    /**
+     * Files collection and zip packing. Zip file is overwritten by each invocation
+     */
+    @Benchmark
+    public long collectAndPack(@NonNull final Data data, @NonNull final Packing packing) {
+        packing.collector.collect(data.sources.toFile(), packing.zip);
+        return packing.zip.length();
+    }
+}
@@ -0,0 +1,104 @@
+package com.ptsecurity.appsec.ai.ee.utils.ci.integration.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ptsecurity.appsec.ai.ee.scan.reports.Reports;
+import com.ptsecurity.appsec.ai.ee.scan.result.ScanResult;
+import com.ptsecurity.appsec.ai.ee.server.v36.projectmanagement.model.V36ScanSettings;
+import com.ptsecurity.appsec.ai.ee.server.v40.legacy.model.V40ScanSettings;
+import com.ptsecurity.appsec.ai.ee.server.v41.legacy.model.V41ScanSettings;
+import com.ptsecurity.appsec.ai.ee.utils.ci.integration.tasks.ServerVersionTasks;
+import com.ptsecurity.appsec.ai.ee.utils.ci.integration.test.BaseTest;
+import com.ptsecurity.appsec.ai.ee.utils.ci.integration.utils.json.BaseJsonHelper;
+import lombok.NonNull;
+import lombok.SneakyThrows;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversion of PT AI server scan result and issues model to version-independent
+ * scan result. Uses the same packed issues models as ConverterTest does
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class IssuesConverterBenchmark {
+    @State(Scope.Benchmark)
+    public static class Data extends BaseTest {
+        @Param({ PHP_OWASP_BRICKS_PROJECT_NAME, JAVA_OWASP_BENCHMARK_PROJECT_NAME })
+        public String project;
+
+        protected com.ptsecurity.appsec.ai.ee.server.v36.projectmanagement.model.ScanResult scanResultV36;
+        protected V36ScanSettings scanSettingsV36;
+        protected Map<Reports.Locale, File> issuesV36;
+
+        protected com.ptsecurity.appsec.ai.ee.server.v40.legacy.model.ScanResult scanResultV40;
+        protected V40ScanSettings scanSettingsV40;
+        protected Map<Reports.Locale, File> issuesV40;
+
+        protected com.ptsecurity.appsec.ai.ee.server.v41.legacy.model.ScanResult scanResultV41;
+        protected V41ScanSettings scanSettingsV41;
+        protected Map<Reports.Locale, File> issuesV41;
+
+        protected final Map<ServerVersionTasks.Component, String> versions = new HashMap<>();
+
+        @Setup(Level.Trial)
+        @SneakyThrows
+        public void setup() {
+            ObjectMapper mapper = BaseJsonHelper.createObjectMapper();
+            scanResultV36 = mapper.readValue(
+                    getResourceString("v36/json/scanResult/" + project + ".json"),
+                    com.ptsecurity.appsec.ai.ee.server.v36.projectmanagement.model.ScanResult.class);
+            scanSettingsV36 = mapper.readValue(getResourceString("v36/json/scanSettings/" + project + ".json"), V36ScanSettings.class);
+            issuesV36 = issues("v36");
+
+            scanResultV40 = mapper.readValue(
+                    getResourceString("v40/json/scanResult/" + project + ".json"),
+                    com.ptsecurity.appsec.ai.ee.server.v40.legacy.model.ScanResult.class);
+            scanSettingsV40 = mapper.readValue(getResourceString("v40/json/scanSettings/" + project + ".json"), V40ScanSettings.class);
+            issuesV40 = issues("v40");
+
+            scanResultV41 = mapper.readValue(
+                    getResourceString("v41/json/scanResult/" + project + ".json"),
+                    com.ptsecurity.appsec.ai.ee.server.v41.legacy.model.ScanResult.class);
+            scanSettingsV41 = mapper.readValue(getResourceString("v41/json/scanSettings/" + project + ".json"), V41ScanSettings.class);
+            issuesV41 = issues("v41");
+
+            versions.put(ServerVersionTasks.Component.AIE, "4.1.0.11293");
+            versions.put(ServerVersionTasks.Component.AIC, "4.1.0.11293");
+        }
+
+        /**
+         * Issues models are unpacked once, so benchmarks measure conversion and not 7zip decompression
+         */
+        protected Map<Reports.Locale, File> issues(@NonNull final String version) {
+            Map<Reports.Locale, File> res = new HashMap<>();
+            for (Reports.Locale locale : Reports.Locale.values())
+                res.put(locale, extractPackedResourceFile(version + "/json/issuesModel/" + project + "." + locale.getLocale().getLanguage() + ".json.7z").toFile());
+            return res;
+        }
+    }
+
+    @Benchmark
+    public ScanResult convertV36(@NonNull final Data data) {
+        return com.ptsecurity.appsec.ai.ee.utils.ci.integration.api.v36.converters.IssuesConverter.convert(
+                data.project, data.scanResultV36, data.issuesV36, data.scanSettingsV36, "https://ptai.domain.org", data.versions);
+    }
+
+    @Benchmark
+    public ScanResult convertV40(@NonNull final Data data) {
+        return com.ptsecurity.appsec.ai.ee.utils.ci.integration.api.v40.converters.IssuesConverter.convert(
+                data.project, data.scanResultV40, data.issuesV40, data.scanSettingsV40, "https://ptai4.domain.org", data.versions);
+    }
+
+    @Benchmark
+    public ScanResult convertV41(@NonNull final Data data) {
+        return com.ptsecurity.appsec.ai.ee.utils.ci.integration.api.v41.converters.IssuesConverter.convert(
+                data.project, data.scanResultV41, data.issuesV41, data.scanSettingsV41, "https://ptai41.domain.org", data.versions);
+    }
+}
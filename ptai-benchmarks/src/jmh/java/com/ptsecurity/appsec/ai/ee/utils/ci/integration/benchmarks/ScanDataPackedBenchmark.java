@@ -0,0 +1,53 @@
+package com.ptsecurity.appsec.ai.ee.utils.ci.integration.benchmarks;
+
+import com.ptsecurity.appsec.ai.ee.scan.result.ScanBriefDetailed;
+import com.ptsecurity.appsec.ai.ee.utils.ci.integration.test.BaseTest;
+import com.ptsecurity.appsec.ai.ee.utils.ci.integration.utils.ScanDataPacked;
+import com.ptsecurity.appsec.ai.ee.utils.ci.integration.utils.json.BaseJsonHelper;
+import lombok.NonNull;
+import lombok.SneakyThrows;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Packing and unpacking of detailed scan brief that is stored by CI plugins as a build action data
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ScanDataPackedBenchmark {
+    @State(Scope.Benchmark)
+    public static class Data extends BaseTest {
+        @Param({ PHP_OWASP_BRICKS_PROJECT_NAME, JAVA_OWASP_BENCHMARK_PROJECT_NAME })
+        public String project;
+
+        @Param
+        public Connection.Version version;
+
+        protected ScanBriefDetailed scanBriefDetailed;
+
+        protected String packed;
+
+        @Setup(Level.Trial)
+        @SneakyThrows
+        public void setup() {
+            File file = extractPackedResourceFile("json/scan/brief/detailed/" + version.name().toLowerCase() + "/" + project + ".json.7z").toFile();
+            scanBriefDetailed = BaseJsonHelper.createObjectMapper().readValue(file, ScanBriefDetailed.class);
+            packed = ScanDataPacked.packData(scanBriefDetailed);
+        }
+    }
+
+    @Benchmark
+    public String pack(@NonNull final Data data) {
+        return ScanDataPacked.packData(data.scanBriefDetailed);
+    }
+
+    @Benchmark
+    public ScanBriefDetailed unpack(@NonNull final Data data) {
+        return ScanDataPacked.unpackData(data.packed, ScanBriefDetailed.class);
+    }
+}
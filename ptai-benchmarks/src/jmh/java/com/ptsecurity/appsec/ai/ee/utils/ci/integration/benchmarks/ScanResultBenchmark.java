@@ -0,0 +1,112 @@
+package com.ptsecurity.appsec.ai.ee.utils.ci.integration.benchmarks;
+
+import com.contrastsecurity.sarif.SarifSchema210;
+import com.ptsecurity.appsec.ai.ee.scan.reports.Reports;
+import com.ptsecurity.appsec.ai.ee.scan.result.ScanBriefDetailed;
+import com.ptsecurity.appsec.ai.ee.scan.result.ScanResult;
+import com.ptsecurity.appsec.ai.ee.utils.ci.integration.jobs.subjobs.export.Sarif;
+import com.ptsecurity.appsec.ai.ee.utils.ci.integration.jobs.subjobs.export.SonarGiif;
+import com.ptsecurity.appsec.ai.ee.utils.ci.integration.test.BaseTest;
+import com.ptsecurity.appsec.ai.ee.utils.ci.integration.utils.ScanResultHelper;
+import com.ptsecurity.appsec.ai.ee.utils.ci.integration.utils.json.BaseJsonHelper;
+import lombok.NonNull;
+import lombok.SneakyThrows;
+import org.apache.commons.io.output.CountingOutputStream;
+import org.apache.commons.io.output.NullOutputStream;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Processing of version-independent scan result: issues filtering, SARIF and
+ * SonarQube GIIF export and issues distribution chart data calculation
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ScanResultBenchmark {
+    @State(Scope.Benchmark)
+    public static class Data extends BaseTest {
+        @Param({ PHP_OWASP_BRICKS_PROJECT_NAME, JAVA_OWASP_BENCHMARK_PROJECT_NAME })
+        public String project;
+
+        @Param
+        public Connection.Version version;
+
+        protected ScanResult scanResult;
+
+        protected Reports.IssuesFilter filter;
+
+        @Setup(Level.Trial)
+        @SneakyThrows
+        public void setup() {
+            String json = extractSevenZippedSingleStringFromResource("json/scan/result/" + version.name().toLowerCase() + "/" + project + ".json.7z");
+            scanResult = BaseJsonHelper.createObjectMapper().readValue(json, ScanResult.class);
+            // Filter that uses all the criteria, so every issue field is checked
+            filter = new Reports.IssuesFilter();
+            filter.setIssueLevels(Arrays.asList(Reports.IssuesFilter.Level.HIGH, Reports.IssuesFilter.Level.MEDIUM));
+            filter.setConfirmationStatuses(Arrays.asList(Reports.IssuesFilter.ApprovalState.NONE, Reports.IssuesFilter.ApprovalState.APPROVED));
+            filter.setExploitationCondition(Reports.IssuesFilter.Condition.NOCONDITION);
+            filter.setSuppressStatus(Reports.IssuesFilter.SuppressStatus.EXCEPTSUPPRESSED);
+            filter.setScanModes(Arrays.asList(Reports.IssuesFilter.ScanMode.FROMENTRYPOINT, Reports.IssuesFilter.ScanMode.FROMOTHER));
+            filter.setHideSecondOrder(true);
+        }
+    }
+
+    @Benchmark
+    public ScanResult view(@NonNull final Data data) {
+        return ScanResultHelper.view(data.scanResult, data.filter);
+    }
+
+    /**
+     * As {@link ScanResultHelper#apply(ScanResult, Reports.IssuesFilter)} modifies scan result, it is applied
+     * to unfiltered view, so this benchmark also includes shallow copy cost that may be estimated with
+     * {@link #view(Data)} results
+     */
+    @Benchmark
+    public ScanResult apply(@NonNull final Data data) {
+        ScanResult res = ScanResultHelper.view(data.scanResult, null);
+        ScanResultHelper.apply(res, data.filter);
+        return res;
+    }
+
+    @Benchmark
+    public SarifSchema210 sarif(@NonNull final Data data) {
+        return Sarif.convert(data.scanResult, true);
+    }
+
+    /**
+     * Streaming SARIF export that is used by report generation. Output is discarded,
+     * so benchmark measures conversion and JSON serialization only
+     */
+    @Benchmark
+    public long writeSarif(@NonNull final Data data) {
+        CountingOutputStream out = new CountingOutputStream(NullOutputStream.NULL_OUTPUT_STREAM);
+        Sarif.write(data.scanResult, true, out);
+        return out.getByteCount();
+    }
+
+    @Benchmark
+    public SonarGiif.SonarGiifReport sonarGiif(@NonNull final Data data) {
+        return SonarGiif.convert(data.scanResult);
+    }
+
+    /**
+     * Streaming SonarQube GIIF export that is used by report generation
+     */
+    @Benchmark
+    public long writeSonarGiif(@NonNull final Data data) {
+        CountingOutputStream out = new CountingOutputStream(NullOutputStream.NULL_OUTPUT_STREAM);
+        SonarGiif.write(data.scanResult, out);
+        return out.getByteCount();
+    }
+
+    @Benchmark
+    public List<ScanBriefDetailed.Details.ChartData.BaseIssueCount> baseIssueDistribution(@NonNull final Data data) {
+        return ScanBriefDetailed.createBaseIssueDistributionData(data.scanResult);
+    }
+}
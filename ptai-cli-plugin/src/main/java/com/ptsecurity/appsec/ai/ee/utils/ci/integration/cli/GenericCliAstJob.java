@@ -9,6 +9,7 @@ import com.ptsecurity.appsec.ai.ee.utils.ci.integration.exceptions.GenericExcept
 import com.ptsecurity.appsec.ai.ee.utils.ci.integration.functions.FileSaver;
 import com.ptsecurity.appsec.ai.ee.utils.ci.integration.functions.TextOutput;
 import com.ptsecurity.appsec.ai.ee.utils.ci.integration.jobs.GenericAstJob;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.experimental.SuperBuilder;
@@ -16,6 +17,8 @@ import lombok.extern.slf4j.Slf4j;
 
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static com.ptsecurity.appsec.ai.ee.utils.ci.integration.utils.CallHelper.call;
 import static java.nio.charset.StandardCharsets.UTF_8;
@@ -34,6 +37,41 @@ public abstract class GenericCliAstJob extends GenericAstJob implements FileSave
     protected Path truststore;
     private GracefulShutdown shutdown;
 
+    /**
+     * Optional permits that limit number of batch mode jobs that zip and upload sources
+     * concurrently. Permit is released as soon as scan is started, so sources of next
+     * projects are uploaded while PT AI server scans previous ones
+     */
+    protected Semaphore uploadPermits;
+
+    @Getter(AccessLevel.NONE)
+    private final AtomicBoolean uploadPermitAcquired = new AtomicBoolean(false);
+
+    @Override
+    public JobExecutionResult execute() {
+        if (null == uploadPermits) return super.execute();
+        try {
+            uploadPermits.acquire();
+            uploadPermitAcquired.set(true);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return JobExecutionResult.INTERRUPTED;
+        }
+        try {
+            return super.execute();
+        } finally {
+            releaseUploadPermit();
+        }
+    }
+
+    /**
+     * Release sources upload permit if it is held by this job
+     */
+    public void releaseUploadPermit() {
+        if (null != uploadPermits && uploadPermitAcquired.compareAndSet(true, false))
+            uploadPermits.release();
+    }
+
     @Override
     protected void init() throws GenericException {
         String caCertsPem = (null == truststore)
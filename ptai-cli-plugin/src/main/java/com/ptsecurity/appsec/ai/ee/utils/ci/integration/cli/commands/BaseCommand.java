@@ -4,7 +4,11 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import com.ptsecurity.appsec.ai.ee.scan.reports.Reports;
 import com.ptsecurity.appsec.ai.ee.utils.ci.integration.Resources;
 import com.ptsecurity.appsec.ai.ee.utils.ci.integration.cli.Plugin;
+import com.ptsecurity.appsec.ai.ee.utils.ci.integration.api.AbstractApiClient;
+import com.ptsecurity.appsec.ai.ee.utils.ci.integration.api.Factory;
+import com.ptsecurity.appsec.ai.ee.utils.ci.integration.domain.AdvancedSettings;
 import com.ptsecurity.appsec.ai.ee.utils.ci.integration.domain.BaseCredentials;
+import com.ptsecurity.appsec.ai.ee.utils.ci.integration.domain.ConnectionSettings;
 import com.ptsecurity.appsec.ai.ee.utils.ci.integration.domain.PasswordCredentials;
 import com.ptsecurity.appsec.ai.ee.utils.ci.integration.domain.TokenCredentials;
 import com.ptsecurity.appsec.ai.ee.utils.ci.integration.exceptions.GenericException;
@@ -19,6 +23,7 @@ import picocli.CommandLine;
 
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
 
 import static com.ptsecurity.appsec.ai.ee.utils.ci.integration.utils.CallHelper.call;
@@ -289,4 +294,29 @@ public abstract class BaseCommand {
             names = {"--insecure"}, order = 99,
             description = "Do not verify CA certificate chain")
     protected boolean insecure = false;
+
+    /**
+     * @return PT AI server connection settings defined by command line options
+     */
+    protected ConnectionSettings connectionSettings() {
+        return ConnectionSettings.builder()
+                .url(url.toString())
+                .credentials(credentials.getBaseCredentials())
+                .insecure(insecure)
+                .build();
+    }
+
+    /**
+     * Create PT AI API client that may be shared by several AST jobs
+     * @return Initialized PT AI API client
+     * @throws GenericException Exception that contains error details if client creation failed
+     */
+    protected AbstractApiClient client() throws GenericException {
+        ConnectionSettings connectionSettings = connectionSettings();
+        connectionSettings.setCaCertsPem(null == truststore ? null : call(
+                () -> new String(Files.readAllBytes(truststore), StandardCharsets.UTF_8),
+                Resources.i18n_ast_settings_server_ca_pem_message_file_read_failed()));
+        connectionSettings.validate();
+        return Factory.client(connectionSettings, AdvancedSettings.getDefault());
+    }
 }
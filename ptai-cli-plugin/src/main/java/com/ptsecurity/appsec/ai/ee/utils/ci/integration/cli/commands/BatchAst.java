@@ -0,0 +1,308 @@
+package com.ptsecurity.appsec.ai.ee.utils.ci.integration.cli.commands;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.ptsecurity.appsec.ai.ee.utils.ci.integration.api.AbstractApiClient;
+import com.ptsecurity.appsec.ai.ee.utils.ci.integration.cli.CliJsonAstJob;
+import com.ptsecurity.appsec.ai.ee.utils.ci.integration.cli.CliUiAstJob;
+import com.ptsecurity.appsec.ai.ee.utils.ci.integration.cli.GenericCliAstJob;
+import com.ptsecurity.appsec.ai.ee.utils.ci.integration.cli.Plugin;
+import com.ptsecurity.appsec.ai.ee.utils.ci.integration.exceptions.GenericException;
+import com.ptsecurity.appsec.ai.ee.utils.ci.integration.jobs.AbstractJob;
+import com.ptsecurity.appsec.ai.ee.utils.ci.integration.jobs.subjobs.state.FailIfAstFailed;
+import com.ptsecurity.appsec.ai.ee.utils.ci.integration.jobs.subjobs.state.FailIfAstUnstable;
+import com.ptsecurity.appsec.ai.ee.utils.ci.integration.utils.json.BaseJsonHelper;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.NonNull;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import picocli.CommandLine;
+
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static com.ptsecurity.appsec.ai.ee.utils.ci.integration.jobs.AbstractJob.JobExecutionResult.SUCCESS;
+import static com.ptsecurity.appsec.ai.ee.utils.ci.integration.utils.CallHelper.call;
+import static com.ptsecurity.appsec.ai.ee.utils.ci.integration.utils.CallHelper.callConcurrently;
+
+@Slf4j
+@CommandLine.Command(
+        name = "batch-ast",
+        sortOptions = false,
+        description = "Calls PT AI for AST of multiple projects that are defined in manifest JSON file",
+        exitCodeOnInvalidInput = Plugin.INVALID_INPUT,
+        exitCodeListHeading = "Exit Codes:%n",
+        exitCodeList = {
+                "0:Success",
+                "1:Failure",
+                "1000:Invalid input"})
+public class BatchAst extends BaseCommand implements Callable<Integer> {
+    /**
+     * Single project AST definition. Project settings are defined either with
+     * JSON file or in the PT AI viewer UI. In the latter case project name is required.
+     * Relative paths are resolved against manifest file folder
+     */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Entry {
+        /**
+         * Source file or folder to scan
+         */
+        @JsonProperty
+        protected String input;
+
+        /**
+         * Folder where AST reports are to be stored. By default .ptai/N-name folder is used
+         */
+        @JsonProperty
+        protected String output;
+
+        /**
+         * Project name how it is setup and seen in the PT AI viewer
+         */
+        @JsonProperty
+        protected String project;
+
+        /**
+         * Path to JSON-defined scan settings
+         */
+        @JsonProperty
+        protected String settings;
+
+        /**
+         * Path to JSON-defined AST policy
+         */
+        @JsonProperty
+        protected String policy;
+
+        /**
+         * JSON file that defines reports to be generated
+         */
+        @JsonProperty
+        protected String reports;
+
+        @JsonProperty
+        protected String includes;
+
+        @JsonProperty
+        protected String excludes;
+
+        @JsonProperty
+        protected boolean useDefaultExcludes = false;
+
+        @JsonProperty
+        protected boolean fullScan = false;
+
+        @JsonProperty
+        protected boolean async = false;
+
+        @JsonProperty
+        protected boolean failIfFailed = false;
+
+        @JsonProperty
+        protected boolean failIfUnstable = false;
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Manifest {
+        @JsonProperty
+        protected List<Entry> jobs = new ArrayList<>();
+    }
+
+    @CommandLine.Option(
+            names = {"--manifest"}, order = 3,
+            required = true,
+            paramLabel = "<path>",
+            description = "Path to JSON file that defines projects to be scanned")
+    protected Path manifest = null;
+
+    @CommandLine.Option(
+            names = {"--threads"}, order = 5,
+            paramLabel = "<number>",
+            description = "Maximum number of concurrently executed AST jobs. Default value is 4")
+    protected int threads = 4;
+
+    @CommandLine.Option(
+            names = {"--upload-threads"}, order = 6,
+            paramLabel = "<number>",
+            description = "Maximum number of jobs that zip and upload sources concurrently. Default value is 1")
+    protected int uploadThreads = 1;
+
+    @CommandLine.Option(
+            names = {"--fail-if-failed"}, order = 10,
+            description = "Return code failed if AST failed")
+    protected boolean failIfFailed = false;
+
+    @CommandLine.Option(
+            names = {"--fail-if-unstable"}, order = 11,
+            description = "Return code failed if AST unstable")
+    protected boolean failIfUnstable = false;
+
+    @CommandLine.Option(
+            names = {"--async"}, order = 20,
+            description = "Do not wait AST to complete and exit as soon as all the scans are started")
+    protected boolean async = false;
+
+    @CommandLine.Option(
+            names = {"--full-scan"}, order = 21,
+            description = "Execute full AST instead of incremental for all the projects")
+    protected boolean fullScan = false;
+
+    @Override
+    public Integer call() {
+        final Manifest batch;
+        try {
+            batch = load(manifest);
+        } catch (GenericException e) {
+            System.out.println(e.getDetailedMessage());
+            return ExitCode.INVALID_INPUT.getCode();
+        }
+        Path base = manifest.toAbsolutePath().getParent();
+        // Command line flags are applied to all the jobs
+        for (Entry entry : batch.getJobs()) {
+            entry.setFullScan(fullScan || entry.isFullScan());
+            entry.setAsync(async || entry.isAsync());
+            entry.setFailIfFailed(failIfFailed || entry.isFailIfFailed());
+            entry.setFailIfUnstable(failIfUnstable || entry.isFailIfUnstable());
+        }
+
+        // All the jobs share single API client, so server version detection and authentication are done once
+        final AbstractApiClient client;
+        try {
+            client = client();
+        } catch (GenericException e) {
+            System.out.println(e.getDetailedMessage());
+            return ExitCode.FAILED.getCode();
+        }
+
+        final int count = batch.getJobs().size();
+        final String[] names = new String[count];
+        final AbstractJob.JobExecutionResult[] results = new AbstractJob.JobExecutionResult[count];
+        final Duration[] durations = new Duration[count];
+        // Jobs that wait for PT AI server to scan their sources do not hold upload permits, so next
+        // projects sources are zipped and uploaded while previous ones are scanned
+        final Semaphore uploadPermits = new Semaphore(Math.max(1, uploadThreads));
+        List<Integer> indices = IntStream.range(0, count).boxed().collect(Collectors.toList());
+        callConcurrently(indices, threads, i -> {
+            Entry entry = batch.getJobs().get(i);
+            names[i] = name(entry);
+            long start = System.nanoTime();
+            try {
+                results[i] = job(this, entry, base, output(entry, base, i + 1), System.out, client, uploadPermits).execute();
+            } catch (GenericException e) {
+                System.out.println("[" + names[i] + "] " + e.getDetailedMessage());
+                results[i] = AbstractJob.JobExecutionResult.FAILED;
+            }
+            durations[i] = Duration.ofNanos(System.nanoTime() - start);
+        }, "Batch AST failed");
+
+        System.out.println("Batch AST summary:");
+        int succeeded = 0;
+        for (int i = 0; i < count; i++) {
+            if (SUCCESS == results[i]) succeeded++;
+            System.out.printf("  %d. %s: %s in %s%n", i + 1, names[i], results[i], durations[i]);
+        }
+        System.out.printf("Total: %d, succeeded: %d, not succeeded: %d%n", count, succeeded, count - succeeded);
+        return (count == succeeded)
+                ? BaseCommand.ExitCode.SUCCESS.getCode()
+                : BaseCommand.ExitCode.FAILED.getCode();
+    }
+
+    protected static Manifest load(@NonNull final Path file) throws GenericException {
+        Manifest res = call(
+                () -> BaseJsonHelper.createObjectMapper().readValue(file.toFile(), Manifest.class),
+                "Batch manifest file read failed");
+        call(() -> {
+            if (null == res.getJobs() || res.getJobs().isEmpty())
+                throw new IllegalArgumentException("No jobs defined");
+        }, "Batch manifest validation failed");
+        for (Entry entry : res.getJobs()) validate(entry);
+        return res;
+    }
+
+    protected static void validate(@NonNull final Entry entry) throws GenericException {
+        call(() -> {
+            if (StringUtils.isEmpty(entry.getInput()))
+                throw new IllegalArgumentException("Job input is not defined");
+            if (StringUtils.isEmpty(entry.getSettings()) == StringUtils.isEmpty(entry.getProject()))
+                throw new IllegalArgumentException("Either settings JSON or project name must be defined for " + entry.getInput());
+        }, "AST job definition validation failed");
+    }
+
+    protected static String name(@NonNull final Entry entry) {
+        if (StringUtils.isNotEmpty(entry.getProject())) return entry.getProject();
+        Path input = Paths.get(entry.getInput()).normalize().toAbsolutePath();
+        return null == input.getFileName() ? input.toString() : input.getFileName().toString();
+    }
+
+    /**
+     * @param entry Job definition
+     * @param base Folder that relative paths are resolved against
+     * @param index Job sequential number that is used to make default output folder name unique
+     * @return Folder where AST reports are to be stored
+     */
+    protected static Path output(@NonNull final Entry entry, @NonNull final Path base, final int index) {
+        return StringUtils.isNotEmpty(entry.getOutput())
+                ? base.resolve(entry.getOutput())
+                : Paths.get(System.getProperty("user.dir"))
+                .resolve(AbstractJob.DEFAULT_OUTPUT_FOLDER)
+                .resolve(index + "-" + name(entry).replaceAll("[^\\w.-]", "_"));
+    }
+
+    /**
+     * Create AST job that uses shared API client
+     * @param command Command that defines PT AI server connection and console output options
+     * @param entry Job definition
+     * @param base Folder that relative paths are resolved against
+     * @param output Folder where AST reports are to be stored
+     * @param console Job console output
+     * @param client Shared PT AI API client
+     * @param uploadPermits Optional permits that limit concurrent sources uploads
+     * @return AST job with reporting and state subjobs attached
+     */
+    protected static GenericCliAstJob job(
+            @NonNull final BaseCommand command, @NonNull final Entry entry, @NonNull final Path base, @NonNull final Path output,
+            @NonNull final PrintStream console, @NonNull final AbstractApiClient client, final Semaphore uploadPermits) throws GenericException {
+        GenericCliAstJob.GenericCliAstJobBuilder<?, ?> builder = StringUtils.isNotEmpty(entry.getSettings())
+                ? CliJsonAstJob.builder()
+                .settings(base.resolve(entry.getSettings()))
+                .policy(StringUtils.isEmpty(entry.getPolicy()) ? null : base.resolve(entry.getPolicy()))
+                : CliUiAstJob.builder()
+                .projectName(entry.getProject());
+        GenericCliAstJob job = builder
+                .console(console).prefix("[" + name(entry) + "] ").verbose(command.verbose)
+                .connectionSettings(command.connectionSettings())
+                .client(client)
+                .uploadPermits(uploadPermits)
+                .async(entry.isAsync())
+                .input(base.resolve(entry.getInput()).normalize()).output(output)
+                .includes(entry.getIncludes()).excludes(entry.getExcludes())
+                .useDefaultExcludes(entry.isUseDefaultExcludes())
+                .truststore(command.truststore)
+                .fullScanMode(entry.isFullScan())
+                .build();
+        if (StringUtils.isNotEmpty(entry.getReports())) {
+            Reporting reporting = new Reporting();
+            reporting.reportingJson = base.resolve(entry.getReports());
+            reporting.addSubJobs(job);
+        }
+        if (entry.isFailIfFailed()) new FailIfAstFailed().attach(job);
+        if (entry.isFailIfUnstable()) new FailIfAstUnstable().attach(job);
+        return job;
+    }
+}
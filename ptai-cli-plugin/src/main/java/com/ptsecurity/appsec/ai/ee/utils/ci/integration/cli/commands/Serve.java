@@ -0,0 +1,351 @@
+package com.ptsecurity.appsec.ai.ee.utils.ci.integration.cli.commands;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ptsecurity.appsec.ai.ee.utils.ci.integration.api.AbstractApiClient;
+import com.ptsecurity.appsec.ai.ee.utils.ci.integration.cli.Plugin;
+import com.ptsecurity.appsec.ai.ee.utils.ci.integration.exceptions.GenericException;
+import com.ptsecurity.appsec.ai.ee.utils.ci.integration.jobs.AbstractJob;
+import com.ptsecurity.appsec.ai.ee.utils.ci.integration.utils.AuthCache;
+import com.ptsecurity.appsec.ai.ee.utils.ci.integration.utils.json.BaseJsonHelper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.*;
+import lombok.extern.slf4j.Slf4j;
+import picocli.CommandLine;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.ptsecurity.appsec.ai.ee.utils.ci.integration.jobs.AbstractJob.JobExecutionResult.SUCCESS;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+@Slf4j
+@CommandLine.Command(
+        name = "serve",
+        sortOptions = false,
+        description = "Starts local HTTP server that executes AST jobs using single initialized PT AI API client",
+        exitCodeOnInvalidInput = Plugin.INVALID_INPUT,
+        exitCodeListHeading = "Exit Codes:%n",
+        exitCodeList = {
+                "0:Server stopped",
+                "1:Failure",
+                "1000:Invalid input"})
+public class Serve extends BaseCommand implements Callable<Integer> {
+    /**
+     * AST job execution result that is returned to HTTP client
+     */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    public static class Result {
+        @JsonProperty
+        protected AbstractJob.JobExecutionResult result;
+
+        /**
+         * Exit code that CLI plugin would return for the same job
+         */
+        @JsonProperty
+        protected int exitCode;
+
+        /**
+         * Job console output
+         */
+        @JsonProperty
+        protected String output;
+    }
+
+    /**
+     * Maximum AST job definition request body size
+     */
+    protected static final int MAX_BODY_SIZE = 64 * 1024;
+
+    /**
+     * Host header values that are accepted. As server is bound to loopback interface, other values
+     * mean that request came from browser that resolved some external domain name to loopback
+     * address (DNS rebinding)
+     */
+    protected static final Set<String> LOOPBACK_HOSTS = new HashSet<>(Arrays.asList("localhost", "127.0.0.1", "[::1]"));
+
+    @CommandLine.Option(
+            names = {"--port"}, order = 3,
+            paramLabel = "<port>",
+            description = "Local TCP port to listen on. Default value is 8765")
+    protected int port = 8765;
+
+    @CommandLine.Option(
+            names = {"--threads"}, order = 5,
+            paramLabel = "<number>",
+            description = "Maximum number of concurrently executed AST jobs. Default value is 4")
+    protected int threads = 4;
+
+    @CommandLine.Option(
+            names = {"--upload-threads"}, order = 6,
+            paramLabel = "<number>",
+            description = "Maximum number of jobs that zip and upload sources concurrently. Default value is 1")
+    protected int uploadThreads = 1;
+
+    @CommandLine.Option(
+            names = {"--token-file"}, order = 7,
+            paramLabel = "<path>",
+            description = "Path to file that contains bearer token HTTP clients are to use. If not set, random token is generated and written to file in user home folder that is readable by its owner only")
+    protected Path tokenFile = null;
+
+    private final ObjectMapper mapper = BaseJsonHelper.createObjectMapper();
+
+    /**
+     * Sequential number of job that is used to make default output folder name unique
+     */
+    private final AtomicInteger counter = new AtomicInteger();
+
+    private AbstractApiClient client;
+
+    private Semaphore uploadPermits;
+
+    private byte[] token;
+
+    @Override
+    public Integer call() {
+        // Client is initialized once, so JVM startup, server version detection and authentication
+        // aren't repeated for each job, and client caches are reused between jobs
+        try {
+            client = client();
+        } catch (GenericException e) {
+            System.out.println(e.getDetailedMessage());
+            return ExitCode.FAILED.getCode();
+        }
+        uploadPermits = new Semaphore(Math.max(1, uploadThreads));
+        final Path generatedTokenFile = null == tokenFile ? defaultTokenFile() : null;
+        try {
+            token = null == generatedTokenFile ? readToken(tokenFile) : generateToken(generatedTokenFile);
+        } catch (IOException e) {
+            System.out.println("Failed to initialize bearer token: " + e.getMessage());
+            return ExitCode.FAILED.getCode();
+        }
+        if (0 == token.length) {
+            System.out.println("Bearer token file " + tokenFile + " is empty");
+            return ExitCode.INVALID_INPUT.getCode();
+        }
+
+        final HttpServer server;
+        try {
+            // Server accepts jobs that refer to local files, so it is bound to loopback interface only
+            server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        } catch (IOException e) {
+            System.out.println("Failed to start server on port " + port + ": " + e.getMessage());
+            return ExitCode.FAILED.getCode();
+        }
+        // Requests are dispatched by separate small pool, so health checks are answered
+        // even if all the job threads are busy
+        ExecutorService dispatcher = Executors.newFixedThreadPool(2);
+        ExecutorService jobs = Executors.newFixedThreadPool(Math.max(1, threads));
+        server.setExecutor(dispatcher);
+        server.createContext("/health", this::health);
+        server.createContext("/ast", exchange -> ast(exchange, jobs));
+
+        CountDownLatch stopped = new CountDownLatch(1);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.stop(0);
+            jobs.shutdownNow();
+            dispatcher.shutdownNow();
+            if (null != generatedTokenFile) generatedTokenFile.toFile().delete();
+            stopped.countDown();
+        }));
+        server.start();
+        System.out.println("Listening on http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort());
+        if (null != generatedTokenFile)
+            System.out.println("Bearer token is written to " + generatedTokenFile);
+        try {
+            stopped.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return ExitCode.SUCCESS.getCode();
+    }
+
+    /**
+     * @return Default file that generated bearer token is written to
+     */
+    protected Path defaultTokenFile() {
+        return Paths.get(System.getProperty("user.home"), ".ptai", "serve-" + port + ".token");
+    }
+
+    protected static byte[] readToken(@NonNull final Path file) throws IOException {
+        return new String(Files.readAllBytes(file), UTF_8).trim().getBytes(UTF_8);
+    }
+
+    /**
+     * Generate random bearer token and write it to file that is readable by its owner only
+     */
+    protected static byte[] generateToken(@NonNull final Path file) throws IOException {
+        byte[] random = new byte[32];
+        new SecureRandom().nextBytes(random);
+        byte[] res = Base64.getUrlEncoder().withoutPadding().encode(random);
+        Path folder = file.toAbsolutePath().getParent();
+        if (!folder.toFile().isDirectory()) {
+            Files.createDirectories(folder);
+            AuthCache.restrict(folder, true);
+        }
+        // Restrict permissions before token is written
+        Files.deleteIfExists(file);
+        Files.createFile(file);
+        AuthCache.restrict(file, false);
+        Files.write(file, res);
+        return res;
+    }
+
+    protected void health(@NonNull final HttpExchange exchange) throws IOException {
+        try {
+            if (!loopback(exchange)) {
+                respond(exchange, 403, new byte[0]);
+                return;
+            }
+            respond(exchange, 200, "OK".getBytes(UTF_8));
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Check request Host header to reject requests that were sent by browser to domain name
+     * that is resolved to loopback address
+     */
+    protected static boolean loopback(@NonNull final HttpExchange exchange) {
+        String host = exchange.getRequestHeaders().getFirst("Host");
+        if (null == host) return false;
+        host = host.trim().toLowerCase(Locale.ROOT);
+        int colon = host.lastIndexOf(':');
+        if (-1 != colon && colon > host.lastIndexOf(']')) host = host.substring(0, colon);
+        return LOOPBACK_HOSTS.contains(host);
+    }
+
+    protected boolean authorized(@NonNull final HttpExchange exchange) {
+        String authorization = exchange.getRequestHeaders().getFirst("Authorization");
+        if (null == authorization || !authorization.startsWith("Bearer ")) return false;
+        return MessageDigest.isEqual(token, authorization.substring("Bearer ".length()).trim().getBytes(UTF_8));
+    }
+
+    /**
+     * Read request body
+     * @return Request body or null if its size exceeds {@link #MAX_BODY_SIZE}
+     */
+    protected static byte[] body(@NonNull final HttpExchange exchange) throws IOException {
+        ByteArrayOutputStream res = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        try (InputStream is = exchange.getRequestBody()) {
+            for (int read; -1 != (read = is.read(buffer)); ) {
+                if (MAX_BODY_SIZE < res.size() + read) return null;
+                res.write(buffer, 0, read);
+            }
+        }
+        return res.toByteArray();
+    }
+
+    /**
+     * Execute AST job that is defined in request body using the same JSON format as
+     * batch-ast manifest job. Relative paths are resolved against server working folder.
+     * Request is checked by dispatcher thread and job itself is executed by jobs pool
+     */
+    protected void ast(@NonNull final HttpExchange exchange, @NonNull final ExecutorService jobs) throws IOException {
+        final byte[] body;
+        try {
+            int status = 0;
+            if (!loopback(exchange))
+                status = 403;
+            else if (!authorized(exchange)) {
+                exchange.getResponseHeaders().set("WWW-Authenticate", "Bearer");
+                status = 401;
+            } else if (!"POST".equals(exchange.getRequestMethod()))
+                status = 405;
+            else if (!isJson(exchange.getRequestHeaders().getFirst("Content-Type")))
+                status = 415;
+            body = 0 == status ? body(exchange) : null;
+            if (0 == status && null == body) status = 413;
+            if (0 != status) {
+                respond(exchange, status, new byte[0]);
+                exchange.close();
+                return;
+            }
+        } catch (IOException | RuntimeException e) {
+            exchange.close();
+            throw e;
+        }
+        try {
+            jobs.execute(() -> {
+                try {
+                    Result result = execute(body);
+                    int status = (ExitCode.INVALID_INPUT.getCode() == result.getExitCode()) ? 400 : 200;
+                    exchange.getResponseHeaders().set("Content-Type", "application/json");
+                    respond(exchange, status, mapper.writeValueAsBytes(result));
+                } catch (IOException e) {
+                    log.debug("AST job response write failed", e);
+                } finally {
+                    exchange.close();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Server is being stopped
+            exchange.close();
+        }
+    }
+
+    protected static boolean isJson(final String contentType) {
+        if (null == contentType) return false;
+        return "application/json".equalsIgnoreCase(contentType.split(";")[0].trim());
+    }
+
+    protected Result execute(@NonNull final byte[] body) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        PrintStream console = new PrintStream(buffer, true);
+        Result result = new Result();
+        BatchAst.Entry entry = null;
+        try {
+            entry = mapper.readValue(body, BatchAst.Entry.class);
+            BatchAst.validate(entry);
+        } catch (IOException e) {
+            console.println(e.getMessage());
+            entry = null;
+        } catch (GenericException e) {
+            console.println(e.getDetailedMessage());
+            entry = null;
+        }
+        if (null == entry)
+            result.setExitCode(ExitCode.INVALID_INPUT.getCode());
+        else {
+            Path base = Paths.get(System.getProperty("user.dir"));
+            AbstractJob.JobExecutionResult res;
+            try {
+                res = BatchAst.job(this, entry, base, BatchAst.output(entry, base, counter.incrementAndGet()), console, client, uploadPermits).execute();
+            } catch (GenericException e) {
+                console.println(e.getDetailedMessage());
+                res = AbstractJob.JobExecutionResult.FAILED;
+            }
+            log.debug("AST job for {} finished with {}", entry.getInput(), res);
+            result.setResult(res);
+            result.setExitCode(SUCCESS == res ? ExitCode.SUCCESS.getCode() : ExitCode.FAILED.getCode());
+        }
+        result.setOutput(new String(buffer.toByteArray(), UTF_8));
+        return result;
+    }
+
+    protected static void respond(@NonNull final HttpExchange exchange, final int status, @NonNull final byte[] body) throws IOException {
+        exchange.sendResponseHeaders(status, 0 == body.length ? -1 : body.length);
+        if (0 == body.length) return;
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(body);
+        }
+    }
+}
@@ -9,6 +9,8 @@ import com.ptsecurity.appsec.ai.ee.utils.ci.integration.cli.utils.GracefulShutdo
 import com.ptsecurity.appsec.ai.ee.utils.ci.integration.exceptions.GenericException;
 import com.ptsecurity.appsec.ai.ee.utils.ci.integration.operations.AstOperations;
 import com.ptsecurity.appsec.ai.ee.utils.ci.integration.utils.FileCollector;
+import com.ptsecurity.appsec.ai.ee.utils.ci.integration.utils.SourcesManifest;
+import com.ptsecurity.appsec.ai.ee.utils.ci.integration.utils.ZipRequestBody;
 import lombok.Builder;
 import lombok.NonNull;
 import org.apache.commons.lang3.StringUtils;
@@ -39,19 +41,43 @@ public class LocalAstOperations implements AstOperations {
     }
 
     public File createZip() throws GenericException {
+        return createLocalZip(transfers(), owner.getInput());
+    }
+
+    @Override
+    public ZipRequestBody createZipStream() throws GenericException {
+        return FileCollector.stream(transfers(), owner.getInput().toFile(), owner);
+    }
+
+    @Override
+    public SourcesManifest createSourcesManifest(@NonNull final UUID projectId) throws GenericException {
+        Path file = owner.getOutput().resolve(SourcesManifest.fileName(projectId));
+        return FileCollector.manifest(transfers(), owner.getInput().toFile(), owner, projectId, file);
+    }
+
+    private Transfers transfers() {
         Transfer transfer = new Transfer();
         if (StringUtils.isNotEmpty(owner.getIncludes())) transfer.setIncludes(owner.getIncludes());
         if (StringUtils.isNotEmpty(owner.getExcludes())) transfer.setExcludes(owner.getExcludes());
         transfer.setUseDefaultExcludes(owner.isUseDefaultExcludes());
-        return createLocalZip(new Transfers().addTransfer(transfer), owner.getInput());
+        return new Transfers().addTransfer(transfer);
     }
 
     public void scanStartedCallback(@NonNull final UUID projectId, @NonNull UUID scanResultId) {
+        // Sources are uploaded already, so let other batch mode job start its upload
+        owner.releaseUploadPermit();
         shutdown = new GracefulShutdown(owner);
         Runtime.getRuntime().addShutdownHook(shutdown);
     }
 
     public void scanCompleteCallback(@NonNull final ScanBrief scanBrief, @NonNull final ScanBriefDetailed.Performance performance)  {
-        if (null != shutdown) shutdown.setStopped(true);
+        if (null == shutdown) return;
+        shutdown.setStopped(true);
+        // Long running CLI server executes many jobs, so remove hook to not keep finished job
+        try {
+            Runtime.getRuntime().removeShutdownHook(shutdown);
+        } catch (IllegalStateException ignored) {
+            // JVM shutdown is in progress already
+        }
     }
 }
@@ -13,6 +13,10 @@ import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.io.FileUtils;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
 @Slf4j
 @SuperBuilder
@@ -28,14 +32,45 @@ public class LocalFileOperations extends AbstractFileOperations implements FileO
     @SneakyThrows
     protected void saveInMemoryData(@NonNull String name, byte[] data) {
         byte[] safeData = (null == data) ? new byte[0] : data;
-        if (saver.getOutput().resolve(name).toFile().exists()) {
+        File target = target(name);
+        if (null == target) return;
+        FileUtils.writeByteArrayToFile(target, safeData);
+    }
+
+    @Override
+    protected void saveStreamData(@NonNull String name, @NonNull InputStream data) throws IOException {
+        File target = target(name);
+        if (null == target) return;
+        FileUtils.forceMkdirParent(target);
+        Files.copy(data, target.toPath());
+    }
+
+    @Override
+    protected void saveFileData(@NonNull String name, @NonNull Path file, boolean move) throws IOException {
+        File target = target(name);
+        if (null == target) return;
+        FileUtils.forceMkdirParent(target);
+        // Temporal files are moved to avoid data copy if they are on the same file system
+        if (move)
+            Files.move(file, target.toPath());
+        else
+            Files.copy(file, target.toPath());
+    }
+
+    /**
+     * Get artifact file and delete existing one if needed
+     * @param name Artifact name
+     * @return Artifact file or null if existing file delete failed
+     */
+    protected File target(@NonNull String name) {
+        File target = saver.getOutput().resolve(name).toFile();
+        if (target.exists()) {
             console.warning("Existing file " + name + " will be overwritten");
-            if (!saver.getOutput().resolve(name).toFile().delete()) {
+            if (!target.delete()) {
                 console.severe("Existing file " + name + " delete failed");
-                return;
+                return null;
             }
         }
-        FileUtils.writeByteArrayToFile(saver.getOutput().resolve(name).toFile(), safeData);
+        return target;
     }
-
 }
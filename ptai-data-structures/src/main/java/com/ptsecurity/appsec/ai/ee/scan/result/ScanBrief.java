@@ -198,4 +198,23 @@ public class ScanBrief {
     @NonNull
     @Builder.Default
     protected ScanBrief.State state = ScanBrief.State.UNKNOWN;
+
+    /**
+     * Copy constructor. Scan settings and statistics aren't cloned but shared with source
+     * @param source Scan brief to be copied
+     */
+    public ScanBrief(@NonNull final ScanBrief source) {
+        this.apiVersion = source.apiVersion;
+        this.ptaiServerUrl = source.ptaiServerUrl;
+        this.ptaiServerVersion = source.ptaiServerVersion;
+        this.ptaiAgentVersion = source.ptaiAgentVersion;
+        this.id = source.id;
+        this.projectId = source.projectId;
+        this.projectName = source.projectName;
+        this.useAsyncScan = source.useAsyncScan;
+        this.scanSettings = source.scanSettings;
+        this.policyState = source.policyState;
+        this.statistics = source.statistics;
+        this.state = source.state;
+    }
 }
\ No newline at end of file
@@ -41,4 +41,15 @@ public class ScanResult extends ScanBrief {
     @Builder.Default
     @JsonProperty("i18n")
     protected Map<String, Map<Reports.Locale, Strings>> i18n = new HashMap<>();
+
+    /**
+     * Copy constructor that creates scan result with empty issues list. Scan brief fields
+     * and issues parse flag are copied, i18n map is shared with source and must not be modified
+     * @param source Scan result to be copied
+     */
+    public ScanResult(@NonNull final ScanResult source) {
+        super(source);
+        this.issuesParseOk = source.issuesParseOk;
+        this.i18n = source.i18n;
+    }
 }
\ No newline at end of file